@@ -0,0 +1,104 @@
+package edu.fbansept.m2i2.benchmark;
+
+import edu.fbansept.m2i2.dto.ProductDetailDTO;
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.model.Role;
+import edu.fbansept.m2i2.model.User;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic data sets shared by the benchmarks.
+ * Mirrors data-test.sql: a handful of admins and sellers shared by many products.
+ */
+final class BenchmarkData {
+
+  private static final int ADMIN_COUNT = 5;
+  private static final int SELLER_COUNT = 10;
+  private static final int CLIENT_COUNT = 500;
+
+  private BenchmarkData() {}
+
+  static List<ProductDetailDTO> productDetailDTOs(int size) {
+    List<ProductDetailDTO> products = new ArrayList<>(size);
+    for (int i = 1; i <= size; i++) {
+      ProductDetailDTO dto = new ProductDetailDTO(
+        (long) i,
+        "Product " + i,
+        10.0 + (i % 9000) + 0.99,
+        "Description of product " + i + " with a few words of marketing text",
+        i % 100
+      );
+      int admin = i % ADMIN_COUNT;
+      int seller = i % SELLER_COUNT;
+      dto.setAdmin(new ProductDetailDTO.UserSummaryDTO(1000L + admin, "admin" + admin + "@example.com", "ADMIN"));
+      dto.setSeller(new ProductDetailDTO.UserSummaryDTO(2000L + seller, "seller" + seller + "@example.com", "SELLER"));
+      if (i % 3 != 0) {
+        int client = i % CLIENT_COUNT;
+        dto.setClient(new ProductDetailDTO.UserSummaryDTO(3000L + client, "client" + client + "@example.com", "CLIENT"));
+      }
+      products.add(dto);
+    }
+    return products;
+  }
+
+  /**
+   * Product entities sharing a few admins and sellers (as loaded by productDao.findAll())
+   */
+  static List<Product> products(int size) {
+    List<User> admins = users("admin", ADMIN_COUNT, role(1L, "ADMIN"));
+    List<User> sellers = users("seller", SELLER_COUNT, role(2L, "SELLER"));
+    List<User> clients = users("client", CLIENT_COUNT, role(3L, "CLIENT"));
+
+    List<Product> products = new ArrayList<>(size);
+    for (int i = 1; i <= size; i++) {
+      Product product = new Product();
+      product.setId((long) i);
+      product.setName("Product " + i);
+      product.setPrice(10.0 + (i % 9000) + 0.99);
+      product.setDescription("Description of product " + i + " with a few words of marketing text");
+      product.setStock(i % 100);
+      product.setAdmin(admins.get(i % ADMIN_COUNT));
+      product.setSeller(sellers.get(i % SELLER_COUNT));
+      if (i % 3 != 0) {
+        product.setClient(clients.get(i % CLIENT_COUNT));
+      }
+      products.add(product);
+    }
+    return products;
+  }
+
+  /**
+   * Users to validate, one in ten with a malformed email
+   */
+  static List<User> usersToValidate(int size) {
+    List<User> users = new ArrayList<>(size);
+    for (int i = 1; i <= size; i++) {
+      User user = new User();
+      user.setEmail(i % 10 == 0 ? "user" + i + "@example" : "user." + i + "@example.com");
+      user.setPassword("password" + i);
+      users.add(user);
+    }
+    return users;
+  }
+
+  private static List<User> users(String prefix, int count, Role role) {
+    List<User> users = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      User user = new User();
+      user.setId(role.getId() * 1000 + i);
+      user.setEmail(prefix + i + "@example.com");
+      user.setPassword("root");
+      user.setRole(role);
+      users.add(user);
+    }
+    return users;
+  }
+
+  private static Role role(Long id, String name) {
+    Role role = new Role();
+    role.setId(id);
+    role.setName(name);
+    return role;
+  }
+}
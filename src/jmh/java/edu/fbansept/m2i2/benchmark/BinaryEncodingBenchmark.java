@@ -0,0 +1,85 @@
+package edu.fbansept.m2i2.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import edu.fbansept.m2i2.dto.ProductDetailDTO;
+import edu.fbansept.m2i2.view.ProductDetailView;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Compares JSON, CBOR and Smile for a 10k ProductDetailDTO list serialized
+ * under ProductDetailView, i.e. the same view restrictions as GET /api/products/{id}.
+ *
+ * Payload sizes are logged once per trial (not printed into the JMH results); encode/decode times are the JMH scores.
+ *
+ * Run with: ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="BinaryEncoding"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryEncodingBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger(BinaryEncodingBenchmark.class);
+
+  @Param({ "JSON", "CBOR", "SMILE" })
+  public String format;
+
+  @Param({ "10000" })
+  public int size;
+
+  private ObjectWriter writer;
+  private ObjectReader reader;
+  private List<ProductDetailDTO> products;
+  private byte[] encoded;
+
+  @Setup
+  public void setup() throws Exception {
+    // Same builder defaults as the application (DEFAULT_VIEW_INCLUSION disabled ...)
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+    switch (format) {
+      case "CBOR" -> builder.factory(new CBORFactory());
+      case "SMILE" -> builder.factory(new SmileFactory());
+      default -> { }
+    }
+    ObjectMapper mapper = builder.build();
+
+    writer = mapper.writerWithView(ProductDetailView.class);
+    reader = mapper.readerFor(new TypeReference<List<ProductDetailDTO>>() {});
+    products = BenchmarkData.productDetailDTOs(size);
+    encoded = writer.writeValueAsBytes(products);
+
+    logger.info("{} payload for {} products: {} bytes", format, size, encoded.length);
+  }
+
+  @Benchmark
+  public byte[] encode() throws Exception {
+    return writer.writeValueAsBytes(products);
+  }
+
+  @Benchmark
+  public List<ProductDetailDTO> decode() throws Exception {
+    return reader.readValue(encoded);
+  }
+}
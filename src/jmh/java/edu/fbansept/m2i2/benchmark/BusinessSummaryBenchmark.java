@@ -0,0 +1,49 @@
+package edu.fbansept.m2i2.benchmark;
+
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.service.ProductSummaryService;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Aggregation of GET /api/products/business-summary (ProductSummaryService.summarize),
+ * without the database read
+ *
+ * Run with: ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="BusinessSummary -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BusinessSummaryBenchmark {
+
+  @Param({ "1000", "100000", "1000000" })
+  public int size;
+
+  private final ProductSummaryService summaryService = new ProductSummaryService();
+  private List<Product> products;
+
+  @Setup
+  public void setup() {
+    products = BenchmarkData.products(size);
+  }
+
+  @Benchmark
+  public Map<String, Object> summarize() {
+    return summaryService.summarize(products);
+  }
+}
@@ -0,0 +1,58 @@
+package edu.fbansept.m2i2.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.fbansept.m2i2.dto.ProductDetailDTO;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON serialization of a ProductDetailDTO list under each product JsonView
+ *
+ * The JSON is streamed to a discarding OutputStream, as the converter streams it to the response:
+ * the 1M lists would otherwise measure the growth of a several hundred MB byte array.
+ *
+ * Run with: ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="JsonViewSerialization -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JsonViewSerializationBenchmark {
+
+  @Param({ "ProductBasicView", "ProductCatalogView", "ProductListView", "ProductSummaryView", "ProductDetailView" })
+  public String view;
+
+  @Param({ "1000", "100000", "1000000" })
+  public int size;
+
+  private ObjectWriter writer;
+  private List<ProductDetailDTO> products;
+
+  @Setup
+  public void setup() throws Exception {
+    // Same builder defaults as the application (DEFAULT_VIEW_INCLUSION disabled ...)
+    writer = Jackson2ObjectMapperBuilder.json().build()
+      .writerWithView(Class.forName("edu.fbansept.m2i2.view." + view));
+    products = BenchmarkData.productDetailDTOs(size);
+  }
+
+  @Benchmark
+  public void serialize() throws Exception {
+    writer.writeValue(OutputStream.nullOutputStream(), products);
+  }
+}
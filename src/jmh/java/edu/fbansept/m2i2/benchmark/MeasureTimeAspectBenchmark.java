@@ -0,0 +1,79 @@
+package edu.fbansept.m2i2.benchmark;
+
+import edu.fbansept.m2i2.annotation.MeasureTime;
+import edu.fbansept.m2i2.aspect.MeasureTimeAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.event.Level;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Overhead of MeasureTimeAspect per call, for a call whose log line is suppressed
+ * (TRACE is below the default logback level):
+ * - baseline: direct call, no proxy
+ * - proxied: call through the Spring AOP proxy to a method without @MeasureTime
+ * - measured: call through the proxy to a @MeasureTime method (timer recorded, nothing logged)
+ *
+ * measured - proxied is the cost of the aspect itself; run with -prof gc (and no JFR recording)
+ * to check that it allocates nothing beyond the join point created by Spring AOP.
+ *
+ * Run with: ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="MeasureTimeAspect -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeasureTimeAspectBenchmark {
+
+  private Service direct;
+  private Service proxy;
+  private int value;
+
+  @Setup
+  public void setup() {
+    direct = new Service();
+
+    AspectJProxyFactory factory = new AspectJProxyFactory(new Service());
+    factory.addAspect(new MeasureTimeAspect(new SimpleMeterRegistry(), true, 0, 60));
+    proxy = factory.getProxy();
+  }
+
+  @Benchmark
+  public int baseline() {
+    return direct.measured(value++);
+  }
+
+  @Benchmark
+  public int proxied() {
+    return proxy.notMeasured(value++);
+  }
+
+  @Benchmark
+  public int measured() {
+    return proxy.measured(value++);
+  }
+
+  public static class Service {
+
+    @MeasureTime(logLevel = Level.TRACE)
+    public int measured(int value) {
+      return value * 31 + 7;
+    }
+
+    public int notMeasured(int value) {
+      return value * 31 + 7;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package edu.fbansept.m2i2.benchmark;
+
+import edu.fbansept.m2i2.dto.ProductDetailDTO;
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.service.ProductMappingService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Entity to DTO mapping of GET /api/products and GET /api/products/role-view/{userId}:
+ * - detailList: toProductDetailDTOList (users interned for the whole list)
+ * - roleBased: toRoleBasedProductDTO for every product, as the role view does
+ *   (per role: the role parameter lives in RoleState, so detailList runs once per size)
+ *
+ * Run with: ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="ProductMapping -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductMappingBenchmark {
+
+  @Param({ "1000", "100000", "1000000" })
+  public int size;
+
+  private final ProductMappingService mappingService = new ProductMappingService();
+  private List<Product> products;
+
+  @Setup
+  public void setup() {
+    products = BenchmarkData.products(size);
+  }
+
+  @Benchmark
+  public List<ProductDetailDTO> detailList() {
+    return mappingService.toProductDetailDTOList(products);
+  }
+
+  @Benchmark
+  public List<ProductDetailDTO> roleBased(RoleState state) {
+    List<ProductDetailDTO> dtos = new ArrayList<>(products.size());
+    for (Product product : products) {
+      dtos.add(mappingService.toRoleBasedProductDTO(product, state.role));
+    }
+    return dtos;
+  }
+
+  @State(Scope.Benchmark)
+  public static class RoleState {
+
+    @Param({ "ADMIN", "SELLER", "CLIENT" })
+    public String role;
+  }
+}
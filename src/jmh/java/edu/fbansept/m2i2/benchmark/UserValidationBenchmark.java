@@ -0,0 +1,63 @@
+package edu.fbansept.m2i2.benchmark;
+
+import edu.fbansept.m2i2.model.User;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bean validation of User with the groups of POST /api/users (@NotBlank, @Email and @Pattern on email,
+ * @NotBlank on password), one user in ten invalid
+ *
+ * Run with: ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="UserValidation -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserValidationBenchmark {
+
+  @Param({ "1000", "100000", "1000000" })
+  public int size;
+
+  private ValidatorFactory validatorFactory;
+  private Validator validator;
+  private List<User> users;
+
+  @Setup
+  public void setup() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    validator = validatorFactory.getValidator();
+    users = BenchmarkData.usersToValidate(size);
+  }
+
+  @TearDown
+  public void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Benchmark
+  public int validate() {
+    int violations = 0;
+    for (User user : users) {
+      violations += validator.validate(user, User.add.class).size();
+    }
+    return violations;
+  }
+}
@@ -4,6 +4,8 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.event.Level;
 
 /**
  * Annotation to measure method execution time
@@ -12,8 +14,11 @@ import java.lang.annotation.Target;
  * @MeasureTime
  * public void myMethod() { ... }
  * 
- * @MeasureTime(logLevel = "DEBUG", unit = "MILLISECONDS")
+ * @MeasureTime(logLevel = Level.DEBUG, unit = TimeUnit.MICROSECONDS)
  * public void anotherMethod() { ... }
+ *
+ * @MeasureTime(sampleRate = 0.01, slowThresholdMillis = 500)
+ * public List<Product> hotMethod() { ... }
  */
 @Target(ElementType.METHOD)              // Can only be used on methods
 @Retention(RetentionPolicy.RUNTIME)      // Available at runtime (for reflection)
@@ -21,15 +26,15 @@ public @interface MeasureTime {
     
     /**
      * Log level to display execution time
-     * @return the log level (default "INFO")
+     * @return the log level (default INFO)
      */
-    String logLevel() default "INFO";
+    Level logLevel() default Level.INFO;
     
     /**
      * Time unit for display
-     * @return the time unit (default "MILLISECONDS")
+     * @return the time unit (default MILLISECONDS)
      */
-    String unit() default "MILLISECONDS";
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
     
     /**
      * Custom message to display
@@ -42,4 +47,22 @@ public @interface MeasureTime {
      * @return true to include parameters, false otherwise
      */
     boolean includeParameters() default false;
+
+    /**
+     * Fraction of calls whose execution time is logged (timers always record every call)
+     * @return the sample rate, between 0 and 1 (default 1, every call)
+     */
+    double sampleRate() default 1.0;
+
+    /**
+     * Calls at least this slow are always logged, at WARN level
+     * @return the threshold in milliseconds (default -1, disabled)
+     */
+    long slowThresholdMillis() default -1;
+
+    /**
+     * Log slow calls only (see slowThresholdMillis), sampled calls are not logged
+     * @return true to log only slow calls, false otherwise
+     */
+    boolean logOnlySlow() default false;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package edu.fbansept.m2i2.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the DAO parameter holding the seller a sharded query is restricted to
+ *
+ * The query then runs on the seller's shard only instead of every shard.
+ * The parameter can be the seller itself (a User) or its ID.
+ *
+ * Usage example:
+ * List<Product> findBySeller(@ShardKey User seller);
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {}
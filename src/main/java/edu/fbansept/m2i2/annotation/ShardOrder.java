@@ -0,0 +1,28 @@
+package edu.fbansept.m2i2.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Order in which the rows of a sharded query are merged across shards
+ *
+ * Must match the ORDER BY of the query, so that the sorted results of every shard
+ * can be k-way merged into one sorted result. Without this annotation
+ * (and without a sorted Sort or Pageable argument) rows are merged by "id".
+ *
+ * Usage example:
+ * @ShardOrder({"changeVersion", "id"})
+ * List<Product> findChangedSince(long since, long sinceId, Pageable pageable);
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardOrder {
+
+    /**
+     * Properties compared in order, ascending
+     * @return the property names (default "id")
+     */
+    String[] value() default {"id"};
+}
@@ -0,0 +1,24 @@
+package edu.fbansept.m2i2.annotation;
+
+import edu.fbansept.m2i2.config.SnowflakeIdGenerator;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Annotation generating a time-ordered 64-bit ID when the entity is persisted
+ *
+ * The ID is allocated in memory (no IDENTITY column, no sequence round trip),
+ * so inserts can be sent in JDBC batches and any node can allocate IDs without coordination.
+ *
+ * Usage example:
+ * @Id
+ * @SnowflakeId
+ * protected Long id;
+ */
+@IdGeneratorType(SnowflakeIdGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SnowflakeId {}
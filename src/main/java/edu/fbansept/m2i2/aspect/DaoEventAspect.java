@@ -0,0 +1,95 @@
+package edu.fbansept.m2i2.aspect;
+
+import edu.fbansept.m2i2.monitoring.DaoCallEvent;
+import jakarta.persistence.Entity;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits a JFR DaoCallEvent for every call to ProductDao, UserDao and RoleDao
+ *
+ * Runs after the other aspects (innermost): with sharding, each shard call is its own event
+ * on the worker thread that runs it, next to that thread's JDBC and lock events.
+ * Costs a field read per call while no recording enables the event.
+ */
+@Aspect
+@Component
+public class DaoEventAspect {
+
+    private static final String OUTCOME_SUCCESS = "success";
+
+    // "ProductDao.findAll", per repository proxy class and method (findAll is shared by every DAO)
+    private final Map<Class<?>, Map<Method, String>> names = new ConcurrentHashMap<>();
+
+    @Around(
+        "target(edu.fbansept.m2i2.dao.ProductDao) " +
+        "|| target(edu.fbansept.m2i2.dao.UserDao) " +
+        "|| target(edu.fbansept.m2i2.dao.RoleDao)"
+    )
+    public Object recordDaoCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        DaoCallEvent event = new DaoCallEvent();
+        event.begin();
+        try {
+            Object result = joinPoint.proceed();
+            if (event.isEnabled()) {
+                event.complete(name(joinPoint), OUTCOME_SUCCESS, rows(result));
+            }
+            return result;
+        } catch (Throwable e) {
+            if (event.isEnabled()) {
+                event.complete(name(joinPoint), e.getClass().getSimpleName(), -1);
+            }
+            throw e;
+        }
+    }
+
+    private String name(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> proxyClass = joinPoint.getTarget().getClass();
+        Map<Method, String> daoNames = names.computeIfAbsent(proxyClass, key -> new ConcurrentHashMap<>());
+        String name = daoNames.get(method);
+        if (name == null) {
+            String dao = daoInterface(proxyClass).getSimpleName();
+            name = daoNames.computeIfAbsent(method, key -> dao + "." + key.getName());
+        }
+        return name;
+    }
+
+    /**
+     * The DAO interface implemented by the repository proxy
+     */
+    private Class<?> daoInterface(Class<?> proxyClass) {
+        for (Class<?> type : proxyClass.getInterfaces()) {
+            if (type.getPackageName().equals("edu.fbansept.m2i2.dao")) {
+                return type;
+            }
+        }
+        return proxyClass;
+    }
+
+    private long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result == null) {
+            return 0;
+        }
+        return result.getClass().isAnnotationPresent(Entity.class) ? 1 : -1;
+    }
+}
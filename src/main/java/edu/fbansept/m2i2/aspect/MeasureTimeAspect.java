@@ -1,19 +1,67 @@
 package edu.fbansept.m2i2.aspect;
 
 import edu.fbansept.m2i2.annotation.MeasureTime;
+import edu.fbansept.m2i2.monitoring.AllocationMeter;
+import edu.fbansept.m2i2.monitoring.MethodExecutionEvent;
+import edu.fbansept.m2i2.monitoring.QueryMonitor;
+import edu.fbansept.m2i2.monitoring.QueryScope;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Aspect to measure execution time of methods annotated with @MeasureTime
+ *
+ * Every call is recorded in the timer "m2i2.method.execution", tagged by class, method
+ * and outcome ("success" or the simple name of the thrown exception). Timers publish
+ * p50/p90/p99 and a percentile histogram, exposed on /actuator/metrics and /actuator/prometheus.
+ * Heap bytes allocated by the calling thread during the call go to the summary
+ * "m2i2.method.allocation" (tags class and method), unless m2i2.allocation.enabled=false.
+ * Every call is also a JFR MethodExecutionEvent (method, duration, rows loaded, outcome),
+ * created and committed only while a recording enables it.
+ *
+ * The log line is a side channel: it can be disabled (m2i2.measure-time.log-enabled)
+ * or limited to calls slower than m2i2.measure-time.log-threshold-ms.
+ * Per method, only a sample of calls can be logged (sampleRate) while slow calls
+ * (slowThresholdMillis) are always logged; logOnlySlow drops the sampled lines.
+ * Such methods also log a summary every m2i2.measure-time.window-seconds:
+ * exact call count, average and maximum time, and the parameters of the slowest call
+ * (when includeParameters is set). The window aggregates are drained in place (sumThenReset),
+ * so every call is counted in exactly one summary: a call recorded while the summary is
+ * taken goes to this window or to the next one.
+ *
+ * Everything derived from the method (names, message, unit, level, timers) is resolved
+ * on the first call and cached, so a call whose log line is suppressed only reads
+ * the clock twice and records into its timer and window. Outside JFR recordings, the aspect
+ * allocates nothing itself, except the slowest-call record of a summarized method
+ * when the call is the slowest of the window so far.
+ * The sampling decision uses ThreadLocalRandom (no shared state, no lock).
+ * When the query monitor is enabled, SQL statements, loaded rows and JDBC time of the call
+ * are appended to its log line, and N+1 suspects are logged when no request scope is open.
+ * The log message is built only when the logger accepts it.
+ * See MeasureTimeAspectBenchmark for the overhead per call.
  */
 @Aspect
 @Component
@@ -21,90 +69,327 @@ public class MeasureTimeAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(MeasureTimeAspect.class);
 
+    public static final String TIMER_NAME = "m2i2.method.execution";
+    public static final String ALLOCATION_NAME = "m2i2.method.allocation";
+    public static final String OUTCOME_SUCCESS = "success";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean logEnabled;
+    private final long logThresholdNanos;
+    private final long windowSeconds;
+
+    // Per-method metadata, resolved on the first call
+    private final Map<Method, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService summaries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "measure-time-summary");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MeasureTimeAspect(
+            MeterRegistry meterRegistry,
+            @Value("${m2i2.measure-time.log-enabled:true}") boolean logEnabled,
+            @Value("${m2i2.measure-time.log-threshold-ms:0}") long logThresholdMillis,
+            @Value("${m2i2.measure-time.window-seconds:60}") long windowSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.logEnabled = logEnabled;
+        this.logThresholdNanos = TimeUnit.MILLISECONDS.toNanos(logThresholdMillis);
+        this.windowSeconds = windowSeconds;
+        summaries.scheduleAtFixedRate(this::logSummaries, windowSeconds, windowSeconds, TimeUnit.SECONDS);
+    }
+
     /**
      * Intercepts all methods annotated with @MeasureTime
      * and measures their execution time
      */
     @Around("@annotation(measureTime)")
     public Object measureExecutionTime(ProceedingJoinPoint joinPoint, MeasureTime measureTime) throws Throwable {
-        
-        // Get method and class name
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-        
-        // Build custom message or default
-        String message = measureTime.message().isEmpty() 
-            ? String.format("%s.%s", className, methodName)
-            : measureTime.message();
-        
-        // Add parameters if requested
-        if (measureTime.includeParameters()) {
-            Object[] args = joinPoint.getArgs();
-            if (args.length > 0) {
-                message += " with parameters: " + Arrays.toString(args);
-            }
-        }
-        
+        MethodMetrics methodMetrics = metrics(joinPoint, measureTime);
+
+        // SQL issued by the call (pooled scope, nothing allocated)
+        QueryScope queries = QueryMonitor.isEnabled() ? QueryMonitor.open(methodMetrics.message) : null;
+
         // Start measurement
+        MethodExecutionEvent event = MethodExecutionEvent.beginIfEnabled();
+        long allocatedBefore = AllocationMeter.allocatedBytes();
         long startTime = System.nanoTime();
-        
+
         try {
             // Execute original method
             Object result = joinPoint.proceed();
-            
-            // End measurement and calculate time
-            long endTime = System.nanoTime();
-            long executionTime = endTime - startTime;
-            
-            // Convert according to requested unit
-            double convertedTime = convertTime(executionTime, measureTime.unit());
-            String unit = measureTime.unit().toLowerCase();
-            
-            // Log according to requested level
-            String logMessage = String.format("⏱️  %s executed in %.2f %s", message, convertedTime, unit);
-            logAtLevel(measureTime.logLevel(), logMessage);
-            
+
+            // End measurement and record it
+            long executionTime = System.nanoTime() - startTime;
+            long allocatedBytes = AllocationMeter.allocatedSince(allocatedBefore);
+            closeQueries(queries);
+            methodMetrics.successTimer.record(executionTime, TimeUnit.NANOSECONDS);
+            methodMetrics.recordAllocation(allocatedBytes);
+            if (event != null) {
+                event.complete(methodMetrics.qualifiedName, OUTCOME_SUCCESS, queries != null ? queries.getRows() : -1);
+            }
+            methodMetrics.recordInWindow(executionTime, joinPoint);
+
+            if (logEnabled) {
+                if (executionTime >= methodMetrics.slowThresholdNanos) {
+                    if (logger.isWarnEnabled()) {
+                        log(Level.WARN, methodMetrics, "🐢 ", " was slow: executed in ", executionTime, allocatedBytes, joinPoint, queries, null);
+                    }
+                } else if (!methodMetrics.logOnlySlow
+                        && executionTime >= logThresholdNanos
+                        && logger.isEnabledForLevel(methodMetrics.level)
+                        && methodMetrics.sampled()) {
+                    log(methodMetrics.level, methodMetrics, "⏱️  ", " executed in ", executionTime, allocatedBytes, joinPoint, queries, null);
+                }
+            }
+
             return result;
-            
-        } catch (Exception e) {
-            // In case of error, still log execution time
-            long endTime = System.nanoTime();
-            long executionTime = endTime - startTime;
-            double convertedTime = convertTime(executionTime, measureTime.unit());
-            String unit = measureTime.unit().toLowerCase();
-            
-            String errorMessage = String.format("❌ %s failed after %.2f %s - Error: %s", 
-                message, convertedTime, unit, e.getMessage());
-            logAtLevel("ERROR", errorMessage);
-            
+
+        } catch (Throwable e) {
+            // In case of error, still record execution time
+            long executionTime = System.nanoTime() - startTime;
+            long allocatedBytes = AllocationMeter.allocatedSince(allocatedBefore);
+            closeQueries(queries);
+            methodMetrics.failureTimer(e.getClass()).record(executionTime, TimeUnit.NANOSECONDS);
+            methodMetrics.recordAllocation(allocatedBytes);
+            if (event != null) {
+                event.complete(methodMetrics.qualifiedName, e.getClass().getSimpleName(), queries != null ? queries.getRows() : -1);
+            }
+            methodMetrics.recordInWindow(executionTime, joinPoint);
+
+            if (logEnabled && logger.isErrorEnabled()) {
+                log(Level.ERROR, methodMetrics, "❌ ", " failed after ", executionTime, allocatedBytes, joinPoint, queries, e);
+            }
+
             throw e; // Re-throw exception
         }
     }
-    
+
+    private void closeQueries(QueryScope queries) {
+        if (queries != null) {
+            queries.close();
+            if (queries.isRoot()) {
+                QueryMonitor.logNPlusOneSuspects(queries);
+            }
+        }
+    }
+
+    private MethodMetrics metrics(ProceedingJoinPoint joinPoint, MeasureTime measureTime) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodMetrics methodMetrics = metrics.get(method);
+        if (methodMetrics == null) {
+            Class<?> targetClass = joinPoint.getTarget().getClass();
+            methodMetrics = metrics.computeIfAbsent(method, key -> new MethodMetrics(targetClass, method, measureTime));
+        }
+        return methodMetrics;
+    }
+
     /**
-     * Converts time from nanoseconds to requested unit
+     * Builds and logs the message, only called when the logger accepts the level
      */
-    private double convertTime(long nanoTime, String unit) {
-        return switch (unit.toUpperCase()) {
-            case "NANOSECONDS" -> nanoTime;
-            case "MICROSECONDS" -> nanoTime / 1_000.0;
-            case "MILLISECONDS" -> nanoTime / 1_000_000.0;
-            case "SECONDS" -> nanoTime / 1_000_000_000.0;
-            default -> nanoTime / 1_000_000.0; // Default to milliseconds
-        };
+    private void log(
+            Level level,
+            MethodMetrics methodMetrics,
+            String prefix,
+            String verb,
+            long executionTime,
+            long allocatedBytes,
+            ProceedingJoinPoint joinPoint,
+            QueryScope queries,
+            Throwable error) {
+
+        StringBuilder message = new StringBuilder(128)
+            .append(prefix)
+            .append(methodMetrics.message);
+
+        // Add parameters if requested
+        if (methodMetrics.includeParameters) {
+            Object[] args = joinPoint.getArgs();
+            if (args.length > 0) {
+                message.append(" with parameters: ").append(Arrays.toString(args));
+            }
+        }
+
+        message.append(verb).append(methodMetrics.format(executionTime));
+
+        if (allocatedBytes >= 0) {
+            message.append(", allocated ").append(AllocationMeter.format(allocatedBytes));
+        }
+
+        if (queries != null) {
+            message.append(" [").append(queries.summary()).append(']');
+        }
+
+        if (error != null) {
+            message.append(" - Error: ").append(error.getMessage());
+        }
+
+        logger.atLevel(level).log(message.toString());
     }
-    
+
     /**
-     * Log message according to specified level
+     * Logs and resets the window of every method whose per-call lines are sampled or limited to slow calls
      */
-    private void logAtLevel(String level, String message) {
-        switch (level.toUpperCase()) {
-            case "TRACE" -> logger.trace(message);
-            case "DEBUG" -> logger.debug(message);
-            case "INFO" -> logger.info(message);
-            case "WARN" -> logger.warn(message);
-            case "ERROR" -> logger.error(message);
-            default -> logger.info(message); // Default to INFO
+    private void logSummaries() {
+        if (!logEnabled) {
+            return;
+        }
+        for (MethodMetrics methodMetrics : metrics.values()) {
+            if (!methodMetrics.summarized || !logger.isEnabledForLevel(methodMetrics.level)) {
+                continue;
+            }
+
+            // Drained, not replaced: an increment racing with the summary lands in the next window
+            Window window = methodMetrics.window;
+            long count = window.count.sumThenReset();
+            long totalNanos = window.totalNanos.sumThenReset();
+            SlowestCall slowest = window.slowest.getAndSet(SlowestCall.NONE);
+            if (count == 0) {
+                continue;
+            }
+
+            StringBuilder message = new StringBuilder(128)
+                .append("📊 ")
+                .append(methodMetrics.message)
+                .append(": ").append(count).append(" calls in ").append(windowSeconds).append("s")
+                .append(", avg ").append(methodMetrics.format(totalNanos / count))
+                .append(", max ").append(methodMetrics.format(slowest.nanos));
+            if (slowest.args != null && slowest.args.length > 0) {
+                message.append(" (slowest with parameters: ").append(Arrays.toString(slowest.args)).append(')');
+            }
+            logger.atLevel(methodMetrics.level).log(message.toString());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        summaries.shutdownNow();
+    }
+
+    /**
+     * Everything the aspect needs about one annotated method
+     */
+    private final class MethodMetrics {
+
+        private final String className;
+        private final String methodName;
+        private final String qualifiedName;
+        private final String message;
+        private final boolean includeParameters;
+        private final TimeUnit unit;
+        private final String unitLabel;
+        private final Level level;
+        private final double sampleRate;
+        private final long slowThresholdNanos;
+        private final boolean logOnlySlow;
+        private final boolean summarized;
+        private final Timer successTimer;
+        private final DistributionSummary allocation;
+
+        // Failure timers per exception class, registered on first failure
+        private final Map<Class<?>, Timer> failureTimers = new ConcurrentHashMap<>();
+
+        // Aggregates of the current summary window, reset by logSummaries
+        private final Window window = new Window();
+
+        private MethodMetrics(Class<?> targetClass, Method method, MeasureTime measureTime) {
+            this.className = targetClass.getSimpleName();
+            this.methodName = method.getName();
+            this.qualifiedName = className + "." + methodName;
+            this.message = measureTime.message().isEmpty() ? qualifiedName : measureTime.message();
+            this.includeParameters = measureTime.includeParameters();
+            this.unit = measureTime.unit();
+            this.unitLabel = unit.name().toLowerCase();
+            this.level = measureTime.logLevel();
+            this.sampleRate = Math.max(0, Math.min(1, measureTime.sampleRate()));
+            this.slowThresholdNanos = measureTime.slowThresholdMillis() >= 0
+                ? TimeUnit.MILLISECONDS.toNanos(measureTime.slowThresholdMillis())
+                : Long.MAX_VALUE;
+            this.logOnlySlow = measureTime.logOnlySlow();
+            this.summarized = logOnlySlow || sampleRate < 1;
+            this.successTimer = timer(OUTCOME_SUCCESS);
+            this.allocation = DistributionSummary.builder(ALLOCATION_NAME)
+                .description("Heap bytes allocated by the calling thread in methods annotated with @MeasureTime")
+                .baseUnit(BaseUnits.BYTES)
+                .tag("class", className)
+                .tag("method", methodName)
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+
+        private void recordAllocation(long allocatedBytes) {
+            if (allocatedBytes >= 0) {
+                allocation.record(allocatedBytes);
+            }
+        }
+
+        private boolean sampled() {
+            return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        }
+
+        private void recordInWindow(long executionTime, ProceedingJoinPoint joinPoint) {
+            if (!summarized) {
+                return;
+            }
+            window.count.increment();
+            window.totalNanos.add(executionTime);
+
+            // Arguments are captured only when this call is the slowest of the window so far
+            SlowestCall slowest = window.slowest.get();
+            if (executionTime > slowest.nanos) {
+                SlowestCall candidate = new SlowestCall(executionTime, includeParameters ? joinPoint.getArgs() : null);
+                while (executionTime > slowest.nanos && !window.slowest.compareAndSet(slowest, candidate)) {
+                    slowest = window.slowest.get();
+                }
+            }
+        }
+
+        private String format(long nanos) {
+            // Convert according to requested unit, 2 decimals
+            double converted = (double) nanos / unit.toNanos(1);
+            return Math.round(converted * 100) / 100.0 + " " + unitLabel;
+        }
+
+        private Timer failureTimer(Class<?> exceptionClass) {
+            Timer timer = failureTimers.get(exceptionClass);
+            if (timer == null) {
+                timer = failureTimers.computeIfAbsent(exceptionClass, key -> timer(key.getSimpleName()));
+            }
+            return timer;
+        }
+
+        private Timer timer(String outcome) {
+            return Timer.builder(TIMER_NAME)
+                .description("Execution time of methods annotated with @MeasureTime")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Count, total and slowest call of a method over the current summary window (lock-free)
+     * LongAdder.sumThenReset takes each cell with an atomic swap, so no increment is lost between windows
+     */
+    private static final class Window {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicReference<SlowestCall> slowest = new AtomicReference<>(SlowestCall.NONE);
+    }
+
+    private static final class SlowestCall {
+        private static final SlowestCall NONE = new SlowestCall(0, null);
+
+        private final long nanos;
+        private final Object[] args;
+
+        private SlowestCall(long nanos, Object[] args) {
+            this.nanos = nanos;
+            this.args = args;
         }
     }
-}
\ No newline at end of file
+}
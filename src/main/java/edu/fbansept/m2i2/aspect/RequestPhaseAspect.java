@@ -0,0 +1,43 @@
+package edu.fbansept.m2i2.aspect;
+
+import edu.fbansept.m2i2.monitoring.RequestPhases;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks controller and DAO calls in the RequestPhases timeline
+ *
+ * Runs before every other aspect, so that the controller phase includes @MeasureTime
+ * and the SQL phase includes shard routing (scatter-gather waits on the request thread).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "m2i2.request-phases.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestPhaseAspect {
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object controller(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestPhases.controllerEntered();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestPhases.controllerExited();
+        }
+    }
+
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object dao(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestPhases.daoEntered();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestPhases.daoExited();
+        }
+    }
+}
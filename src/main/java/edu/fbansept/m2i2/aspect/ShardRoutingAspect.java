@@ -0,0 +1,321 @@
+package edu.fbansept.m2i2.aspect;
+
+import edu.fbansept.m2i2.annotation.ShardKey;
+import edu.fbansept.m2i2.annotation.ShardOrder;
+import edu.fbansept.m2i2.config.ShardContext;
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.model.User;
+import edu.fbansept.m2i2.service.ShardingService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Component;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Aspect making the DAOs shard-aware (active with m2i2.sharding.enabled=true)
+ *
+ * Products (and their tombstones) are partitioned by seller:
+ * - save: runs on the seller's shard (a product whose seller changed moves to the new shard)
+ * - delete: runs on every shard (only the shard holding the row deletes it)
+ * - query with a @ShardKey parameter: runs on that seller's shard
+ * - any other query: runs on every shard in parallel, then results are combined
+ *   (sorted lists k-way merged, pages re-cut, counts summed, first Optional found)
+ *
+ * Users and roles are replicated: their writes run on shard 0 first (which assigns the ID),
+ * then on the other shards in parallel. Their reads are served by shard 0.
+ *
+ * Calls made on a thread already bound to a shard run there unchanged.
+ * Only RequestPhaseAspect runs before it (to time the whole routed call).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "m2i2.sharding.enabled", havingValue = "true")
+public class ShardRoutingAspect {
+
+    private static final String[] DEFAULT_ORDER = {"id"};
+
+    private final ShardingService shardingService;
+
+    // Property getters used to merge sorted results, per (entity class, property)
+    private final Map<List<Object>, Method> getters = new ConcurrentHashMap<>();
+
+    public ShardRoutingAspect(ShardingService shardingService) {
+        this.shardingService = shardingService;
+    }
+
+    @Around("target(edu.fbansept.m2i2.dao.ProductDao) || target(edu.fbansept.m2i2.dao.ProductTombstoneDao)")
+    public Object routeShardedCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (ShardContext.isBound() || method.getDeclaringClass() == Object.class) {
+            return joinPoint.proceed();
+        }
+
+        String name = method.getName();
+        Object[] args = joinPoint.getArgs();
+
+        if (name.equals("save") || name.equals("saveAndFlush")) {
+            return save(joinPoint, args[0]);
+        }
+        if (name.startsWith("saveAll")) {
+            List<Object> saved = new ArrayList<>();
+            for (Object entity : (Iterable<?>) args[0]) {
+                saved.add(repository(joinPoint).save(entity));
+            }
+            return saved;
+        }
+        if (name.startsWith("delete")) {
+            shardingService.onAllShards(joinPoint::proceed);
+            return null;
+        }
+
+        Integer shard = shardKey(method, args);
+        if (shard != null) {
+            return shardingService.onShard(shard, joinPoint::proceed);
+        }
+        return scatterGather(joinPoint, method, args);
+    }
+
+    @Around(
+        "(target(edu.fbansept.m2i2.dao.UserDao) || target(edu.fbansept.m2i2.dao.RoleDao)) " +
+        "&& (execution(* save*(..)) || execution(* delete*(..)))"
+    )
+    public Object replicateWrite(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ShardContext.isBound()) {
+            return joinPoint.proceed();
+        }
+
+        Object result = shardingService.onShard(0, joinPoint::proceed);
+        shardingService.onShards(
+            IntStream.range(1, shardingService.getShardCount()).boxed().toList(),
+            joinPoint::proceed
+        );
+        return result;
+    }
+
+    private Object save(ProceedingJoinPoint joinPoint, Object entity) throws Throwable {
+        if (!(entity instanceof Product product)) {
+            throw new UnsupportedOperationException(
+                entity.getClass().getSimpleName() + " is written with its product, not saved on its own"
+            );
+        }
+        if (product.getSeller() == null || product.getSeller().getId() == null) {
+            throw new IllegalArgumentException("A product needs a seller to be routed to a shard");
+        }
+
+        int target = shardingService.shardOf(product.getSeller().getId());
+
+        // Seller changed: the product leaves the shard of its previous seller
+        if (product.getId() != null) {
+            CrudRepository<Object, Object> repository = repository(joinPoint);
+            List<Boolean> found = shardingService.onAllShards(() -> repository.existsById(product.getId()));
+            for (int shard = 0; shard < found.size(); shard++) {
+                if (found.get(shard) && shard != target) {
+                    shardingService.onShard(shard, () -> {
+                        repository.deleteById(product.getId());
+                        return null;
+                    });
+                }
+            }
+        }
+
+        return shardingService.onShard(target, joinPoint::proceed);
+    }
+
+    private Integer shardKey(Method method, Object[] args) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    Object key = args[i];
+                    if (key instanceof User seller && seller.getId() != null) {
+                        return shardingService.shardOf(seller.getId());
+                    }
+                    if (key instanceof Number sellerId) {
+                        return shardingService.shardOf(sellerId.longValue());
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private Object scatterGather(ProceedingJoinPoint joinPoint, Method method, Object[] args) throws Throwable {
+        Class<?> returnType = method.getReturnType();
+
+        // Each shard returns its first (offset + size) rows, the merged rows are then cut again
+        Pageable pageable = null;
+        Object[] shardArgs = args.clone();
+        Sort sort = Sort.unsorted();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Pageable page && page.isPaged()) {
+                pageable = page;
+                sort = page.getSort();
+                shardArgs[i] = PageRequest.of(0, (int) page.getOffset() + page.getPageSize(), page.getSort());
+            } else if (args[i] instanceof Sort requested) {
+                sort = requested;
+            }
+        }
+
+        List<Object> results = shardingService.onAllShards(() -> joinPoint.proceed(shardArgs));
+
+        if (returnType == void.class) {
+            return null;
+        }
+        if (Page.class.isAssignableFrom(returnType)) {
+            List<List<?>> contents = new ArrayList<>();
+            long total = 0;
+            for (Object result : results) {
+                contents.add(((Page<?>) result).getContent());
+                total += ((Page<?>) result).getTotalElements();
+            }
+            Pageable page = pageable != null ? pageable : Pageable.unpaged();
+            return new PageImpl<>(cut(merge(contents, comparator(method, sort)), pageable), page, total);
+        }
+        if (Iterable.class.isAssignableFrom(returnType)) {
+            List<List<?>> contents = new ArrayList<>();
+            for (Object result : results) {
+                contents.add(result instanceof List<?> list ? list : toList((Iterable<?>) result));
+            }
+            return cut(merge(contents, comparator(method, sort)), pageable);
+        }
+        if (returnType == Optional.class) {
+            return results.stream().map(Optional.class::cast).filter(Optional::isPresent).findFirst().orElse(Optional.empty());
+        }
+        if (returnType == boolean.class || returnType == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (returnType == long.class || returnType == Long.class) {
+            return results.stream().mapToLong(result -> ((Number) result).longValue()).sum();
+        }
+        return results.stream().filter(result -> result != null).findFirst().orElse(null);
+    }
+
+    /**
+     * K-way merge of lists sorted with the same comparator
+     */
+    private List<Object> merge(List<List<?>> sortedLists, Comparator<Object> comparator) {
+        int total = 0;
+        List<List<?>> lists = new ArrayList<>(sortedLists.size());
+        for (List<?> list : sortedLists) {
+            List<Object> sorted = new ArrayList<>(list);
+            sorted.sort(comparator); // Already sorted when the query has an ORDER BY: linear
+            lists.add(sorted);
+            total += sorted.size();
+        }
+
+        // Heap of (list index, position in list), ordered by the element at that position
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+            Math.max(1, lists.size()),
+            (a, b) -> comparator.compare(lists.get(a[0]).get(a[1]), lists.get(b[0]).get(b[1]))
+        );
+        for (int i = 0; i < lists.size(); i++) {
+            if (!lists.get(i).isEmpty()) {
+                heads.add(new int[] { i, 0 });
+            }
+        }
+
+        List<Object> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<?> list = lists.get(head[0]);
+            merged.add(list.get(head[1]));
+            if (head[1] + 1 < list.size()) {
+                heads.add(new int[] { head[0], head[1] + 1 });
+            }
+        }
+        return merged;
+    }
+
+    private List<Object> cut(List<Object> merged, Pageable pageable) {
+        if (pageable == null) {
+            return merged;
+        }
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return new ArrayList<>(merged.subList(from, to));
+    }
+
+    private Comparator<Object> comparator(Method method, Sort sort) {
+        Comparator<Object> comparator = null;
+        if (sort.isSorted()) {
+            for (Sort.Order order : sort) {
+                Comparator<Object> next = byProperty(order.getProperty());
+                next = order.isDescending() ? next.reversed() : next;
+                comparator = comparator == null ? next : comparator.thenComparing(next);
+            }
+            return comparator;
+        }
+
+        ShardOrder shardOrder = method.getAnnotation(ShardOrder.class);
+        for (String property : shardOrder != null ? shardOrder.value() : DEFAULT_ORDER) {
+            Comparator<Object> next = byProperty(property);
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<Object> byProperty(String property) {
+        Comparator<Comparable> values = Comparator.nullsFirst(Comparator.naturalOrder());
+        return Comparator.nullsFirst(Comparator.<Object, Comparable>comparing(
+            element -> (Comparable) read(element, property),
+            values
+        ));
+    }
+
+    private Object read(Object element, String property) {
+        Method getter = getters.computeIfAbsent(List.of(element.getClass(), property), key -> {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(element.getClass(), property);
+            if (descriptor == null || descriptor.getReadMethod() == null) {
+                throw new IllegalStateException(
+                    "Cannot merge " + element.getClass().getSimpleName() + " rows by '" + property + "', declare @ShardOrder"
+                );
+            }
+            return descriptor.getReadMethod();
+        });
+        try {
+            return getter.invoke(element);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read '" + property + "' to merge shard results", e);
+        }
+    }
+
+    private List<?> toList(Iterable<?> iterable) {
+        if (iterable instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+        List<Object> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CrudRepository<Object, Object> repository(ProceedingJoinPoint joinPoint) {
+        return (CrudRepository<Object, Object>) joinPoint.getThis();
+    }
+}
@@ -0,0 +1,25 @@
+package edu.fbansept.m2i2.config;
+
+import edu.fbansept.m2i2.monitoring.AllocationMeter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Heap allocation accounting per @MeasureTime method and per endpoint (m2i2.allocation.enabled)
+ *
+ * Recorded by MeasureTimeAspect ("m2i2.method.allocation") and RequestPhaseFilter ("m2i2.request.allocation").
+ */
+@Configuration
+@ConditionalOnProperty(name = "m2i2.allocation.enabled", havingValue = "true", matchIfMissing = true)
+public class AllocationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AllocationConfig.class);
+
+    public AllocationConfig() {
+        if (!AllocationMeter.configure(true)) {
+            logger.warn("Thread allocation accounting is not supported by this JVM, allocation metrics are disabled");
+        }
+    }
+}
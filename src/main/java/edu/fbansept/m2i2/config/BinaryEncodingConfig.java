@@ -0,0 +1,35 @@
+package edu.fbansept.m2i2.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary content negotiation for internal consumers.
+ *
+ * Clients sending {@code Accept: application/cbor} or {@code Accept: application/x-jackson-smile}
+ * receive the same payload as JSON clients, encoded in a compact binary format.
+ * Both converters extend the Jackson converter used for JSON, so {@code @JsonView}
+ * restrictions declared on handler methods apply identically to every encoding.
+ *
+ * The mappers are built from Spring Boot's {@link Jackson2ObjectMapperBuilder}
+ * (a prototype bean) so that {@code spring.jackson.*} settings and registered
+ * modules are shared with the JSON mapper.
+ */
+@Configuration
+public class BinaryEncodingConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
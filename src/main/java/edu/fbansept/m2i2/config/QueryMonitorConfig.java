@@ -0,0 +1,42 @@
+package edu.fbansept.m2i2.config;
+
+import edu.fbansept.m2i2.monitoring.JdbcTimingListener;
+import edu.fbansept.m2i2.monitoring.QueryCountingInspector;
+import edu.fbansept.m2i2.monitoring.QueryMonitor;
+import edu.fbansept.m2i2.monitoring.RowCountingIntegrator;
+import java.util.List;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * SQL accounting per request and per @MeasureTime method (m2i2.query-monitor.*)
+ *
+ * Plugs the QueryMonitor hooks into Hibernate: a StatementInspector counting statements,
+ * a session listener timing JDBC executions and a post-load listener counting loaded entities.
+ */
+@Configuration
+@ConditionalOnProperty(name = "m2i2.query-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMonitorConfig {
+
+    public QueryMonitorConfig(@Value("${m2i2.query-monitor.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        QueryMonitor.configure(true, nPlusOneThreshold);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryMonitorHibernateProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingListener.class.getName());
+            properties.put(
+                JpaSettings.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(new RowCountingIntegrator())
+            );
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package edu.fbansept.m2i2.config;
+
+import edu.fbansept.m2i2.monitoring.RequestPhaseInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per-endpoint request phase timing (m2i2.request-phases.*)
+ *
+ * RequestPhaseFilter, RequestPhaseAdvice and RequestPhaseAspect are components;
+ * the handler interceptor is registered here.
+ */
+@Configuration
+@ConditionalOnProperty(name = "m2i2.request-phases.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestPhaseConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestPhaseInterceptor());
+    }
+}
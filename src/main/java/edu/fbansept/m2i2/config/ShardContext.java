@@ -0,0 +1,31 @@
+package edu.fbansept.m2i2.config;
+
+/**
+ * Shard bound to the current thread
+ *
+ * Read by {@link ShardRoutingDataSource} when a connection is acquired,
+ * i.e. when a transaction starts. Threads without a bound shard use shard 0,
+ * which also holds a full copy of users and roles.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static boolean isBound() {
+        return CURRENT.get() != null;
+    }
+
+    public static void bind(int shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
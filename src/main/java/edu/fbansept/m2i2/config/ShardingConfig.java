@@ -0,0 +1,49 @@
+package edu.fbansept.m2i2.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Seller-based horizontal sharding (enabled with {@code m2i2.sharding.enabled=true}).
+ *
+ * One connection pool is created per URL of {@code m2i2.sharding.urls}, and the
+ * application DataSource routes each connection to the shard bound to the thread
+ * (see {@link ShardContext}). Spring Boot's single DataSource backs off, so JPA,
+ * JdbcTemplate and the transaction manager all go through the routing DataSource.
+ *
+ * Every shard has the full schema: products live on the shard of their seller,
+ * users and roles are replicated to every shard so products can be joined locally.
+ * Routing and replication are applied on the DAOs by ShardRoutingAspect.
+ */
+@Configuration
+@ConditionalOnProperty(name = "m2i2.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(
+            @Value("${m2i2.sharding.urls}") String[] urls,
+            @Value("${m2i2.sharding.username:${spring.datasource.username:}}") String username,
+            @Value("${m2i2.sharding.password:${spring.datasource.password:}}") String password) {
+
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < urls.length; shard++) {
+            shards.put(shard, DataSourceBuilder.create()
+                    .url(urls[shard].trim())
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource(urls.length);
+        dataSource.setTargetDataSources(shards);
+        dataSource.setDefaultTargetDataSource(shards.get(0));
+        return dataSource;
+    }
+}
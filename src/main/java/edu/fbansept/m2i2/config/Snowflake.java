@@ -0,0 +1,111 @@
+package edu.fbansept.m2i2.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free generator of time-ordered 64-bit IDs (Snowflake layout)
+ *
+ * <pre>
+ * | 0 | 41 bits: ms since 2025-01-01 | 10 bits: node | 12 bits: sequence |
+ * </pre>
+ *
+ * IDs of one node are strictly increasing, and IDs of all nodes are roughly ordered by
+ * creation time, so they stay index-friendly (appended at the end of the primary key B-tree).
+ *
+ * The last (timestamp, sequence) pair is packed in one AtomicLong and advanced with a CAS loop.
+ * When the 4096 IDs of a millisecond are exhausted, or when the clock goes backwards,
+ * the generator borrows the next millisecond instead of blocking: IDs never repeat,
+ * and the wall clock catches up on its own.
+ */
+public final class Snowflake {
+
+    // 2025-01-01T00:00:00Z
+    public static final long EPOCH = 1735689600000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // One generator per node ID in the JVM, shared by every entity using it
+    private static final Map<Integer, Snowflake> INSTANCES = new ConcurrentHashMap<>();
+
+    private final long node;
+
+    // Epoch milliseconds, System.currentTimeMillis outside tests
+    private final LongSupplier clock;
+
+    // (timestamp << SEQUENCE_BITS) | sequence of the last allocated ID
+    private final AtomicLong state = new AtomicLong();
+
+    private Snowflake(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /**
+     * Unshared generator reading a given clock (tests)
+     * @param nodeId The node ID, between 0 and 1023
+     * @param clock Epoch milliseconds
+     */
+    Snowflake(int nodeId, LongSupplier clock) {
+        checkNodeId(nodeId);
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the generator of a node
+     * @param nodeId The node ID, between 0 and 1023
+     * @return The shared generator of this node
+     */
+    public static Snowflake forNode(int nodeId) {
+        checkNodeId(nodeId);
+        return INSTANCES.computeIfAbsent(nodeId, Snowflake::new);
+    }
+
+    private static void checkNodeId(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Snowflake node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+    }
+
+    /**
+     * Allocates the next ID of this node
+     * @return A positive ID, greater than every ID previously returned by this node
+     */
+    public long nextId() {
+        long now = clock.getAsLong() - EPOCH;
+        long last;
+        long next;
+        do {
+            last = state.get();
+            next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+        } while (!state.compareAndSet(last, next));
+
+        return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+            | (node << SEQUENCE_BITS)
+            | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * Creation time of an ID
+     * @param id An ID allocated by any node
+     * @return Epoch milliseconds encoded in the ID
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    /**
+     * Node of an ID
+     * @param id An ID allocated by any node
+     * @return The node ID encoded in the ID
+     */
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
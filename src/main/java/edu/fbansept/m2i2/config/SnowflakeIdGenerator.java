@@ -0,0 +1,56 @@
+package edu.fbansept.m2i2.config;
+
+import edu.fbansept.m2i2.annotation.SnowflakeId;
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+/**
+ * Hibernate generator behind {@link SnowflakeId}
+ *
+ * The node ID is read from the Hibernate setting {@code m2i2.snowflake.node-id}
+ * (set through {@code spring.jpa.properties.m2i2.snowflake.node-id}), 0 when absent.
+ * Every running instance must use a distinct node ID.
+ *
+ * An ID already set on the entity is kept (rows copied from another database or shard).
+ */
+public class SnowflakeIdGenerator implements BeforeExecutionGenerator {
+
+    public static final String NODE_ID_SETTING = "m2i2.snowflake.node-id";
+
+    private final Snowflake snowflake;
+
+    public SnowflakeIdGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object nodeId = context.getServiceRegistry()
+            .requireService(ConfigurationService.class)
+            .getSettings()
+            .get(NODE_ID_SETTING);
+
+        this.snowflake = Snowflake.forNode(nodeId == null ? 0 : Integer.parseInt(nodeId.toString().trim()));
+    }
+
+    @Override
+    public Object generate(
+        SharedSessionContractImplementor session,
+        Object owner,
+        Object currentValue,
+        EventType eventType
+    ) {
+        return currentValue != null ? currentValue : snowflake.nextId();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
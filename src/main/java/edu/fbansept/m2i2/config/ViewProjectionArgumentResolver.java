@@ -0,0 +1,48 @@
+package edu.fbansept.m2i2.config;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import edu.fbansept.m2i2.service.FieldProjectionService;
+import edu.fbansept.m2i2.service.ViewProjection;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves ViewProjection handler parameters from the @JsonView of the handler method.
+ *
+ * The view declared for serialization also drives the query, so the handler
+ * only loads the columns the view keeps (a single view is required, like Jackson).
+ */
+@Component
+public class ViewProjectionArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final FieldProjectionService projectionService;
+
+    public ViewProjectionArgumentResolver(FieldProjectionService projectionService) {
+        this.projectionService = projectionService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return ViewProjection.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(
+            MethodParameter parameter,
+            ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest,
+            WebDataBinderFactory binderFactory) {
+
+        JsonView jsonView = parameter.getMethodAnnotation(JsonView.class);
+        if (jsonView == null || jsonView.value().length != 1) {
+            throw new IllegalStateException(
+                    "ViewProjection requires exactly one @JsonView class on " + parameter.getExecutable());
+        }
+
+        return new ViewProjection(projectionService, jsonView.value()[0]);
+    }
+}
@@ -0,0 +1,24 @@
+package edu.fbansept.m2i2.config;
+
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC customizations (argument resolvers ...)
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ViewProjectionArgumentResolver viewProjectionArgumentResolver;
+
+    public WebConfig(ViewProjectionArgumentResolver viewProjectionArgumentResolver) {
+        this.viewProjectionArgumentResolver = viewProjectionArgumentResolver;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(viewProjectionArgumentResolver);
+    }
+}
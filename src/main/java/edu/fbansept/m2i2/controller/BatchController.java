@@ -0,0 +1,80 @@
+package edu.fbansept.m2i2.controller;
+
+import edu.fbansept.m2i2.annotation.MeasureTime;
+import edu.fbansept.m2i2.dto.BatchOperationsRequestDTO;
+import edu.fbansept.m2i2.dto.BatchOperationsResponseDTO;
+import edu.fbansept.m2i2.service.BatchOperationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/batch")
+@Tag(name = "🧺 Batch Operations", description = "Several product, user and role operations in one request and one transaction")
+public class BatchController {
+
+  @Autowired
+  protected BatchOperationService batchOperationService;
+
+  @PostMapping
+  @MeasureTime(message = "Executing batch operations", logLevel = Level.DEBUG)
+  @Operation(
+    summary = "Execute operations in one transaction",
+    description = "Executes an ordered list of operations with the same services (and business rules) as their endpoints, " +
+                  "in one transaction with JDBC batching: everything is committed, or nothing if an operation fails. " +
+                  "Operations: product.create|update|patch|delete|assign-client|remove-client, user.create|update|patch|delete, " +
+                  "role.create|update|delete. Path variables and request parameters go in params, request bodies in body. " +
+                  "\"${n.id}\" refers to the ID produced by operation n. Max 500 operations.",
+    tags = {"🧺 Batch Operations", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "All operations succeeded and were committed",
+      content = @Content(
+        mediaType = "application/json",
+        schema = @Schema(implementation = BatchOperationsResponseDTO.class),
+        examples = @ExampleObject(
+          name = "Committed Batch Example",
+          value = "{\"committed\": true, \"results\": [{\"index\": 0, \"op\": \"product.create\", \"status\": 201, \"id\": \"42\"}, {\"index\": 1, \"op\": \"product.assign-client\", \"status\": 200, \"id\": \"42\"}, {\"index\": 2, \"op\": \"product.patch\", \"status\": 204, \"id\": \"42\"}]}"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "400", description = "Empty or too large batch"),
+    @ApiResponse(responseCode = "422", description = "An operation failed: nothing was committed, see results")
+  })
+  public ResponseEntity<?> execute(
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+      description = "Operations, executed in order",
+      required = true,
+      content = @Content(
+        mediaType = "application/json",
+        examples = @ExampleObject(
+          name = "Create, assign client, update stock",
+          value = "{\"operations\": [" +
+                  "{\"op\": \"product.create\", \"params\": {\"adminId\": 2, \"sellerId\": 3}, \"body\": {\"name\": \"Desk Lamp\", \"price\": 39.99, \"stock\": 10}}, " +
+                  "{\"op\": \"product.assign-client\", \"params\": {\"id\": \"${0.id}\", \"clientId\": 1}}, " +
+                  "{\"op\": \"product.patch\", \"params\": {\"id\": \"${0.id}\"}, \"body\": {\"stock\": 9}}]}"
+        )
+      )
+    )
+    @RequestBody BatchOperationsRequestDTO request
+  ) {
+    String error = batchOperationService.validate(request);
+    if (error != null) {
+      return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    BatchOperationsResponseDTO response = batchOperationService.execute(request);
+    return new ResponseEntity<>(response, response.isCommitted() ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY);
+  }
+}
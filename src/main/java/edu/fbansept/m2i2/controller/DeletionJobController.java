@@ -0,0 +1,62 @@
+package edu.fbansept.m2i2.controller;
+
+import edu.fbansept.m2i2.annotation.MeasureTime;
+import edu.fbansept.m2i2.dto.BulkDeletionJobDTO;
+import edu.fbansept.m2i2.service.BulkDeletionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Optional;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/deletion-jobs")
+@Tag(name = "🗑️ Bulk Deletion", description = "Progress of background user and role deletions")
+public class DeletionJobController {
+
+  @Autowired
+  protected BulkDeletionService bulkDeletionService;
+
+  @GetMapping("/{jobId}")
+  @MeasureTime(message = "Retrieving deletion job", includeParameters = true, logLevel = Level.DEBUG)
+  @Operation(
+    summary = "Get bulk deletion job progress",
+    description = "Returns the status of a deletion submitted with DELETE /api/users/{id}/bulk or /api/roles/{id}/bulk. " +
+                  "Counters are updated after every committed chunk. Finished jobs are kept for a limited time.",
+    tags = {"🗑️ Bulk Deletion"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Job found",
+      content = @Content(
+        mediaType = "application/json",
+        schema = @Schema(implementation = BulkDeletionJobDTO.class),
+        examples = @ExampleObject(
+          name = "Running Job Example",
+          value = "{\"id\": \"3f2c9a1e-6b0d-4c1e-9f4a-2d7e8b5c1a90\", \"target\": \"role\", \"targetId\": \"1\", \"status\": \"RUNNING\", \"deletedProducts\": 12000, \"detachedProducts\": 3400, \"deletedUsers\": 5000, \"chunks\": 21, \"submittedAt\": \"2025-01-15T10:30:00\"}"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "404", description = "Unknown or expired job")
+  })
+  @Parameter(name = "jobId", description = "Job ID returned by the bulk deletion", required = true)
+  public ResponseEntity<BulkDeletionJobDTO> get(@PathVariable String jobId) {
+    Optional<BulkDeletionJobDTO> job = bulkDeletionService.getJob(jobId);
+
+    if (job.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    return new ResponseEntity<>(job.get(), HttpStatus.OK);
+  }
+}
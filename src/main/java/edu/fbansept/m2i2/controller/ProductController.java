@@ -17,18 +17,34 @@ import edu.fbansept.m2i2.view.ProductListView;
 import edu.fbansept.m2i2.view.ProductCatalogView;
 import edu.fbansept.m2i2.dao.ProductDao;
 import edu.fbansept.m2i2.dao.UserDao;
+import edu.fbansept.m2i2.dto.BatchResultDTO;
+import edu.fbansept.m2i2.dto.BulkAdjustRequestDTO;
+import edu.fbansept.m2i2.dto.BulkAdjustResultDTO;
+import edu.fbansept.m2i2.dto.NormalizedProductListDTO;
+import edu.fbansept.m2i2.dto.ProductChangeEvent;
+import edu.fbansept.m2i2.dto.ProductChangesDTO;
 import edu.fbansept.m2i2.dto.ProductDetailDTO;
 import edu.fbansept.m2i2.model.Product;
 import edu.fbansept.m2i2.model.User;
-import edu.fbansept.m2i2.service.ProductValidationService;
+import edu.fbansept.m2i2.service.BatchLookupService;
+import edu.fbansept.m2i2.service.FieldProjectionService;
+import edu.fbansept.m2i2.service.OperationResult;
+import edu.fbansept.m2i2.service.ProductBulkAdjustService;
+import edu.fbansept.m2i2.service.ProductChangeFeedService;
+import edu.fbansept.m2i2.service.ProductChangesService;
 import edu.fbansept.m2i2.service.ProductMappingService;
+import edu.fbansept.m2i2.service.ProductService;
+import edu.fbansept.m2i2.service.ProductSummaryService;
 import jakarta.validation.Valid;
 import java.util.*;
+import org.slf4j.event.Level;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/products")
@@ -41,14 +57,35 @@ public class ProductController {
   @Autowired
   protected UserDao userDao;
   
-  @Autowired
-  protected ProductValidationService validationService;
-  
   @Autowired
   protected ProductMappingService mappingService;
 
+  @Autowired
+  protected FieldProjectionService projectionService;
+
+  @Autowired
+  protected ProductChangeFeedService changeFeedService;
+
+  @Autowired
+  protected ProductChangesService changesService;
+
+  @Autowired
+  protected BatchLookupService batchLookupService;
+
+  @Autowired
+  protected ProductBulkAdjustService bulkAdjustService;
+
+  @Autowired
+  protected ProductSummaryService summaryService;
+
+  @Autowired
+  protected ProductService productService;
+
+  // Maximum page size of the delta sync endpoint
+  private static final int MAX_CHANGES_LIMIT = 1000;
+
   @GetMapping
-  @MeasureTime(message = "Retrieving all products")
+  @MeasureTime(message = "Retrieving all products", sampleRate = 0.01, slowThresholdMillis = 500)
   @JsonView(ProductListView.class)
   @Operation(
     summary = "Get all products (DTOs with List View)",
@@ -66,7 +103,7 @@ public class ProductController {
         schema = @Schema(implementation = ProductDetailDTO.class),
         examples = @ExampleObject(
           name = "Product DTOs Example",
-          value = "[{\"id\": 1, \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15}]"
+          value = "[{\"id\": \"1\", \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15}]"
         )
       )
     ),
@@ -77,6 +114,113 @@ public class ProductController {
     return mappingService.toProductDetailDTOList(products);
   }
 
+  @GetMapping(params = "fields")
+  @MeasureTime(message = "Retrieving products with sparse fieldset", includeParameters = true)
+  @Operation(
+    summary = "Get all products (Sparse fieldset)",
+    description = "Retrieves all products with only the requested fields, e.g. `?fields=id,name,price`. " +
+                  "Only the requested columns are selected, and admin/seller/client are joined only when one of their " +
+                  "fields is requested (e.g. `admin.email`). " +
+                  "🛡️ Fields are limited to those exposed by ProductSummaryView (password and roles are never projectable).",
+    tags = {"📦 Product Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Products retrieved with the requested fields",
+      content = @Content(
+        mediaType = "application/json",
+        examples = @ExampleObject(
+          name = "Sparse Fieldset Example",
+          value = "[{\"id\": \"1\", \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"seller\": {\"email\": \"mike.seller@example.com\"}}]"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "400", description = "Empty, unknown or forbidden field requested")
+  })
+  public ResponseEntity<?> getAllWithFields(
+    @Parameter(description = "Comma separated fields to return", required = true, example = "id,name,price,seller.email")
+    @RequestParam String fields
+  ) {
+    List<String> requestedFields = projectionService.parseFields(fields);
+    List<String> invalidFields = projectionService.invalidFields(Product.class, ProductSummaryView.class, requestedFields);
+
+    if (requestedFields.isEmpty() || !invalidFields.isEmpty()) {
+      return new ResponseEntity<>(
+        "Invalid fields " + invalidFields + ", allowed fields are " +
+        projectionService.allowedFields(Product.class, ProductSummaryView.class),
+        HttpStatus.BAD_REQUEST
+      );
+    }
+
+    return new ResponseEntity<>(projectionService.findAll(Product.class, requestedFields), HttpStatus.OK);
+  }
+
+  @GetMapping(params = {"ids", "!fields"})
+  @MeasureTime(message = "Retrieving products by IDs", includeParameters = true)
+  @JsonView(ProductDetailView.class)
+  @Operation(
+    summary = "Get products by IDs (Multi-get with ProductDetail View)",
+    description = "Retrieves several products in one request and one IN query, e.g. `?ids=1,2,3`. " +
+                  "Items follow the requested order and use the same ProductDetailView shape as GET /{id}; " +
+                  "IDs that match no product are listed in `missing`. Use POST /by-ids for long ID lists.",
+    tags = {"📦 Product Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Products retrieved in requested order",
+      content = @Content(
+        mediaType = "application/json",
+        examples = @ExampleObject(
+          name = "Multi-get Example",
+          value = "{\"items\": [{\"id\": \"3\", \"name\": \"Mechanical Keyboard\", \"price\": 89.99, \"stock\": 25, \"admin\": {\"id\": \"5\", \"email\": \"bob.admin@example.com\", \"roleName\": \"ADMIN\"}, \"seller\": {\"id\": \"3\", \"email\": \"mike.seller@example.com\", \"roleName\": \"SELLER\"}}], \"missing\": [\"42\"]}"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "400", description = "No IDs or too many IDs requested")
+  })
+  public ResponseEntity<?> getByIds(
+    @Parameter(description = "Comma separated IDs (max 1000)", required = true, example = "1,2,3")
+    @RequestParam List<Long> ids
+  ) {
+    return findByIds(ids);
+  }
+
+  @PostMapping("/by-ids")
+  @MeasureTime(message = "Retrieving products by IDs (POST)")
+  @JsonView(ProductDetailView.class)
+  @Operation(
+    summary = "Get products by IDs (Multi-get, POST for long lists)",
+    description = "Same as GET ?ids=... with the IDs sent as a JSON array body, for lists too long for a URL.",
+    tags = {"📦 Product Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Products retrieved in requested order"),
+    @ApiResponse(responseCode = "400", description = "No IDs or too many IDs requested")
+  })
+  public ResponseEntity<?> postByIds(
+    @Parameter(description = "IDs to retrieve (max 1000)", required = true)
+    @RequestBody List<Long> ids
+  ) {
+    return findByIds(ids);
+  }
+
+  private ResponseEntity<?> findByIds(List<Long> ids) {
+    String error = batchLookupService.validate(ids);
+    if (error != null) {
+      return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    BatchResultDTO<ProductDetailDTO> result = batchLookupService.findAllInOrder(
+      ids,
+      productDao::findAllWithUsersByIdIn,
+      Product::getId,
+      mappingService::toProductDetailDTO
+    );
+    return new ResponseEntity<>(result, HttpStatus.OK);
+  }
+
   @GetMapping("/{id}")
   @MeasureTime(message = "Retrieving product by ID", includeParameters = true)
   @JsonView(ProductDetailView.class)
@@ -96,7 +240,7 @@ public class ProductController {
         schema = @Schema(implementation = ProductDetailDTO.class),
         examples = @ExampleObject(
           name = "Product Detail DTO Example",
-          value = "{\"id\": 1, \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15, \"adminEmail\": \"jane.admin@example.com\", \"sellerEmail\": \"mike.seller@example.com\", \"clientEmail\": \"john.client@example.com\"}"
+          value = "{\"id\": \"1\", \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15, \"adminEmail\": \"jane.admin@example.com\", \"sellerEmail\": \"mike.seller@example.com\", \"clientEmail\": \"john.client@example.com\"}"
         )
       )
     ),
@@ -104,7 +248,7 @@ public class ProductController {
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
   @Parameter(name = "id", description = "Product ID", required = true, example = "1")
-  public ResponseEntity<ProductDetailDTO> get(@PathVariable int id) {
+  public ResponseEntity<ProductDetailDTO> get(@PathVariable long id) {
     Optional<Product> productOptional = productDao.findById(id);
 
     if (productOptional.isEmpty()) {
@@ -117,7 +261,7 @@ public class ProductController {
 
   @GetMapping("/admin/{userId}")
   @MeasureTime(message = "Retrieving products by admin ID", includeParameters = true)
-  public ResponseEntity<List<ProductDetailDTO>> getByAdminId(@PathVariable int userId) {
+  public ResponseEntity<List<ProductDetailDTO>> getByAdminId(@PathVariable long userId) {
     Optional<User> userOptional = userDao.findById(userId);
 
     if (userOptional.isEmpty()) {
@@ -131,7 +275,7 @@ public class ProductController {
 
   @GetMapping("/seller/{userId}")
   @MeasureTime(message = "Retrieving products by seller ID", includeParameters = true)
-  public ResponseEntity<List<ProductDetailDTO>> getBySellerId(@PathVariable int userId) {
+  public ResponseEntity<List<ProductDetailDTO>> getBySellerId(@PathVariable long userId) {
     Optional<User> userOptional = userDao.findById(userId);
 
     if (userOptional.isEmpty()) {
@@ -145,7 +289,7 @@ public class ProductController {
 
   @GetMapping("/client/{userId}")
   @MeasureTime(message = "Retrieving products by client ID", includeParameters = true)
-  public ResponseEntity<List<ProductDetailDTO>> getByClientId(@PathVariable int userId) {
+  public ResponseEntity<List<ProductDetailDTO>> getByClientId(@PathVariable long userId) {
     Optional<User> userOptional = userDao.findById(userId);
 
     if (userOptional.isEmpty()) {
@@ -158,7 +302,7 @@ public class ProductController {
   }
 
   @PostMapping
-  @MeasureTime(message = "Creating a new product", logLevel = "DEBUG")
+  @MeasureTime(message = "Creating a new product", logLevel = Level.DEBUG)
   @JsonView(ProductDetailView.class)
   @Operation(
     summary = "Create a new product with business constraints",
@@ -177,7 +321,7 @@ public class ProductController {
         schema = @Schema(implementation = ProductDetailDTO.class),
         examples = @ExampleObject(
           name = "Created Product Example",
-          value = "{\"id\": 9, \"name\": \"New Business Laptop\", \"price\": 1499.99, \"description\": \"Latest business laptop\", \"stock\": 10, \"adminEmail\": \"jane.admin@example.com\", \"sellerEmail\": \"mike.seller@example.com\", \"clientEmail\": null}"
+          value = "{\"id\": \"9\", \"name\": \"New Business Laptop\", \"price\": 1499.99, \"description\": \"Latest business laptop\", \"stock\": 10, \"adminEmail\": \"jane.admin@example.com\", \"sellerEmail\": \"mike.seller@example.com\", \"clientEmail\": null}"
         )
       )
     ),
@@ -189,54 +333,21 @@ public class ProductController {
     @Parameter(description = "Product data to create", required = true)
     @RequestBody @Validated(Product.add.class) Product productSent,
     @Parameter(description = "REQUIRED: User ID with ADMIN role to manage this product", required = true, example = "2")
-    @RequestParam Integer adminId,
+    @RequestParam Long adminId,
     @Parameter(description = "REQUIRED: User ID with SELLER role to sell this product", required = true, example = "3")
-    @RequestParam Integer sellerId,
+    @RequestParam Long sellerId,
     @Parameter(description = "OPTIONAL: User ID with CLIENT role who purchased this product", example = "1")
-    @RequestParam(required = false) Integer clientId
+    @RequestParam(required = false) Long clientId
   ) {
-    // Set and validate admin
-    ProductValidationService.ValidationResult adminResult = validationService.setProductAdmin(productSent, adminId);
-    if (!adminResult.isValid()) {
-      return new ResponseEntity<>(adminResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
-    }
-    
-    // Set and validate seller
-    ProductValidationService.ValidationResult sellerResult = validationService.setProductSeller(productSent, sellerId);
-    if (!sellerResult.isValid()) {
-      return new ResponseEntity<>(sellerResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
-    }
-    
-    // Set and validate client (optional)
-    ProductValidationService.ValidationResult clientResult = validationService.setProductClient(productSent, clientId);
-    if (!clientResult.isValid()) {
-      return new ResponseEntity<>(clientResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
-    }
-    
-    // Final validation of the complete product
-    ProductValidationService.ValidationResult productResult = validationService.validateProduct(productSent);
-    if (!productResult.isValid()) {
-      return new ResponseEntity<>(productResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
-    }
-    
-    productDao.save(productSent);
-
-    ProductDetailDTO productDTO = mappingService.toProductDetailDTO(productSent);
-    return new ResponseEntity<>(productDTO, HttpStatus.CREATED);
+    OperationResult result = productService.add(productSent, adminId, sellerId, clientId);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
   }
 
   @DeleteMapping("/{id}")
-  @MeasureTime(message = "Deleting product", includeParameters = true, logLevel = "WARN")
-  public ResponseEntity<?> delete(@PathVariable int id) {
-    Optional<Product> productOptional = productDao.findById(id);
-
-    if (productOptional.isEmpty()) {
-      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-    }
-
-    productDao.deleteById(id);
-
-    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  @MeasureTime(message = "Deleting product", includeParameters = true, logLevel = Level.WARN)
+  public ResponseEntity<?> delete(@PathVariable long id) {
+    OperationResult result = productService.delete(id);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
   }
 
   @PutMapping("/{id}")
@@ -259,7 +370,7 @@ public class ProductController {
         schema = @Schema(implementation = ProductDetailDTO.class),
         examples = @ExampleObject(
           name = "Updated Product Example",
-          value = "{\"id\": 1, \"name\": \"Updated Laptop Model\", \"price\": 1399.99, \"description\": \"Updated description\", \"stock\": 12, \"adminEmail\": \"bob.admin@example.com\", \"sellerEmail\": \"mike.seller@example.com\", \"clientEmail\": \"sarah.client@example.com\"}"
+          value = "{\"id\": \"1\", \"name\": \"Updated Laptop Model\", \"price\": 1399.99, \"description\": \"Updated description\", \"stock\": 12, \"adminEmail\": \"bob.admin@example.com\", \"sellerEmail\": \"mike.seller@example.com\", \"clientEmail\": \"sarah.client@example.com\"}"
         )
       )
     ),
@@ -269,66 +380,127 @@ public class ProductController {
   })
   public ResponseEntity<?> update(
     @Parameter(description = "Product ID to update", required = true, example = "1")
-    @PathVariable int id,
+    @PathVariable long id,
     @Parameter(description = "Updated product data", required = true)
     @RequestBody @Validated(Product.update.class) Product productSent,
     @Parameter(description = "Optional new Admin ID (must have ADMIN role)", example = "5")
-    @RequestParam(required = false) Integer adminId,
+    @RequestParam(required = false) Long adminId,
     @Parameter(description = "Optional new Seller ID (must have SELLER role)", example = "3")
-    @RequestParam(required = false) Integer sellerId,
+    @RequestParam(required = false) Long sellerId,
     @Parameter(description = "Optional new Client ID (must have CLIENT role, or null to remove)", example = "4")
-    @RequestParam(required = false) Integer clientId
+    @RequestParam(required = false) Long clientId
   ) {
-    productSent.setId(id);
+    OperationResult result = productService.update(id, productSent, adminId, sellerId, clientId);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
+  }
 
-    Optional<Product> productOptional = productDao.findById(id);
+  @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+  @MeasureTime(message = "Patching product", includeParameters = true)
+  @Operation(
+    summary = "Partially update product (JSON Merge Patch)",
+    description = "Updates only the supplied fields (name, price, description, stock) with a single UPDATE statement. " +
+                  "The product is not read first and untouched columns (e.g. the TEXT description) are not rewritten. " +
+                  "Values are checked against the same constraints as PUT. Returns 204: GET the product for its full state. " +
+                  "⚡ Meant for frequent price/stock tweaks (repricing).",
+    tags = {"📦 Product Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "204", description = "Product patched"),
+    @ApiResponse(responseCode = "400", description = "Unknown field or invalid value"),
+    @ApiResponse(responseCode = "404", description = "Product not found"),
+    @ApiResponse(responseCode = "409", description = "Product name conflict")
+  })
+  public ResponseEntity<?> patch(
+    @Parameter(description = "Product ID to patch", required = true, example = "1")
+    @PathVariable long id,
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+      description = "Merge patch: supplied fields are set, others are kept",
+      required = true,
+      content = @Content(
+        mediaType = "application/merge-patch+json",
+        examples = @ExampleObject(name = "Repricing Example", value = "{\"price\": 1199.99, \"stock\": 8}")
+      )
+    )
+    @RequestBody Map<String, Object> patch
+  ) {
+    OperationResult result = productService.patch(id, patch);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
+  }
 
-    if (productOptional.isEmpty()) {
-      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+  @PostMapping("/bulk-adjust")
+  @MeasureTime(message = "Bulk adjusting products", includeParameters = true, logLevel = Level.WARN)
+  @Operation(
+    summary = "Bulk adjust price and/or stock (set-based)",
+    description = "Applies a PERCENT or ABSOLUTE change to the price and/or stock of every product matching the filter " +
+                  "(sellerId, adminId, ids, minPrice, maxPrice; combined with AND) with a single UPDATE statement. " +
+                  "The @DecimalMin/@DecimalMax constraints of price and @Min of stock are checked on the adjusted values first: " +
+                  "if any product would break them, nothing is updated. Change events are published for every updated product " +
+                  "(a single resync event above 1000 products). " +
+                  "With sharding enabled, sellerId is required (the adjustment runs on that seller's shard). " +
+                  "⚡ Replaces thousands of PUT calls when repricing.",
+    tags = {"📦 Product Management", "🏢 Business Operations", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Products adjusted",
+      content = @Content(
+        mediaType = "application/json",
+        schema = @Schema(implementation = BulkAdjustResultDTO.class),
+        examples = @ExampleObject(name = "Bulk Adjust Result", value = "{\"affected\": 1250, \"changeVersion\": 48211}")
+      )
+    ),
+    @ApiResponse(responseCode = "400", description = "Missing filter or change, or adjusted values out of bounds"),
+    @ApiResponse(responseCode = "409", description = "Matching products changed during the adjustment, nothing was updated")
+  })
+  public ResponseEntity<?> bulkAdjust(
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+      description = "Filter and changes",
+      required = true,
+      content = @Content(
+        mediaType = "application/json",
+        examples = @ExampleObject(
+          name = "10% off a seller's catalog",
+          value = "{\"sellerId\": 3, \"priceMode\": \"PERCENT\", \"priceChange\": -10}"
+        )
+      )
+    )
+    @RequestBody BulkAdjustRequestDTO request
+  ) {
+    String error = bulkAdjustService.validate(request);
+    if (error != null) {
+      return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
-    Product existingProduct = productOptional.get();
-
-    // Update admin if provided, otherwise keep existing
-    if (adminId != null) {
-      ProductValidationService.ValidationResult adminResult = validationService.setProductAdmin(productSent, adminId);
-      if (!adminResult.isValid()) {
-        return new ResponseEntity<>(adminResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
-      }
-    } else {
-      productSent.setAdmin(existingProduct.getAdmin());
+    BulkAdjustResultDTO result;
+    try {
+      result = bulkAdjustService.adjust(request);
+    } catch (IllegalStateException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
     }
-
-    // Update seller if provided, otherwise keep existing
-    if (sellerId != null) {
-      ProductValidationService.ValidationResult sellerResult = validationService.setProductSeller(productSent, sellerId);
-      if (!sellerResult.isValid()) {
-        return new ResponseEntity<>(sellerResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
-      }
-    } else {
-      productSent.setSeller(existingProduct.getSeller());
+    if (result == null) {
+      return new ResponseEntity<>(
+        "At least one matching product would break the price or stock constraints, nothing was updated",
+        HttpStatus.BAD_REQUEST
+      );
     }
 
-    // Update client if provided (can be null to remove client)
-    if (clientId != null) {
-      ProductValidationService.ValidationResult clientResult = validationService.setProductClient(productSent, clientId);
-      if (!clientResult.isValid()) {
-        return new ResponseEntity<>(clientResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
-      }
-    } else {
-      productSent.setClient(existingProduct.getClient());
+    // Published once committed, like single updates; one resync event for a large set
+    if (result.getUpdatedRows() == null) {
+      changeFeedService.publish(ProductChangeEvent.Type.RESYNC, null, null, null, null);
+      return new ResponseEntity<>(result, HttpStatus.OK);
     }
-
-    // Final validation of the updated product
-    ProductValidationService.ValidationResult productResult = validationService.validateProduct(productSent);
-    if (!productResult.isValid()) {
-      return new ResponseEntity<>(productResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
+    for (Object[] row : result.getUpdatedRows()) {
+      Long productId = (Long) row[0];
+      Double price = (Double) row[1];
+      Integer stock = (Integer) row[2];
+      changeFeedService.publish(ProductChangeEvent.Type.UPDATED, productId, price, stock, null);
+      if (request.getStockChange() != null) {
+        changeFeedService.publish(ProductChangeEvent.Type.STOCK, productId, price, stock, null);
+      }
     }
 
-    productDao.save(productSent);
-
-    ProductDetailDTO productDTO = mappingService.toProductDetailDTO(productSent);
-    return new ResponseEntity<>(productDTO, HttpStatus.OK);
+    return new ResponseEntity<>(result, HttpStatus.OK);
   }
 
   @GetMapping("/available")
@@ -351,7 +523,7 @@ public class ProductController {
         schema = @Schema(implementation = ProductDetailDTO.class),
         examples = @ExampleObject(
           name = "Available Products Example",
-          value = "[{\"id\": 4, \"name\": \"Monitor 4K 27-inch\", \"price\": 399.99, \"description\": \"4K display\", \"stock\": 8, \"adminEmail\": \"jane.admin@example.com\", \"sellerEmail\": \"mike.seller@example.com\", \"clientEmail\": null, \"available\": true}]"
+          value = "[{\"id\": \"4\", \"name\": \"Monitor 4K 27-inch\", \"price\": 399.99, \"description\": \"4K display\", \"stock\": 8, \"adminEmail\": \"jane.admin@example.com\", \"sellerEmail\": \"mike.seller@example.com\", \"clientEmail\": null, \"available\": true}]"
         )
       )
     ),
@@ -359,10 +531,114 @@ public class ProductController {
   })
   public List<ProductDetailDTO> getAvailableProducts() {
     List<Product> products = productDao.findAll();
-    return products.stream()
+    return mappingService.toAvailableProductDTOList(
+      products.stream()
             .filter(product -> product.getClient() == null)
-            .map(mappingService::toAvailableProductDTO)
-            .toList();
+            .toList()
+    );
+  }
+
+  @GetMapping("/normalized")
+  @MeasureTime(message = "Retrieving normalized product list")
+  @JsonView(ProductSummaryView.class)
+  @Operation(
+    summary = "Get all products (Normalized shape) - Deduplicated users",
+    description = "Retrieves all products with their business relationships in a normalized shape. " +
+                  "Products reference admin, seller and client by ID, and each referenced user appears once " +
+                  "in the `users` table instead of being repeated on every product. " +
+                  "⚡ Opt-in alternative to /with-users for large lists.",
+    tags = {"📦 Product Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Normalized product list retrieved successfully",
+      content = @Content(
+        mediaType = "application/json",
+        schema = @Schema(implementation = NormalizedProductListDTO.class),
+        examples = @ExampleObject(
+          name = "Normalized Product List Example",
+          value = "{\"products\": [{\"id\": \"1\", \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15, \"adminId\": \"2\", \"sellerId\": \"3\", \"clientId\": \"1\"}], \"users\": {\"2\": {\"id\": \"2\", \"email\": \"jane.admin@example.com\", \"roleName\": \"ADMIN\"}, \"3\": {\"id\": \"3\", \"email\": \"mike.seller@example.com\", \"roleName\": \"SELLER\"}, \"1\": {\"id\": \"1\", \"email\": \"john.client@example.com\", \"roleName\": \"CLIENT\"}}}"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "409", description = "Conflict error")
+  })
+  public NormalizedProductListDTO getNormalized() {
+    List<Product> products = productDao.findAll();
+    return mappingService.toNormalizedProductList(products);
+  }
+
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(
+    summary = "Product change feed (Server-Sent Events)",
+    description = "Streams compact product change events instead of polling /available. " +
+                  "Event names: created, updated, deleted, client-assigned, client-removed, stock. " +
+                  "Each event ID is a sequence number: reconnect with the Last-Event-ID header to resume. " +
+                  "A `resync` event means events were dropped (slow consumer or expired ID) or a bulk adjustment changed " +
+                  "too many products to list: reload the products once, " +
+                  "then keep applying events.",
+    tags = {"🏢 Business Operations", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Event stream opened",
+      content = @Content(
+        mediaType = "text/event-stream",
+        examples = @ExampleObject(
+          name = "Change Event Example",
+          value = "event: client-assigned\nid: 42\ndata: {\"sequence\": 42, \"type\": \"CLIENT_ASSIGNED\", \"productId\": \"4\", \"price\": 399.99, \"stock\": 8, \"clientId\": \"1\", \"timestamp\": 1705314600000}"
+        )
+      )
+    )
+  })
+  public SseEmitter stream(
+    @Parameter(description = "Sequence of the last event received, to resume after a reconnection", example = "42")
+    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+  ) {
+    return changeFeedService.subscribe(lastEventId);
+  }
+
+  @GetMapping("/changes")
+  @MeasureTime(message = "Retrieving product changes", includeParameters = true)
+  @JsonView(ProductDetailView.class)
+  @Operation(
+    summary = "Get product changes since a version (Delta sync)",
+    description = "Returns the products created/updated and the products deleted after the given change version, " +
+                  "ordered by version and paginated. Omit `since` for the initial full sync, then call again with " +
+                  "`since=nextSince&sinceId=nextSinceId` until `hasMore` is false. " +
+                  "⚡ Cost is proportional to the number of changes, not to the catalog size.",
+    tags = {"🏢 Business Operations", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Page of changes retrieved successfully",
+      content = @Content(
+        mediaType = "application/json",
+        schema = @Schema(implementation = ProductChangesDTO.class),
+        examples = @ExampleObject(
+          name = "Product Changes Example",
+          value = "{\"upserts\": [{\"id\": \"4\", \"name\": \"Monitor 4K 27-inch\", \"price\": 379.99, \"description\": \"4K display\", \"stock\": 7}], \"deletions\": [{\"id\": \"7\", \"version\": 13}], \"nextSince\": 13, \"nextSinceId\": \"7\", \"hasMore\": false}"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "400", description = "Invalid limit")
+  })
+  public ResponseEntity<?> getChanges(
+    @Parameter(description = "Last change version already applied (omit for a full sync)", example = "12")
+    @RequestParam(defaultValue = "-1") long since,
+    @Parameter(description = "Last product ID applied within the `since` version", example = "0")
+    @RequestParam(defaultValue = "0") long sinceId,
+    @Parameter(description = "Maximum number of changes (1-1000)", example = "100")
+    @RequestParam(defaultValue = "100") int limit
+  ) {
+    if (limit < 1 || limit > MAX_CHANGES_LIMIT) {
+      return new ResponseEntity<>("Limit must be between 1 and " + MAX_CHANGES_LIMIT, HttpStatus.BAD_REQUEST);
+    }
+
+    return new ResponseEntity<>(changesService.getChangesSince(since, sinceId, limit), HttpStatus.OK);
   }
 
   @PostMapping("/{id}/assign-client")
@@ -383,7 +659,7 @@ public class ProductController {
         schema = @Schema(implementation = ProductDetailDTO.class),
         examples = @ExampleObject(
           name = "Product with Assigned Client",
-          value = "{\"id\": 4, \"name\": \"Monitor 4K\", \"clientEmail\": \"sarah.client@example.com\", \"available\": false}"
+          value = "{\"id\": \"4\", \"name\": \"Monitor 4K\", \"clientEmail\": \"sarah.client@example.com\", \"available\": false}"
         )
       )
     ),
@@ -393,33 +669,12 @@ public class ProductController {
   })
   public ResponseEntity<?> assignClient(
     @Parameter(description = "Product ID to assign client to", required = true, example = "4")
-    @PathVariable int id,
+    @PathVariable long id,
     @Parameter(description = "Client user ID (must have CLIENT role)", required = true, example = "1")
-    @RequestParam Integer clientId
+    @RequestParam Long clientId
   ) {
-    Optional<Product> productOptional = productDao.findById(id);
-
-    if (productOptional.isEmpty()) {
-      return new ResponseEntity<>("Product not found", HttpStatus.NOT_FOUND);
-    }
-
-    Product product = productOptional.get();
-
-    // Check if product already has a client
-    if (product.getClient() != null) {
-      return new ResponseEntity<>("Product already has a client", HttpStatus.CONFLICT);
-    }
-
-    // Validate and set client
-    ProductValidationService.ValidationResult clientResult = validationService.setProductClient(product, clientId);
-    if (!clientResult.isValid()) {
-      return new ResponseEntity<>(clientResult.getErrorMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    productDao.save(product);
-
-    ProductDetailDTO productDTO = mappingService.toProductDetailDTO(product);
-    return new ResponseEntity<>(productDTO, HttpStatus.OK);
+    OperationResult result = productService.assignClient(id, clientId);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
   }
 
   @PostMapping("/{id}/remove-client")
@@ -440,7 +695,7 @@ public class ProductController {
         schema = @Schema(implementation = ProductDetailDTO.class),
         examples = @ExampleObject(
           name = "Product After Client Removal",
-          value = "{\"id\": 1, \"name\": \"Laptop Dell XPS 13\", \"clientEmail\": null, \"available\": true}"
+          value = "{\"id\": \"1\", \"name\": \"Laptop Dell XPS 13\", \"clientEmail\": null, \"available\": true}"
         )
       )
     ),
@@ -449,24 +704,14 @@ public class ProductController {
   })
   public ResponseEntity<?> removeClient(
     @Parameter(description = "Product ID to remove client from", required = true, example = "1")
-    @PathVariable int id) {
-    Optional<Product> productOptional = productDao.findById(id);
-
-    if (productOptional.isEmpty()) {
-      return new ResponseEntity<>("Product not found", HttpStatus.NOT_FOUND);
-    }
-
-    Product product = productOptional.get();
-    product.setClient(null);
-    productDao.save(product);
-
-    ProductDetailDTO productDTO = mappingService.toProductDetailDTO(product);
-    return new ResponseEntity<>(productDTO, HttpStatus.OK);
+    @PathVariable long id) {
+    OperationResult result = productService.removeClient(id);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
   }
 
   @GetMapping("/role-view/{userId}")
   @MeasureTime(message = "Retrieving products with role-based view", includeParameters = true)
-  public ResponseEntity<List<ProductDetailDTO>> getRoleBasedView(@PathVariable int userId) {
+  public ResponseEntity<List<ProductDetailDTO>> getRoleBasedView(@PathVariable long userId) {
     Optional<User> userOptional = userDao.findById(userId);
 
     if (userOptional.isEmpty()) {
@@ -487,32 +732,7 @@ public class ProductController {
   @GetMapping("/business-summary")
   @MeasureTime(message = "Retrieving business summary of products")
   public Map<String, Object> getBusinessSummary() {
-    List<Product> allProducts = productDao.findAll();
-    
-    Map<String, Object> summary = new HashMap<>();
-    summary.put("totalProducts", allProducts.size());
-    summary.put("availableProducts", allProducts.stream().filter(p -> p.getClient() == null).count());
-    summary.put("soldProducts", allProducts.stream().filter(p -> p.getClient() != null).count());
-    
-    // Count by admin
-    Map<String, Long> productsByAdmin = allProducts.stream()
-            .filter(p -> p.getAdmin() != null)
-            .collect(java.util.stream.Collectors.groupingBy(
-                p -> p.getAdmin().getEmail(),
-                java.util.stream.Collectors.counting()
-            ));
-    summary.put("productsByAdmin", productsByAdmin);
-    
-    // Count by seller
-    Map<String, Long> productsBySeller = allProducts.stream()
-            .filter(p -> p.getSeller() != null)
-            .collect(java.util.stream.Collectors.groupingBy(
-                p -> p.getSeller().getEmail(),
-                java.util.stream.Collectors.counting()
-            ));
-    summary.put("productsBySeller", productsBySeller);
-    
-    return summary;
+    return summaryService.summarize(productDao.findAll());
   }
 
   // New endpoints using @JsonView directly with Product entities
@@ -537,7 +757,7 @@ public class ProductController {
         schema = @Schema(implementation = Product.class),
         examples = @ExampleObject(
           name = "ProductCatalogView Example",
-          value = "[{\"id\": 1, \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15}]"
+          value = "[{\"id\": \"1\", \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15}]"
         )
       )
     ),
@@ -566,7 +786,7 @@ public class ProductController {
         schema = @Schema(implementation = Product.class),
         examples = @ExampleObject(
           name = "ProductSummaryView Example",
-          value = "{\"id\": 1, \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15, \"admin\": {\"id\": 2, \"email\": \"jane.admin@example.com\"}, \"seller\": {\"id\": 3, \"email\": \"mike.seller@example.com\"}, \"client\": {\"id\": 1, \"email\": \"john.client@example.com\"}}"
+          value = "{\"id\": \"1\", \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15, \"admin\": {\"id\": \"2\", \"email\": \"jane.admin@example.com\"}, \"seller\": {\"id\": \"3\", \"email\": \"mike.seller@example.com\"}, \"client\": {\"id\": \"1\", \"email\": \"john.client@example.com\"}}"
         )
       )
     ),
@@ -574,7 +794,7 @@ public class ProductController {
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
   @Parameter(name = "id", description = "Product ID", required = true, example = "1")
-  public ResponseEntity<Product> getProductEntity(@PathVariable int id) {
+  public ResponseEntity<Product> getProductEntity(@PathVariable long id) {
     Optional<Product> productOptional = productDao.findById(id);
 
     if (productOptional.isEmpty()) {
@@ -604,7 +824,7 @@ public class ProductController {
         schema = @Schema(implementation = Product.class),
         examples = @ExampleObject(
           name = "ProductDetailView Example",
-          value = "{\"id\": 1, \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook with 13-inch display\", \"stock\": 15, \"admin\": {\"id\": 2, \"email\": \"jane.admin@example.com\", \"role\": {\"id\": 2, \"name\": \"ADMIN\"}}, \"seller\": {\"id\": 3, \"email\": \"mike.seller@example.com\", \"role\": {\"id\": 3, \"name\": \"SELLER\"}}, \"client\": {\"id\": 1, \"email\": \"john.client@example.com\", \"role\": {\"id\": 1, \"name\": \"CLIENT\"}}}"
+          value = "{\"id\": \"1\", \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook with 13-inch display\", \"stock\": 15, \"admin\": {\"id\": \"2\", \"email\": \"jane.admin@example.com\", \"role\": {\"id\": \"2\", \"name\": \"ADMIN\"}}, \"seller\": {\"id\": \"3\", \"email\": \"mike.seller@example.com\", \"role\": {\"id\": \"3\", \"name\": \"SELLER\"}}, \"client\": {\"id\": \"1\", \"email\": \"john.client@example.com\", \"role\": {\"id\": \"1\", \"name\": \"CLIENT\"}}}"
         )
       )
     ),
@@ -612,7 +832,7 @@ public class ProductController {
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
   @Parameter(name = "id", description = "Product ID", required = true, example = "1")
-  public ResponseEntity<Product> getProductEntityDetail(@PathVariable int id) {
+  public ResponseEntity<Product> getProductEntityDetail(@PathVariable long id) {
     Optional<Product> productOptional = productDao.findById(id);
 
     if (productOptional.isEmpty()) {
@@ -642,7 +862,7 @@ public class ProductController {
         schema = @Schema(implementation = Product.class),
         examples = @ExampleObject(
           name = "ProductBasicView Example",
-          value = "[{\"id\": 1, \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15}]"
+          value = "[{\"id\": \"1\", \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"description\": \"High-performance ultrabook\", \"stock\": 15}]"
         )
       )
     ),
@@ -672,7 +892,7 @@ public class ProductController {
         schema = @Schema(implementation = Product.class),
         examples = @ExampleObject(
           name = "ProductSummaryView List Example",
-          value = "[{\"id\": 1, \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"admin\": {\"id\": 2, \"email\": \"jane.admin@example.com\"}, \"seller\": {\"id\": 3, \"email\": \"mike.seller@example.com\"}, \"client\": {\"id\": 1, \"email\": \"john.client@example.com\"}}]"
+          value = "[{\"id\": \"1\", \"name\": \"Laptop Dell XPS 13\", \"price\": 1299.99, \"admin\": {\"id\": \"2\", \"email\": \"jane.admin@example.com\"}, \"seller\": {\"id\": \"3\", \"email\": \"mike.seller@example.com\"}, \"client\": {\"id\": \"1\", \"email\": \"john.client@example.com\"}}]"
         )
       )
     ),
@@ -0,0 +1,226 @@
+package edu.fbansept.m2i2.controller;
+
+import edu.fbansept.m2i2.annotation.MeasureTime;
+import edu.fbansept.m2i2.dto.ProfilingRecordingDTO;
+import edu.fbansept.m2i2.dto.ProfilingSummaryDTO;
+import edu.fbansept.m2i2.service.ProfilingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/profiling")
+@Tag(name = "🎥 Profiling", description = "On-demand JDK Flight Recorder recordings (admin token required)")
+public class ProfilingController {
+
+  public static final String TOKEN_HEADER = "X-Admin-Token";
+
+  // Extra wait for the download, beyond the end of the recording
+  private static final long DOWNLOAD_GRACE_SECONDS = 30;
+
+  @Autowired
+  protected ProfilingService profilingService;
+
+  // Empty: every profiling request is refused
+  @Value("${m2i2.profiling.token:}")
+  protected String adminToken;
+
+  @PostMapping
+  // No includeParameters: the admin token is an argument
+  @MeasureTime(message = "Starting JFR recording")
+  @Operation(
+    summary = "Start a JFR recording",
+    description = "Starts a time-boxed JDK Flight Recorder recording, stopped automatically after durationSeconds. " +
+                  "Settings: default (about 1% overhead) or profile (more CPU samples, allocation and lock events, about 2%). " +
+                  "Only one recording runs at a time; starting a new one discards the previous file " +
+                  "(refused while that file is being downloaded or summarized).",
+    tags = {"🎥 Profiling"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "202",
+      description = "Recording started",
+      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProfilingRecordingDTO.class))
+    ),
+    @ApiResponse(responseCode = "400", description = "Invalid duration or settings"),
+    @ApiResponse(responseCode = "401", description = "Missing or wrong admin token"),
+    @ApiResponse(responseCode = "409", description = "A recording is already running, or the previous one is being downloaded or summarized")
+  })
+  public ResponseEntity<?> start(
+    @RequestHeader(value = TOKEN_HEADER, required = false) String token,
+    @Parameter(description = "Recording duration in seconds (max m2i2.profiling.max-duration-seconds)")
+    @RequestParam(defaultValue = "60") long durationSeconds,
+    @Parameter(description = "JFR settings profile: default or profile")
+    @RequestParam(defaultValue = "profile") String settings
+  ) throws IOException {
+    if (!isAuthorized(token)) {
+      return unauthorized();
+    }
+
+    try {
+      return new ResponseEntity<>(profilingService.start(durationSeconds, settings), HttpStatus.ACCEPTED);
+    } catch (IllegalStateException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  @GetMapping
+  @MeasureTime(message = "Retrieving JFR recording state", logLevel = Level.DEBUG)
+  @Operation(summary = "Get the current or last recording", tags = {"🎥 Profiling"})
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Recording found",
+      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProfilingRecordingDTO.class))
+    ),
+    @ApiResponse(responseCode = "401", description = "Missing or wrong admin token"),
+    @ApiResponse(responseCode = "404", description = "No recording")
+  })
+  public ResponseEntity<?> get(@RequestHeader(value = TOKEN_HEADER, required = false) String token) throws IOException {
+    if (!isAuthorized(token)) {
+      return unauthorized();
+    }
+
+    Optional<ProfilingRecordingDTO> recording = profilingService.getRecording();
+    if (recording.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    return new ResponseEntity<>(recording.get(), HttpStatus.OK);
+  }
+
+  @PostMapping("/stop")
+  @MeasureTime(message = "Stopping JFR recording")
+  @Operation(summary = "Stop the running recording early", tags = {"🎥 Profiling"})
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Recording completed",
+      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProfilingRecordingDTO.class))
+    ),
+    @ApiResponse(responseCode = "401", description = "Missing or wrong admin token"),
+    @ApiResponse(responseCode = "404", description = "No recording")
+  })
+  public ResponseEntity<?> stop(@RequestHeader(value = TOKEN_HEADER, required = false) String token) throws IOException {
+    if (!isAuthorized(token)) {
+      return unauthorized();
+    }
+
+    Optional<ProfilingRecordingDTO> recording = profilingService.stop();
+    if (recording.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    return new ResponseEntity<>(recording.get(), HttpStatus.OK);
+  }
+
+  @GetMapping("/recording.jfr")
+  @MeasureTime(message = "Downloading JFR recording")
+  @Operation(
+    summary = "Download the recording",
+    description = "Streams the .jfr file (open it with JDK Mission Control or the jfr tool). " +
+                  "With wait=true, a running recording is awaited until it completes.",
+    tags = {"🎥 Profiling"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "The .jfr file", content = @Content(mediaType = "application/octet-stream")),
+    @ApiResponse(responseCode = "401", description = "Missing or wrong admin token"),
+    @ApiResponse(responseCode = "404", description = "No recording"),
+    @ApiResponse(responseCode = "409", description = "Recording still running")
+  })
+  public ResponseEntity<?> download(
+    @RequestHeader(value = TOKEN_HEADER, required = false) String token,
+    @Parameter(description = "Wait for a running recording to complete")
+    @RequestParam(defaultValue = "false") boolean wait
+  ) throws IOException, InterruptedException {
+    if (!isAuthorized(token)) {
+      return unauthorized();
+    }
+
+    Optional<ProfilingRecordingDTO> recording = profilingService.getRecording();
+    if (recording.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    long timeoutSeconds = wait ? recording.get().getDurationSeconds() + DOWNLOAD_GRACE_SECONDS : 0;
+    Optional<InputStream> content = profilingService.openFile(timeoutSeconds);
+    if (content.isEmpty()) {
+      return new ResponseEntity<>("Recording still running until " + recording.get().getEndsAt(), HttpStatus.CONFLICT);
+    }
+
+    // The converter closes the stream once written, which lets a new recording replace the file
+    return ResponseEntity.ok()
+      .contentType(MediaType.APPLICATION_OCTET_STREAM)
+      .header(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment().filename("m2i2-" + recording.get().getId() + ".jfr").build().toString()
+      )
+      .body(new InputStreamResource(content.get()));
+  }
+
+  @GetMapping("/summary")
+  @MeasureTime(message = "Summarizing JFR recording")
+  @Operation(
+    summary = "Summarize the recording",
+    description = "Top 10 hot methods (CPU samples), allocation sites (estimated bytes) and contended monitors " +
+                  "(blocked milliseconds) of the completed recording, read in-process with jdk.jfr.consumer. " +
+                  "Allocation and lock events are mostly recorded with the profile settings.",
+    tags = {"🎥 Profiling"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Summary of the completed recording",
+      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProfilingSummaryDTO.class))
+    ),
+    @ApiResponse(responseCode = "401", description = "Missing or wrong admin token"),
+    @ApiResponse(responseCode = "404", description = "No completed recording")
+  })
+  public ResponseEntity<?> summary(@RequestHeader(value = TOKEN_HEADER, required = false) String token) throws IOException {
+    if (!isAuthorized(token)) {
+      return unauthorized();
+    }
+
+    Optional<ProfilingSummaryDTO> summary = profilingService.getSummary();
+    if (summary.isEmpty()) {
+      return new ResponseEntity<>("No completed recording", HttpStatus.NOT_FOUND);
+    }
+
+    return new ResponseEntity<>(summary.get(), HttpStatus.OK);
+  }
+
+  private boolean isAuthorized(String token) {
+    // Constant-time comparison: the response time does not reveal the matching prefix
+    return !adminToken.isEmpty()
+        && token != null
+        && MessageDigest.isEqual(
+          token.getBytes(StandardCharsets.UTF_8),
+          adminToken.getBytes(StandardCharsets.UTF_8)
+        );
+  }
+
+  private ResponseEntity<String> unauthorized() {
+    return new ResponseEntity<>("Missing or wrong " + TOKEN_HEADER + " header", HttpStatus.UNAUTHORIZED);
+  }
+}
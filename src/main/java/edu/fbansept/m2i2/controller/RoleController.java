@@ -15,11 +15,24 @@ import edu.fbansept.m2i2.view.RoleWithUsersView;
 import edu.fbansept.m2i2.view.UserSummaryView;
 import edu.fbansept.m2i2.dao.RoleDao;
 import edu.fbansept.m2i2.dao.UserDao;
+import edu.fbansept.m2i2.dto.BatchResultDTO;
+import edu.fbansept.m2i2.dto.BulkDeletionJobDTO;
+import edu.fbansept.m2i2.dto.KeysetPageDTO;
+import edu.fbansept.m2i2.dto.RoleWithUsersDTO;
 import edu.fbansept.m2i2.model.Role;
 import edu.fbansept.m2i2.model.User;
+import edu.fbansept.m2i2.service.BatchLookupService;
+import edu.fbansept.m2i2.service.BulkDeletionService;
+import edu.fbansept.m2i2.service.OperationResult;
+import edu.fbansept.m2i2.service.RoleUsersService;
+import edu.fbansept.m2i2.service.RoleService;
+import edu.fbansept.m2i2.service.ViewProjection;
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.*;
+import org.slf4j.event.Level;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -36,6 +49,21 @@ public class RoleController {
   @Autowired
   protected UserDao userDao;
 
+  @Autowired
+  protected BatchLookupService batchLookupService;
+
+  @Autowired
+  protected RoleUsersService roleUsersService;
+
+  @Autowired
+  protected BulkDeletionService bulkDeletionService;
+
+  @Autowired
+  protected RoleService roleService;
+
+  // Response header carrying the keyset cursor of the next page (absent on the last page)
+  private static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+
   @GetMapping
   @MeasureTime(message = "Retrieving all roles")
   @JsonView(RoleBasicView.class)
@@ -55,14 +83,91 @@ public class RoleController {
         schema = @Schema(implementation = Role.class),
         examples = @ExampleObject(
           name = "RoleBasicView Example",
-          value = "[{\"id\": 1, \"name\": \"CLIENT\"}, {\"id\": 2, \"name\": \"ADMIN\"}, {\"id\": 3, \"name\": \"SELLER\"}]"
+          value = "[{\"id\": \"1\", \"name\": \"CLIENT\"}, {\"id\": \"2\", \"name\": \"ADMIN\"}, {\"id\": \"3\", \"name\": \"SELLER\"}]"
         )
       )
     ),
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
-  public List<Role> getAll() {
-    return roleDao.findAll();
+  public List<Map<String, Object>> getAll(@Parameter(hidden = true) ViewProjection projection) {
+    return projection.findAll(Role.class);
+  }
+
+  @GetMapping(params = "ids")
+  @MeasureTime(message = "Retrieving roles by IDs", includeParameters = true)
+  @JsonView(RoleWithUsersView.class)
+  @Operation(
+    summary = "Get roles by IDs (Multi-get with RoleWithUsers View)",
+    description = "Retrieves several roles in one request and one IN query, e.g. `?ids=1,2,3`. " +
+                  "Items follow the requested order and use the same RoleWithUsersView shape as GET /{id}, " +
+                  "with the first keyset page of each role's users (read in one more query); " +
+                  "the next pages come from GET /{id}?afterId=users.nextAfterId. " +
+                  "IDs that match no role are listed in `missing`. Use POST /by-ids for long ID lists.",
+    tags = {"🎭 Role Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Roles retrieved in requested order",
+      content = @Content(
+        mediaType = "application/json",
+        examples = @ExampleObject(
+          name = "Multi-get Example",
+          value = "{\"items\": [{\"id\": \"2\", \"name\": \"ADMIN\", \"users\": {\"items\": [{\"id\": \"2\", \"email\": \"jane.admin@example.com\"}], \"size\": 10, \"nextAfterId\": null}}], \"missing\": [\"42\"]}"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "400", description = "No IDs, too many IDs or invalid size")
+  })
+  public ResponseEntity<?> getByIds(
+    @Parameter(description = "Comma separated IDs (max 1000)", required = true, example = "1,2,3")
+    @RequestParam List<Long> ids,
+    @Parameter(description = "Users per role (1-1000)", example = "10")
+    @RequestParam(defaultValue = "" + RoleUsersService.DEFAULT_FIRST_PAGE_SIZE) int size
+  ) {
+    return findByIds(ids, size);
+  }
+
+  @PostMapping("/by-ids")
+  @MeasureTime(message = "Retrieving roles by IDs (POST)")
+  @JsonView(RoleWithUsersView.class)
+  @Operation(
+    summary = "Get roles by IDs (Multi-get, POST for long lists)",
+    description = "Same as GET ?ids=... with the IDs sent as a JSON array body, for lists too long for a URL.",
+    tags = {"🎭 Role Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Roles retrieved in requested order"),
+    @ApiResponse(responseCode = "400", description = "No IDs, too many IDs or invalid size")
+  })
+  public ResponseEntity<?> postByIds(
+    @Parameter(description = "IDs to retrieve (max 1000)", required = true)
+    @RequestBody List<Long> ids,
+    @Parameter(description = "Users per role (1-1000)", example = "10")
+    @RequestParam(defaultValue = "" + RoleUsersService.DEFAULT_FIRST_PAGE_SIZE) int size
+  ) {
+    return findByIds(ids, size);
+  }
+
+  private ResponseEntity<?> findByIds(List<Long> ids, int size) {
+    String error = batchLookupService.validate(ids);
+    if (error == null) {
+      error = roleUsersService.validate(0, size);
+    }
+    if (error != null) {
+      return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    // Never the unbounded Role.users: one bounded page per role
+    Map<Long, KeysetPageDTO<User>> users = roleUsersService.findFirstUsers(new HashSet<>(ids), size);
+    KeysetPageDTO<User> noUsers = new KeysetPageDTO<>(List.of(), size, null);
+    BatchResultDTO<RoleWithUsersDTO> result = batchLookupService.findAllInOrder(
+      ids,
+      roleDao::findAllById,
+      Role::getId,
+      role -> new RoleWithUsersDTO(role.getId(), role.getName(), users.getOrDefault(role.getId(), noUsers))
+    );
+    return new ResponseEntity<>(result, HttpStatus.OK);
   }
 
   @GetMapping("/{id}")
@@ -70,9 +175,10 @@ public class RoleController {
   @JsonView(RoleWithUsersView.class)
   @Operation(
     summary = "Get role by ID (With Users View)",
-    description = "Retrieves a specific role with associated users using RoleWithUsersView. " +
+    description = "Retrieves a specific role with one page of its users using RoleWithUsersView. " +
+                  "Users are paginated by keyset (afterId, size): request the next page with afterId=users.nextAfterId. " +
                   "Perfect for role management interfaces and user-role relationship displays. " +
-                  "Payload: ~200-1000 bytes depending on user count.",
+                  "Payload: ~200 bytes + ~50 bytes per user of the page.",
     tags = {"🎭 Role Management", "👥 User Management"}
   )
   @ApiResponses(value = {
@@ -84,22 +190,40 @@ public class RoleController {
         schema = @Schema(implementation = Role.class),
         examples = @ExampleObject(
           name = "RoleWithUsersView Example",
-          value = "{\"id\": 1, \"name\": \"CLIENT\", \"users\": [{\"id\": 1, \"email\": \"john.client@example.com\"}, {\"id\": 4, \"email\": \"sarah.client@example.com\"}]}"
+          value = "{\"id\": \"1\", \"name\": \"CLIENT\", \"users\": {\"items\": [{\"id\": \"1\", \"email\": \"john.client@example.com\"}, {\"id\": \"4\", \"email\": \"sarah.client@example.com\"}], \"size\": 2, \"nextAfterId\": \"4\"}}"
         )
       )
     ),
+    @ApiResponse(responseCode = "400", description = "Invalid afterId or size"),
     @ApiResponse(responseCode = "404", description = "Role not found"),
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
   @Parameter(name = "id", description = "Role ID", required = true, example = "1")
-  public ResponseEntity<Role> get(@PathVariable int id) {
+  public ResponseEntity<?> get(
+    @PathVariable long id,
+    @Parameter(description = "Last user ID of the previous page (0 for the first page)", example = "0")
+    @RequestParam(defaultValue = "0") long afterId,
+    @Parameter(description = "Users per page (1-1000)", example = "100")
+    @RequestParam(defaultValue = "" + RoleUsersService.DEFAULT_PAGE_SIZE) int size
+  ) {
+    String error = roleUsersService.validate(afterId, size);
+    if (error != null) {
+      return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     Optional<Role> roleOptional = roleDao.findById(id);
 
     if (roleOptional.isEmpty()) {
       return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    return new ResponseEntity<>(roleOptional.get(), HttpStatus.OK);
+    Role role = roleOptional.get();
+    RoleWithUsersDTO roleWithUsers = new RoleWithUsersDTO(
+      role.getId(),
+      role.getName(),
+      roleUsersService.findUsers(id, afterId, size)
+    );
+    return new ResponseEntity<>(roleWithUsers, HttpStatus.OK);
   }
 
   @GetMapping("/{roleId}/users")
@@ -107,8 +231,8 @@ public class RoleController {
   @JsonView(UserSummaryView.class)
   @Operation(
     summary = "Get users by role ID",
-    description = "Retrieves all users assigned to a specific role using UserSummaryView. " +
-                  "Returns users with their role information for role-based user management. " +
+    description = "Retrieves the users assigned to a specific role using UserSummaryView, one keyset page at a time. " +
+                  "The X-Next-After-Id response header holds the afterId of the next page (absent on the last page). " +
                   "Payload: ~120 bytes per user.",
     tags = {"🎭 Role Management", "👥 User Management"}
   )
@@ -121,27 +245,44 @@ public class RoleController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "Users by Role Example",
-          value = "[{\"id\": 1, \"email\": \"john.client@example.com\", \"role\": {\"id\": 1, \"name\": \"CLIENT\"}}]"
+          value = "[{\"id\": \"1\", \"email\": \"john.client@example.com\", \"role\": {\"id\": \"1\", \"name\": \"CLIENT\"}}]"
         )
       )
     ),
+    @ApiResponse(responseCode = "400", description = "Invalid afterId or size"),
     @ApiResponse(responseCode = "404", description = "Role not found"),
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
   @Parameter(name = "roleId", description = "Role ID to get users for", required = true, example = "1")
-  public ResponseEntity<List<User>> getUsersByRoleId(@PathVariable int roleId) {
+  public ResponseEntity<?> getUsersByRoleId(
+    @PathVariable long roleId,
+    @Parameter(description = "Last user ID of the previous page (0 for the first page)", example = "0")
+    @RequestParam(defaultValue = "0") long afterId,
+    @Parameter(description = "Users per page (1-1000)", example = "100")
+    @RequestParam(defaultValue = "" + RoleUsersService.DEFAULT_PAGE_SIZE) int size
+  ) {
+    String error = roleUsersService.validate(afterId, size);
+    if (error != null) {
+      return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     Optional<Role> roleOptional = roleDao.findById(roleId);
 
     if (roleOptional.isEmpty()) {
       return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    List<User> roleUsers = userDao.findByRole(roleOptional.get());
-    return new ResponseEntity<>(roleUsers, HttpStatus.OK);
+    KeysetPageDTO<User> roleUsers = roleUsersService.findUsers(roleId, afterId, size);
+
+    HttpHeaders headers = new HttpHeaders();
+    if (roleUsers.getNextAfterId() != null) {
+      headers.set(NEXT_AFTER_ID_HEADER, String.valueOf(roleUsers.getNextAfterId()));
+    }
+    return new ResponseEntity<>(roleUsers.getItems(), headers, HttpStatus.OK);
   }
 
   @PostMapping
-  @MeasureTime(message = "Creating a new role", logLevel = "DEBUG")
+  @MeasureTime(message = "Creating a new role", logLevel = Level.DEBUG)
   @JsonView(RoleBasicView.class)
   @Operation(
     summary = "Create a new role",
@@ -159,28 +300,28 @@ public class RoleController {
         schema = @Schema(implementation = Role.class),
         examples = @ExampleObject(
           name = "Created Role Example",
-          value = "{\"id\": 4, \"name\": \"MANAGER\"}"
+          value = "{\"id\": \"4\", \"name\": \"MANAGER\"}"
         )
       )
     ),
     @ApiResponse(responseCode = "400", description = "Invalid role data"),
     @ApiResponse(responseCode = "409", description = "Role name already exists")
   })
-  public ResponseEntity<Role> add(
+  public ResponseEntity<?> add(
     @Parameter(description = "Role data to create", required = true)
     @RequestBody @Validated(Role.add.class) Role roleSent
   ) {
-    roleDao.save(roleSent);
-
-    return new ResponseEntity<>(roleSent, HttpStatus.CREATED);
+    OperationResult result = roleService.add(roleSent);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
   }
 
   @DeleteMapping("/{id}")
-  @MeasureTime(message = "Deleting role", includeParameters = true, logLevel = "WARN")
+  @MeasureTime(message = "Deleting role", includeParameters = true, logLevel = Level.WARN)
   @Operation(
     summary = "Delete role by ID",
     description = "Deletes a role from the system. ⚠️ WARNING: This will cascade delete all associated users! " +
-                  "Use with extreme caution in production. Consider deactivating roles instead.",
+                  "Use with extreme caution in production. Consider deactivating roles instead. " +
+                  "For roles with many users, use DELETE /{id}/bulk (background, chunked).",
     tags = {"🎭 Role Management", "🛡️ Security Features"}
   )
   @ApiResponses(value = {
@@ -192,16 +333,42 @@ public class RoleController {
     @ApiResponse(responseCode = "409", description = "Conflict - role might have dependent users")
   })
   @Parameter(name = "id", description = "Role ID to delete", required = true, example = "4")
-  public ResponseEntity<?> delete(@PathVariable int id) {
-    Optional<Role> roleOptional = roleDao.findById(id);
+  public ResponseEntity<?> delete(@PathVariable long id) {
+    OperationResult result = roleService.delete(id);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
+  }
 
-    if (roleOptional.isEmpty()) {
+  @DeleteMapping("/{id}/bulk")
+  @MeasureTime(message = "Submitting bulk role deletion", includeParameters = true, logLevel = Level.WARN)
+  @Operation(
+    summary = "Delete role in background (bulk, chunked)",
+    description = "Queues the deletion of the role with all its users and the products they administrate or sell and returns immediately (202). " +
+                  "Dependent rows are removed with set-based statements in bounded chunks, each in its own short transaction, " +
+                  "so no lock is held for the whole cascade. Follow progress at the Location header (/api/deletion-jobs/{jobId}).",
+    tags = {"🎭 Role Management", "🗑️ Bulk Deletion"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "202",
+      description = "Deletion job accepted",
+      content = @Content(
+        mediaType = "application/json",
+        schema = @Schema(implementation = BulkDeletionJobDTO.class)
+      )
+    ),
+    @ApiResponse(responseCode = "404", description = "Role not found")
+  })
+  @Parameter(name = "id", description = "Role ID to delete", required = true, example = "4")
+  public ResponseEntity<?> bulkDelete(@PathVariable long id) {
+    if (!roleDao.existsById(id)) {
       return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    roleDao.deleteById(id);
+    BulkDeletionJobDTO job = bulkDeletionService.deleteRole(id);
 
-    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    HttpHeaders headers = new HttpHeaders();
+    headers.setLocation(URI.create("/api/deletion-jobs/" + job.getId()));
+    return new ResponseEntity<>(job, headers, HttpStatus.ACCEPTED);
   }
 
   @PutMapping("/{id}")
@@ -223,7 +390,7 @@ public class RoleController {
         schema = @Schema(implementation = Role.class),
         examples = @ExampleObject(
           name = "Updated Role Example",
-          value = "{\"id\": 1, \"name\": \"PREMIUM_CLIENT\"}"
+          value = "{\"id\": \"1\", \"name\": \"PREMIUM_CLIENT\"}"
         )
       )
     ),
@@ -233,20 +400,11 @@ public class RoleController {
   })
   public ResponseEntity<?> update(
     @Parameter(description = "Role ID to update", required = true, example = "1")
-    @PathVariable int id,
+    @PathVariable long id,
     @Parameter(description = "Updated role data", required = true)
     @RequestBody @Validated(Role.update.class) Role roleSent
   ) {
-    roleSent.setId(id);
-
-    Optional<Role> roleOptional = roleDao.findById(id);
-
-    if (roleOptional.isEmpty()) {
-      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-    }
-
-    roleDao.save(roleSent);
-
-    return new ResponseEntity<>(roleSent, HttpStatus.OK);
+    OperationResult result = roleService.update(id, roleSent);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
   }
 }
@@ -17,16 +17,34 @@ import edu.fbansept.m2i2.view.UserListView;
 import edu.fbansept.m2i2.dao.ProductDao;
 import edu.fbansept.m2i2.dao.RoleDao;
 import edu.fbansept.m2i2.dao.UserDao;
+import edu.fbansept.m2i2.dto.BatchResultDTO;
+import edu.fbansept.m2i2.dto.BulkDeletionJobDTO;
+import edu.fbansept.m2i2.dto.KeysetPageDTO;
 import edu.fbansept.m2i2.dto.ProductDetailDTO;
+import edu.fbansept.m2i2.dto.UserDashboardDTO;
+import edu.fbansept.m2i2.dto.UserProductCountsDTO;
 import edu.fbansept.m2i2.model.Product;
 import edu.fbansept.m2i2.model.Role;
 import edu.fbansept.m2i2.model.User;
+import edu.fbansept.m2i2.service.BatchLookupService;
+import edu.fbansept.m2i2.service.BulkDeletionService;
+import edu.fbansept.m2i2.service.RoleUsersService;
+import edu.fbansept.m2i2.service.FieldProjectionService;
+import edu.fbansept.m2i2.service.OperationResult;
 import edu.fbansept.m2i2.service.ProductMappingService;
 import edu.fbansept.m2i2.service.ProductValidationService;
+import edu.fbansept.m2i2.service.UserDashboardService;
+import edu.fbansept.m2i2.service.UserProductCountsService;
+import edu.fbansept.m2i2.service.UserService;
+import edu.fbansept.m2i2.service.ViewProjection;
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.*;
+import org.slf4j.event.Level;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -51,8 +69,35 @@ public class UserController {
   @Autowired
   protected ProductMappingService mappingService;
 
+  @Autowired
+  protected FieldProjectionService projectionService;
+
+  @Autowired
+  protected BatchLookupService batchLookupService;
+
+  @Autowired
+  protected UserDashboardService dashboardService;
+
+  @Autowired
+  protected RoleUsersService roleUsersService;
+
+  @Autowired
+  protected BulkDeletionService bulkDeletionService;
+
+  @Autowired
+  protected UserProductCountsService userProductCountsService;
+
+  @Autowired
+  protected UserService userService;
+
+  // Response header carrying the keyset cursor of the next page (absent on the last page)
+  private static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+
+  // Maximum page size of each dashboard product list
+  private static final int MAX_DASHBOARD_PAGE_SIZE = 100;
+
   @GetMapping
-  @MeasureTime(message = "Retrieving all users")
+  @MeasureTime(message = "Retrieving all users", sampleRate = 0.01, slowThresholdMillis = 500)
   @JsonView(UserListView.class)
   @Operation(
     summary = "Get all users (List View)",
@@ -70,14 +115,120 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "UserListView Example",
-          value = "[{\"id\": 1, \"email\": \"john.client@example.com\"}, {\"id\": 2, \"email\": \"jane.admin@example.com\"}]"
+          value = "[{\"id\": \"1\", \"email\": \"john.client@example.com\"}, {\"id\": \"2\", \"email\": \"jane.admin@example.com\"}]"
         )
       )
     ),
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
-  public List<User> getAll() {
-    return userDao.findAll();
+  public List<Map<String, Object>> getAll(@Parameter(hidden = true) ViewProjection projection) {
+    return projection.findAll(User.class);
+  }
+
+  @GetMapping(params = "fields")
+  @MeasureTime(message = "Retrieving users with sparse fieldset", includeParameters = true)
+  @Operation(
+    summary = "Get all users (Sparse fieldset)",
+    description = "Retrieves all users with only the requested fields, e.g. `?fields=id,email,role.name`. " +
+                  "Only the requested columns are selected, and the role is joined only when one of its fields is requested. " +
+                  "🛡️ Fields are limited to those exposed by UserSummaryView (password is never projectable).",
+    tags = {"👥 User Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Users retrieved with the requested fields",
+      content = @Content(
+        mediaType = "application/json",
+        examples = @ExampleObject(
+          name = "Sparse Fieldset Example",
+          value = "[{\"id\": \"1\", \"role\": {\"name\": \"CLIENT\"}}]"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "400", description = "Empty, unknown or forbidden field requested")
+  })
+  public ResponseEntity<?> getAllWithFields(
+    @Parameter(description = "Comma separated fields to return", required = true, example = "id,email,role.name")
+    @RequestParam String fields
+  ) {
+    List<String> requestedFields = projectionService.parseFields(fields);
+    List<String> invalidFields = projectionService.invalidFields(User.class, UserSummaryView.class, requestedFields);
+
+    if (requestedFields.isEmpty() || !invalidFields.isEmpty()) {
+      return new ResponseEntity<>(
+        "Invalid fields " + invalidFields + ", allowed fields are " +
+        projectionService.allowedFields(User.class, UserSummaryView.class),
+        HttpStatus.BAD_REQUEST
+      );
+    }
+
+    return new ResponseEntity<>(projectionService.findAll(User.class, requestedFields), HttpStatus.OK);
+  }
+
+  @GetMapping(params = {"ids", "!fields"})
+  @MeasureTime(message = "Retrieving users by IDs", includeParameters = true)
+  @JsonView(UserDetailView.class)
+  @Operation(
+    summary = "Get users by IDs (Multi-get with UserDetail View)",
+    description = "Retrieves several users in one request and one IN query, e.g. `?ids=1,2,3`. " +
+                  "Items follow the requested order and use the same UserDetailView shape as GET /{id}; " +
+                  "IDs that match no user are listed in `missing`. Use POST /by-ids for long ID lists.",
+    tags = {"👥 User Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Users retrieved in requested order",
+      content = @Content(
+        mediaType = "application/json",
+        examples = @ExampleObject(
+          name = "Multi-get Example",
+          value = "{\"items\": [{\"id\": \"2\", \"email\": \"jane.admin@example.com\", \"role\": {\"id\": \"2\", \"name\": \"ADMIN\"}, \"adminProducts\": [], \"sellerProducts\": [], \"clientProducts\": []}], \"missing\": [\"42\"]}"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "400", description = "No IDs or too many IDs requested")
+  })
+  public ResponseEntity<?> getByIds(
+    @Parameter(description = "Comma separated IDs (max 1000)", required = true, example = "1,2,3")
+    @RequestParam List<Long> ids
+  ) {
+    return findByIds(ids);
+  }
+
+  @PostMapping("/by-ids")
+  @MeasureTime(message = "Retrieving users by IDs (POST)")
+  @JsonView(UserDetailView.class)
+  @Operation(
+    summary = "Get users by IDs (Multi-get, POST for long lists)",
+    description = "Same as GET ?ids=... with the IDs sent as a JSON array body, for lists too long for a URL.",
+    tags = {"👥 User Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Users retrieved in requested order"),
+    @ApiResponse(responseCode = "400", description = "No IDs or too many IDs requested")
+  })
+  public ResponseEntity<?> postByIds(
+    @Parameter(description = "IDs to retrieve (max 1000)", required = true)
+    @RequestBody List<Long> ids
+  ) {
+    return findByIds(ids);
+  }
+
+  private ResponseEntity<?> findByIds(List<Long> ids) {
+    String error = batchLookupService.validate(ids);
+    if (error != null) {
+      return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    BatchResultDTO<User> result = batchLookupService.findAllInOrder(
+      ids,
+      userDao::findAllById,
+      User::getId,
+      user -> user
+    );
+    return new ResponseEntity<>(result, HttpStatus.OK);
   }
 
   @GetMapping("/{id}")
@@ -98,7 +249,7 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "UserDetailView Example",
-          value = "{\"id\": 1, \"email\": \"john.client@example.com\", \"role\": {\"id\": 1, \"name\": \"CLIENT\"}, \"adminProducts\": [], \"sellerProducts\": [], \"clientProducts\": [{\"id\": 1, \"name\": \"Laptop\", \"price\": 999.99}]}"
+          value = "{\"id\": \"1\", \"email\": \"john.client@example.com\", \"role\": {\"id\": \"1\", \"name\": \"CLIENT\"}, \"adminProducts\": [], \"sellerProducts\": [], \"clientProducts\": [{\"id\": \"1\", \"name\": \"Laptop\", \"price\": 999.99}]}"
         )
       )
     ),
@@ -106,7 +257,7 @@ public class UserController {
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
   @Parameter(name = "id", description = "User ID", required = true, example = "1")
-  public ResponseEntity<User> get(@PathVariable int id) {
+  public ResponseEntity<User> get(@PathVariable long id) {
     Optional<User> userOptional = userDao.findById(id);
 
     if (userOptional.isEmpty()) {
@@ -121,8 +272,9 @@ public class UserController {
   @JsonView(UserSummaryView.class)
   @Operation(
     summary = "Get users by role ID",
-    description = "Retrieves all users assigned to a specific role. " +
+    description = "Retrieves the users assigned to a specific role, one keyset page at a time. " +
                   "Uses UserSummaryView including basic user info and role details. " +
+                  "The X-Next-After-Id response header holds the afterId of the next page (absent on the last page). " +
                   "Payload: ~120 bytes per user.",
     tags = {"👥 User Management", "🎭 Role Management"}
   )
@@ -135,28 +287,45 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "Users by Role Example",
-          value = "[{\"id\": 1, \"email\": \"john.client@example.com\", \"role\": {\"id\": 1, \"name\": \"CLIENT\"}}]"
+          value = "[{\"id\": \"1\", \"email\": \"john.client@example.com\", \"role\": {\"id\": \"1\", \"name\": \"CLIENT\"}}]"
         )
       )
     ),
+    @ApiResponse(responseCode = "400", description = "Invalid afterId or size"),
     @ApiResponse(responseCode = "404", description = "Role not found"),
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
   @Parameter(name = "roleId", description = "Role ID to filter users", required = true, example = "1")
-  public ResponseEntity<List<User>> getByRoleId(@PathVariable int roleId) {
+  public ResponseEntity<?> getByRoleId(
+    @PathVariable long roleId,
+    @Parameter(description = "Last user ID of the previous page (0 for the first page)", example = "0")
+    @RequestParam(defaultValue = "0") long afterId,
+    @Parameter(description = "Users per page (1-1000)", example = "100")
+    @RequestParam(defaultValue = "" + RoleUsersService.DEFAULT_PAGE_SIZE) int size
+  ) {
+    String error = roleUsersService.validate(afterId, size);
+    if (error != null) {
+      return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     Optional<Role> roleOptional = roleDao.findById(roleId);
 
     if (roleOptional.isEmpty()) {
       return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    List<User> roleUsers = userDao.findByRole(roleOptional.get());
-    return new ResponseEntity<>(roleUsers, HttpStatus.OK);
+    KeysetPageDTO<User> roleUsers = roleUsersService.findUsers(roleId, afterId, size);
+
+    HttpHeaders headers = new HttpHeaders();
+    if (roleUsers.getNextAfterId() != null) {
+      headers.set(NEXT_AFTER_ID_HEADER, String.valueOf(roleUsers.getNextAfterId()));
+    }
+    return new ResponseEntity<>(roleUsers.getItems(), headers, HttpStatus.OK);
   }
 
   @GetMapping("/{userId}/admin-products")
   @MeasureTime(message = "Retrieving admin products by user ID", includeParameters = true)
-  public ResponseEntity<List<ProductDetailDTO>> getAdminProductsByUserId(@PathVariable int userId) {
+  public ResponseEntity<List<ProductDetailDTO>> getAdminProductsByUserId(@PathVariable long userId) {
     Optional<User> userOptional = userDao.findById(userId);
 
     if (userOptional.isEmpty()) {
@@ -171,7 +340,7 @@ public class UserController {
   @GetMapping("/{userId}/seller-products")
   @MeasureTime(message = "Retrieving seller products by user ID", includeParameters = true)
   public ResponseEntity<List<ProductDetailDTO>> getSellerProductsByUserId(
-    @PathVariable int userId
+    @PathVariable long userId
   ) {
     Optional<User> userOptional = userDao.findById(userId);
 
@@ -189,7 +358,7 @@ public class UserController {
   @GetMapping("/{userId}/client-products")
   @MeasureTime(message = "Retrieving client products by user ID", includeParameters = true)
   public ResponseEntity<List<ProductDetailDTO>> getClientProductsByUserId(
-    @PathVariable int userId
+    @PathVariable long userId
   ) {
     Optional<User> userOptional = userDao.findById(userId);
 
@@ -204,8 +373,59 @@ public class UserController {
     return new ResponseEntity<>(clientProductDTOs, HttpStatus.OK);
   }
 
+  @GetMapping("/{userId}/dashboard")
+  @MeasureTime(message = "Retrieving user dashboard", includeParameters = true)
+  @Operation(
+    summary = "Get user dashboard (single request)",
+    description = "Returns the user with its role and its admin, seller and client products, " +
+                  "each list with its total count and paginated with the same page/size. " +
+                  "Replaces GET /{id} + /admin-products + /seller-products + /client-products " +
+                  "(4 requests, 8 queries) with 1 request and at most 3 queries: the user, one UNION ALL " +
+                  "of the three LIMIT/OFFSET pages and counts, then the products of the pages.",
+    tags = {"👥 User Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Dashboard built successfully",
+      content = @Content(
+        mediaType = "application/json",
+        schema = @Schema(implementation = UserDashboardDTO.class),
+        examples = @ExampleObject(
+          name = "Dashboard Example",
+          value = "{\"user\": {\"id\": \"3\", \"email\": \"mike.seller@example.com\", \"roleName\": \"SELLER\"}, \"adminProducts\": {\"items\": [], \"page\": 0, \"size\": 20, \"total\": 0}, \"sellerProducts\": {\"items\": [{\"id\": \"3\", \"name\": \"Mechanical Keyboard\", \"price\": 89.99, \"description\": \"RGB mechanical keyboard\", \"stock\": 25, \"admin\": {\"id\": \"5\", \"email\": \"bob.admin@example.com\", \"roleName\": \"ADMIN\"}, \"seller\": {\"id\": \"3\", \"email\": \"mike.seller@example.com\", \"roleName\": \"SELLER\"}, \"client\": null}], \"page\": 0, \"size\": 20, \"total\": 1}, \"clientProducts\": {\"items\": [], \"page\": 0, \"size\": 20, \"total\": 0}}"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "400", description = "Invalid page or size"),
+    @ApiResponse(responseCode = "404", description = "User not found")
+  })
+  @Parameter(name = "userId", description = "User ID", required = true, example = "3")
+  public ResponseEntity<?> getDashboard(
+    @PathVariable long userId,
+    @Parameter(description = "Page index of each product list (0 based)", example = "0")
+    @RequestParam(defaultValue = "0") int page,
+    @Parameter(description = "Page size of each product list (1-100)", example = "20")
+    @RequestParam(defaultValue = "20") int size
+  ) {
+    if (page < 0 || size < 1 || size > MAX_DASHBOARD_PAGE_SIZE) {
+      return new ResponseEntity<>(
+        "Page must be >= 0 and size between 1 and " + MAX_DASHBOARD_PAGE_SIZE,
+        HttpStatus.BAD_REQUEST
+      );
+    }
+
+    Optional<UserDashboardDTO> dashboard = dashboardService.getDashboard(userId, page, size);
+
+    if (dashboard.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    return new ResponseEntity<>(dashboard.get(), HttpStatus.OK);
+  }
+
   @PostMapping
-  @MeasureTime(message = "Creating a new user", logLevel = "DEBUG")
+  @MeasureTime(message = "Creating a new user", logLevel = Level.DEBUG)
   @JsonView(UserSummaryView.class)
   @Operation(
     summary = "Create a new user",
@@ -223,7 +443,7 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "Created User Example",
-          value = "{\"id\": 6, \"email\": \"newuser@example.com\", \"role\": {\"id\": 1, \"name\": \"CLIENT\"}}"
+          value = "{\"id\": \"6\", \"email\": \"newuser@example.com\", \"role\": {\"id\": \"1\", \"name\": \"CLIENT\"}}"
         )
       )
     ),
@@ -234,33 +454,82 @@ public class UserController {
     @Parameter(description = "User data to create", required = true)
     @RequestBody @Validated(User.add.class) User userSent,
     @Parameter(description = "Optional role ID to assign to the user", example = "1")
-    @RequestParam(required = false) Integer roleId
+    @RequestParam(required = false) Long roleId
   ) {
-    // If roleId is provided, set the role relationship
-    if (roleId != null) {
-      Optional<Role> roleOptional = roleDao.findById(roleId);
-      if (roleOptional.isEmpty()) {
-        return new ResponseEntity<>("Role not found", HttpStatus.BAD_REQUEST);
-      }
-      userSent.setRole(roleOptional.get());
-    }
-    userDao.save(userSent);
-
-    return new ResponseEntity<>(userSent, HttpStatus.CREATED);
+    OperationResult result = userService.add(userSent, roleId);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
   }
 
   @DeleteMapping("/{id}")
-  @MeasureTime(message = "Deleting user", includeParameters = true, logLevel = "WARN")
-  public ResponseEntity<?> delete(@PathVariable int id) {
-    Optional<User> userOptional = userDao.findById(id);
+  @MeasureTime(message = "Deleting user", includeParameters = true, logLevel = Level.WARN)
+  public ResponseEntity<?> delete(@PathVariable long id) {
+    OperationResult result = userService.delete(id);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
+  }
 
-    if (userOptional.isEmpty()) {
+  @DeleteMapping("/{id}/bulk")
+  @MeasureTime(message = "Submitting bulk user deletion", includeParameters = true, logLevel = Level.WARN)
+  @Operation(
+    summary = "Delete user in background (bulk, chunked)",
+    description = "Queues the deletion of the user with the products it administrates or sells (its bought products are kept, without client) and returns immediately (202). " +
+                  "Dependent rows are removed with set-based statements in bounded chunks, each in its own short transaction, " +
+                  "so no lock is held for the whole cascade. Follow progress at the Location header (/api/deletion-jobs/{jobId}).",
+    tags = {"👥 User Management", "🗑️ Bulk Deletion"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "202",
+      description = "Deletion job accepted",
+      content = @Content(
+        mediaType = "application/json",
+        schema = @Schema(implementation = BulkDeletionJobDTO.class)
+      )
+    ),
+    @ApiResponse(responseCode = "404", description = "User not found")
+  })
+  @Parameter(name = "id", description = "User ID to delete", required = true, example = "4")
+  public ResponseEntity<?> bulkDelete(@PathVariable long id) {
+    if (!userDao.existsById(id)) {
       return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
-    userDao.deleteById(id);
+    BulkDeletionJobDTO job = bulkDeletionService.deleteUser(id);
 
-    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    HttpHeaders headers = new HttpHeaders();
+    headers.setLocation(URI.create("/api/deletion-jobs/" + job.getId()));
+    return new ResponseEntity<>(job, headers, HttpStatus.ACCEPTED);
+  }
+
+  @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+  @MeasureTime(message = "Patching user", includeParameters = true)
+  @Operation(
+    summary = "Partially update user (JSON Merge Patch)",
+    description = "Updates only the supplied fields (email, role as {\"id\": n} or null) with a single UPDATE statement. " +
+                  "The user is not read first; only a supplied role is checked for existence. Password cannot be patched. " +
+                  "Returns 204: GET the user for its full state.",
+    tags = {"👥 User Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "204", description = "User patched"),
+    @ApiResponse(responseCode = "400", description = "Unknown field, invalid value or role not found"),
+    @ApiResponse(responseCode = "404", description = "User not found"),
+    @ApiResponse(responseCode = "409", description = "Email already exists")
+  })
+  public ResponseEntity<?> patch(
+    @Parameter(description = "User ID to patch", required = true, example = "1")
+    @PathVariable long id,
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+      description = "Merge patch: supplied fields are set, others are kept",
+      required = true,
+      content = @Content(
+        mediaType = "application/merge-patch+json",
+        examples = @ExampleObject(name = "Email Change Example", value = "{\"email\": \"new.address@example.com\"}")
+      )
+    )
+    @RequestBody Map<String, Object> patch
+  ) {
+    OperationResult result = userService.patch(id, patch);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
   }
 
   @PutMapping("/{id}")
@@ -281,7 +550,7 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "Updated User Example",
-          value = "{\"id\": 1, \"email\": \"updated@example.com\", \"role\": {\"id\": 2, \"name\": \"ADMIN\"}}"
+          value = "{\"id\": \"1\", \"email\": \"updated@example.com\", \"role\": {\"id\": \"2\", \"name\": \"ADMIN\"}}"
         )
       )
     ),
@@ -291,39 +560,14 @@ public class UserController {
   })
   public ResponseEntity<?> update(
     @Parameter(description = "User ID to update", required = true, example = "1")
-    @PathVariable int id,
+    @PathVariable long id,
     @Parameter(description = "Updated user data", required = true)
     @RequestBody @Validated(User.update.class) User userSent,
     @Parameter(description = "Optional new role ID for the user", example = "2")
-    @RequestParam(required = false) Integer roleId
+    @RequestParam(required = false) Long roleId
   ) {
-    userSent.setId(id);
-
-    Optional<User> userOptional = userDao.findById(id);
-
-    if (userOptional.isEmpty()) {
-      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-    }
-
-    // If roleId is provided, update the role relationship
-    if (roleId != null) {
-      Optional<Role> roleOptional = roleDao.findById(roleId);
-      if (roleOptional.isEmpty()) {
-        return new ResponseEntity<>("Role not found", HttpStatus.BAD_REQUEST);
-      }
-      userSent.setRole(roleOptional.get());
-    } else {
-      // Keep the existing role relationship
-      userSent.setRole(userOptional.get().getRole());
-    }
-
-    // Force not to update the password
-    // We assign the old password to the user to be saved
-    userSent.setPassword(userOptional.get().getPassword());
-
-    userDao.save(userSent);
-
-    return new ResponseEntity<>(userSent, HttpStatus.OK);
+    OperationResult result = userService.update(id, userSent, roleId);
+    return new ResponseEntity<>(result.getBody(), result.getStatus());
   }
 
   // New endpoints using @JsonView directly with User entities
@@ -347,14 +591,14 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "UserBasicView Example",
-          value = "[{\"id\": 1, \"email\": \"john.client@example.com\"}, {\"id\": 2, \"email\": \"jane.admin@example.com\"}]"
+          value = "[{\"id\": \"1\", \"email\": \"john.client@example.com\"}, {\"id\": \"2\", \"email\": \"jane.admin@example.com\"}]"
         )
       )
     ),
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
-  public List<User> getBasicUsers() {
-    return userDao.findAll();
+  public List<Map<String, Object>> getBasicUsers(@Parameter(hidden = true) ViewProjection projection) {
+    return projection.findAll(User.class);
   }
 
   @GetMapping("/summary")
@@ -376,14 +620,14 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "UserSummaryView Example",
-          value = "[{\"id\": 1, \"email\": \"john.client@example.com\", \"role\": {\"id\": 1, \"name\": \"CLIENT\"}}]"
+          value = "[{\"id\": \"1\", \"email\": \"john.client@example.com\", \"role\": {\"id\": \"1\", \"name\": \"CLIENT\"}}]"
         )
       )
     ),
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
-  public List<User> getUsersSummary() {
-    return userDao.findAll();
+  public List<Map<String, Object>> getUsersSummary(@Parameter(hidden = true) ViewProjection projection) {
+    return projection.findAll(User.class);
   }
 
   @GetMapping("/entity/{id}")
@@ -405,7 +649,7 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "User Entity Summary Example",
-          value = "{\"id\": 1, \"email\": \"john.client@example.com\", \"role\": {\"id\": 1, \"name\": \"CLIENT\"}}"
+          value = "{\"id\": \"1\", \"email\": \"john.client@example.com\", \"role\": {\"id\": \"1\", \"name\": \"CLIENT\"}}"
         )
       )
     ),
@@ -413,8 +657,11 @@ public class UserController {
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
   @Parameter(name = "id", description = "User ID", required = true, example = "1")
-  public ResponseEntity<User> getUserEntity(@PathVariable int id) {
-    Optional<User> userOptional = userDao.findById(id);
+  public ResponseEntity<Map<String, Object>> getUserEntity(
+    @PathVariable long id,
+    @Parameter(hidden = true) ViewProjection projection
+  ) {
+    Optional<Map<String, Object>> userOptional = projection.findById(User.class, id);
 
     if (userOptional.isEmpty()) {
       return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -442,7 +689,7 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "User Entity Basic Example",
-          value = "{\"id\": 1, \"email\": \"john.client@example.com\"}"
+          value = "{\"id\": \"1\", \"email\": \"john.client@example.com\"}"
         )
       )
     ),
@@ -450,8 +697,11 @@ public class UserController {
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
   @Parameter(name = "id", description = "User ID", required = true, example = "1")
-  public ResponseEntity<User> getUserEntityBasic(@PathVariable int id) {
-    Optional<User> userOptional = userDao.findById(id);
+  public ResponseEntity<Map<String, Object>> getUserEntityBasic(
+    @PathVariable long id,
+    @Parameter(hidden = true) ViewProjection projection
+  ) {
+    Optional<Map<String, Object>> userOptional = projection.findById(User.class, id);
 
     if (userOptional.isEmpty()) {
       return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -479,14 +729,14 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "Users with Roles Example",
-          value = "[{\"id\": 1, \"email\": \"john.client@example.com\", \"role\": {\"id\": 1, \"name\": \"CLIENT\"}}]"
+          value = "[{\"id\": \"1\", \"email\": \"john.client@example.com\", \"role\": {\"id\": \"1\", \"name\": \"CLIENT\"}}]"
         )
       )
     ),
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
-  public List<User> getUsersWithRole() {
-    return userDao.findAll();
+  public List<Map<String, Object>> getUsersWithRole(@Parameter(hidden = true) ViewProjection projection) {
+    return projection.findAll(User.class);
   }
 
   @GetMapping("/list-view")
@@ -509,13 +759,75 @@ public class UserController {
         schema = @Schema(implementation = User.class),
         examples = @ExampleObject(
           name = "UserListView Example",
-          value = "[{\"id\": 1, \"email\": \"john.client@example.com\"}, {\"id\": 2, \"email\": \"jane.admin@example.com\"}]"
+          value = "[{\"id\": \"1\", \"email\": \"john.client@example.com\"}, {\"id\": \"2\", \"email\": \"jane.admin@example.com\"}]"
         )
       )
     ),
     @ApiResponse(responseCode = "409", description = "Conflict error")
   })
-  public List<User> getUsersListView() {
-    return userDao.findAll();
+  public List<Map<String, Object>> getUsersListView(@Parameter(hidden = true) ViewProjection projection) {
+    return projection.findAll(User.class);
+  }
+
+  @GetMapping("/with-counts")
+  @MeasureTime(message = "Retrieving users with product counts")
+  @Operation(
+    summary = "Get users with product counts",
+    description = "Retrieves all users with their role and the number of products they administrate, sell and bought. " +
+                  "Counts come from a single query (one COUNT subquery per relation, each on its foreign key index): " +
+                  "the product collections of UserDetailView are never loaded. " +
+                  "Payload: ~130 bytes per user.",
+    tags = {"🔄 User JsonViews", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "Users with product counts retrieved successfully",
+      content = @Content(
+        mediaType = "application/json",
+        schema = @Schema(implementation = UserProductCountsDTO.class),
+        examples = @ExampleObject(
+          name = "Product Counts Example",
+          value = "[{\"id\": \"3\", \"email\": \"mike.seller@example.com\", \"roleName\": \"SELLER\", \"adminProductCount\": 0, \"sellerProductCount\": 4, \"clientProductCount\": 1}]"
+        )
+      )
+    )
+  })
+  public List<UserProductCountsDTO> getUsersWithCounts() {
+    return userProductCountsService.findAll();
+  }
+
+  @GetMapping("/{id}/with-counts")
+  @MeasureTime(message = "Retrieving user with product counts", includeParameters = true)
+  @Operation(
+    summary = "Get user by ID with product counts",
+    description = "Retrieves a user with its role and product counts (one query) instead of its full product lists. " +
+                  "Use /{id}/dashboard when the lists themselves are needed (paginated).",
+    tags = {"👥 User Management", "⚡ Performance Optimized"}
+  )
+  @ApiResponses(value = {
+    @ApiResponse(
+      responseCode = "200",
+      description = "User found and returned with product counts",
+      content = @Content(
+        mediaType = "application/json",
+        schema = @Schema(implementation = UserProductCountsDTO.class),
+        examples = @ExampleObject(
+          name = "Product Counts Example",
+          value = "{\"id\": \"3\", \"email\": \"mike.seller@example.com\", \"roleName\": \"SELLER\", \"adminProductCount\": 0, \"sellerProductCount\": 4, \"clientProductCount\": 1}"
+        )
+      )
+    ),
+    @ApiResponse(responseCode = "404", description = "User not found")
+  })
+  @Parameter(name = "id", description = "User ID", required = true, example = "3")
+  public ResponseEntity<UserProductCountsDTO> getUserWithCounts(@PathVariable long id) {
+    Optional<UserProductCountsDTO> counts = userProductCountsService.findById(id);
+
+    if (counts.isEmpty()) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    return new ResponseEntity<>(counts.get(), HttpStatus.OK);
   }
 }
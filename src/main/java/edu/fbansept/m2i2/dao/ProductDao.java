@@ -1,14 +1,75 @@
 package edu.fbansept.m2i2.dao;
 
+import edu.fbansept.m2i2.annotation.ShardKey;
+import edu.fbansept.m2i2.annotation.ShardOrder;
 import edu.fbansept.m2i2.model.Product;
 import edu.fbansept.m2i2.model.User;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductDao extends JpaRepository<Product, Integer> {
+public interface ProductDao extends JpaRepository<Product, Long> {
   List<Product> findByAdmin(User admin);
-  List<Product> findBySeller(User seller);
+  List<Product> findBySeller(@ShardKey User seller);
   List<Product> findByClient(User client);
+
+  // Multi-get: one IN query with admin, seller and client fetched
+  @Query(
+    "SELECT p FROM Product p " +
+    "LEFT JOIN FETCH p.admin LEFT JOIN FETCH p.seller LEFT JOIN FETCH p.client " +
+    "WHERE p.id IN :ids"
+  )
+  List<Product> findAllWithUsersByIdIn(@Param("ids") List<Long> ids);
+
+  // Dashboard, in one statement: for each relation of the user (admin, seller, client),
+  // the product IDs of one page ("relation", id, NULL) and the size of the list ("relation", NULL, count).
+  // Every branch is a range scan or a count of the index of its foreign key
+  @Query(
+    value = "(SELECT 'admin' AS relation, p.id AS id, NULL AS total FROM product p " +
+            "WHERE p.admin_id = :userId ORDER BY p.id LIMIT :limit OFFSET :offset) " +
+            "UNION ALL (SELECT 'seller', p.id, NULL FROM product p " +
+            "WHERE p.seller_id = :userId ORDER BY p.id LIMIT :limit OFFSET :offset) " +
+            "UNION ALL (SELECT 'client', p.id, NULL FROM product p " +
+            "WHERE p.client_id = :userId ORDER BY p.id LIMIT :limit OFFSET :offset) " +
+            "UNION ALL (SELECT 'admin', NULL, COUNT(*) FROM product p WHERE p.admin_id = :userId) " +
+            "UNION ALL (SELECT 'seller', NULL, COUNT(*) FROM product p WHERE p.seller_id = :userId) " +
+            "UNION ALL (SELECT 'client', NULL, COUNT(*) FROM product p WHERE p.client_id = :userId)",
+    nativeQuery = true
+  )
+  List<Object[]> findDashboardRows(
+    @Param("userId") long userId,
+    @Param("offset") long offset,
+    @Param("limit") int limit
+  );
+
+  // Dashboard: the products of the pages, users and roles fetched
+  @Query(
+    "SELECT p FROM Product p " +
+    "LEFT JOIN FETCH p.admin a LEFT JOIN FETCH a.role " +
+    "LEFT JOIN FETCH p.seller s LEFT JOIN FETCH s.role " +
+    "LEFT JOIN FETCH p.client c LEFT JOIN FETCH c.role " +
+    "WHERE p.id IN :ids"
+  )
+  List<Product> findAllWithUsersAndRolesByIdIn(@Param("ids") Collection<Long> ids);
+
+  // Delta sync: products changed after (since, sinceId), users fetched in the same query
+  @Query(
+    "SELECT p FROM Product p " +
+    "LEFT JOIN FETCH p.admin LEFT JOIN FETCH p.seller LEFT JOIN FETCH p.client " +
+    "WHERE (p.changeVersion > :since OR (p.changeVersion = :since AND p.id > :sinceId)) " +
+    "AND p.changeVersion <= :visible " +
+    "ORDER BY p.changeVersion, p.id"
+  )
+  @ShardOrder({"changeVersion", "id"})
+  List<Product> findChangedSince(
+    @Param("since") long since,
+    @Param("sinceId") long sinceId,
+    @Param("visible") long visible,
+    Pageable pageable
+  );
 }
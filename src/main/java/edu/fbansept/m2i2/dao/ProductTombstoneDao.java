@@ -0,0 +1,27 @@
+package edu.fbansept.m2i2.dao;
+
+import edu.fbansept.m2i2.annotation.ShardOrder;
+import edu.fbansept.m2i2.model.ProductTombstone;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductTombstoneDao extends JpaRepository<ProductTombstone, Long> {
+  @Query(
+    "SELECT t FROM ProductTombstone t " +
+    "WHERE (t.changeVersion > :since OR (t.changeVersion = :since AND t.productId > :sinceId)) " +
+    "AND t.changeVersion <= :visible " +
+    "ORDER BY t.changeVersion, t.productId"
+  )
+  @ShardOrder({"changeVersion", "productId"})
+  List<ProductTombstone> findDeletedSince(
+    @Param("since") long since,
+    @Param("sinceId") long sinceId,
+    @Param("visible") long visible,
+    Pageable pageable
+  );
+}
@@ -5,4 +5,4 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface RoleDao extends JpaRepository<Role, Integer> {}
+public interface RoleDao extends JpaRepository<Role, Long> {}
@@ -1,12 +1,36 @@
 package edu.fbansept.m2i2.dao;
 
-import edu.fbansept.m2i2.model.Role;
+import edu.fbansept.m2i2.dto.UserProductCountsDTO;
 import edu.fbansept.m2i2.model.User;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserDao extends JpaRepository<User, Integer> {
-  List<User> findByRole(Role role);
+public interface UserDao extends JpaRepository<User, Long> {
+  // Keyset page of a role's users (range scan of idx_user_role_id)
+  List<User> findByRoleIdAndIdGreaterThanOrderByIdAsc(Long roleId, Long afterId, Limit limit);
+
+  // Dashboard: user and role in one query
+  @Query("SELECT u FROM User u LEFT JOIN FETCH u.role WHERE u.id = :id")
+  Optional<User> findWithRoleById(@Param("id") Long id);
+
+  // Product counts per user: one scalar COUNT subquery per relation, each resolved on its
+  // foreign key index (an OR join could use none), product collections never loaded
+  String PRODUCT_COUNTS_SELECT =
+    "SELECT new edu.fbansept.m2i2.dto.UserProductCountsDTO(u.id, u.email, r.name, " +
+    "(SELECT COUNT(p) FROM Product p WHERE p.admin.id = u.id), " +
+    "(SELECT COUNT(p) FROM Product p WHERE p.seller.id = u.id), " +
+    "(SELECT COUNT(p) FROM Product p WHERE p.client.id = u.id)) " +
+    "FROM User u LEFT JOIN u.role r ";
+
+  @Query(PRODUCT_COUNTS_SELECT + "ORDER BY u.id")
+  List<UserProductCountsDTO> findAllWithProductCounts();
+
+  @Query(PRODUCT_COUNTS_SELECT + "WHERE u.id = :id")
+  Optional<UserProductCountsDTO> findWithProductCountsById(@Param("id") Long id);
 }
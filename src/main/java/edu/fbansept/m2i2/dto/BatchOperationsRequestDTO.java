@@ -0,0 +1,42 @@
+package edu.fbansept.m2i2.dto;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ordered list of operations executed in one transaction (/api/batch)
+ *
+ * A parameter or body value "${n.id}" is replaced by the ID produced by operation n
+ * (0 based, earlier in the list), e.g. to assign a client to a product created in the same batch
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchOperationsRequestDTO {
+
+  private List<OperationDTO> operations;
+
+  /**
+   * One write operation, as its endpoint would run it
+   */
+  @Getter
+  @Setter
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class OperationDTO {
+
+    // Operation name, e.g. "product.create", "product.assign-client", "user.patch"
+    private String op;
+
+    // Path variables and request parameters of the endpoint (id, adminId, roleId ...)
+    private Map<String, Object> params;
+
+    // Request body of the endpoint
+    private Map<String, Object> body;
+  }
+}
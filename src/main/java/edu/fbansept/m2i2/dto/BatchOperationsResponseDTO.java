@@ -0,0 +1,52 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Result of a batch: committed only if every operation succeeded
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchOperationsResponseDTO {
+
+  private boolean committed;
+
+  private List<OperationResultDTO> results;
+
+  // Set when every operation succeeded but the commit itself failed (e.g. a deferred constraint)
+  private String error;
+
+  /**
+   * Result of one operation, in request order
+   * Operations after a failure are not executed and have no status
+   */
+  @Getter
+  @Setter
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class OperationResultDTO {
+
+    private int index;
+
+    private String op;
+
+    // HTTP status the endpoint would have returned
+    private Integer status;
+
+    // ID of the created or changed entity, usable as "${index.id}" by later operations
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+
+    private String error;
+  }
+}
@@ -0,0 +1,30 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import edu.fbansept.m2i2.view.BasicView;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Result of a multi-get by IDs
+ * Items follow the order of the requested IDs; IDs without entity are listed in missing.
+ * Items are serialized with the same JsonView as the matching single-item endpoint
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchResultDTO<T> {
+
+  @JsonView(BasicView.class)
+  private List<T> items;
+
+  @JsonView(BasicView.class)
+  @JsonSerialize(contentUsing = ToStringSerializer.class)
+  private List<Long> missing;
+}
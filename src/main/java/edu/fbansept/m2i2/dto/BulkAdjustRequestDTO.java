@@ -0,0 +1,45 @@
+package edu.fbansept.m2i2.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Bulk price/stock adjustment (/api/products/bulk-adjust)
+ * Filters are combined with AND; at least one filter and one change are required
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkAdjustRequestDTO {
+
+  public enum Mode {
+    // Change in percent of the current value (-10 = 10% off)
+    PERCENT,
+    // Change added to the current value (-5 = 5 less)
+    ABSOLUTE
+  }
+
+  // Filters
+  private Long sellerId;
+
+  private Long adminId;
+
+  private List<Long> ids;
+
+  private Double minPrice;
+
+  private Double maxPrice;
+
+  // Changes
+  private Mode priceMode;
+
+  private Double priceChange;
+
+  private Mode stockMode;
+
+  private Double stockChange;
+}
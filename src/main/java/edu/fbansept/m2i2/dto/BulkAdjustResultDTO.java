@@ -0,0 +1,29 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Result of a bulk price/stock adjustment
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkAdjustResultDTO {
+
+  // Number of updated products
+  private int affected;
+
+  // Change version shared by every updated product (delta sync)
+  private long changeVersion;
+
+  // New state of the updated products, used to publish change events
+  // (null above ProductBulkAdjustService.PUBLISHED_ROWS_LIMIT products)
+  @JsonIgnore
+  private List<Object[]> updatedRows;
+}
@@ -0,0 +1,56 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Progress of a background bulk deletion (/api/deletion-jobs/{id})
+ * Counters are updated by the job thread after every committed chunk,
+ * so they always reflect work that is already visible in the database
+ */
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkDeletionJobDTO {
+
+  public enum Status {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  private final String id;
+
+  // "user" or "role"
+  private final String target;
+
+  @JsonSerialize(using = ToStringSerializer.class)
+  private final Long targetId;
+
+  private volatile Status status = Status.PENDING;
+
+  private volatile long deletedProducts;
+
+  private volatile long detachedProducts;
+
+  private volatile long deletedUsers;
+
+  private volatile int chunks;
+
+  private final LocalDateTime submittedAt = LocalDateTime.now();
+
+  private volatile LocalDateTime finishedAt;
+
+  private volatile String error;
+
+  public BulkDeletionJobDTO(String id, String target, Long targetId) {
+    this.id = id;
+    this.target = target;
+    this.targetId = targetId;
+  }
+}
@@ -0,0 +1,33 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import edu.fbansept.m2i2.view.BasicView;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Keyset (seek) page: items ordered by ID after a cursor
+ * The next page is requested with afterId=nextAfterId (null on the last page).
+ * Unlike OFFSET pages, reading a page costs O(page size) whatever its position
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeysetPageDTO<T> {
+
+  @JsonView(BasicView.class)
+  private List<T> items;
+
+  @JsonView(BasicView.class)
+  private int size;
+
+  @JsonView(BasicView.class)
+  @JsonSerialize(using = ToStringSerializer.class)
+  private Long nextAfterId;
+}
@@ -0,0 +1,71 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import edu.fbansept.m2i2.view.BasicView;
+import edu.fbansept.m2i2.view.ProductBasicView;
+import edu.fbansept.m2i2.view.ProductSummaryView;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Normalized (deduplicated) shape for product lists
+ * Products reference their admin, seller and client by ID, and every referenced user
+ * appears exactly once in the users table, keyed by user ID.
+ * In large lists the same few admins and sellers are otherwise repeated on every product
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class NormalizedProductListDTO {
+
+  @JsonView(BasicView.class)
+  private List<ProductRowDTO> products;
+
+  @JsonView(ProductSummaryView.class)
+  private Map<Long, ProductDetailDTO.UserSummaryDTO> users;
+
+  /**
+   * Product row referencing users by ID
+   */
+  @Getter
+  @Setter
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class ProductRowDTO {
+
+    @JsonView({BasicView.class, ProductBasicView.class})
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+
+    @JsonView({BasicView.class, ProductBasicView.class})
+    private String name;
+
+    @JsonView({BasicView.class, ProductBasicView.class})
+    private Double price;
+
+    @JsonView({BasicView.class, ProductBasicView.class})
+    private String description;
+
+    @JsonView({BasicView.class, ProductBasicView.class})
+    private Integer stock;
+
+    @JsonView(ProductSummaryView.class)
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long adminId;
+
+    @JsonView(ProductSummaryView.class)
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long sellerId;
+
+    @JsonView(ProductSummaryView.class)
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long clientId;
+  }
+}
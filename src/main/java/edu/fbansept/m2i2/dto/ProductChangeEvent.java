@@ -0,0 +1,55 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Compact product change event pushed on the SSE change feed (/api/products/stream)
+ * Only the fields relevant to the change type are set, null fields are not serialized
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChangeEvent {
+
+  /**
+   * Change types, with the SSE event name used on the stream
+   */
+  public enum Type {
+    CREATED("created"),
+    UPDATED("updated"),
+    DELETED("deleted"),
+    CLIENT_ASSIGNED("client-assigned"),
+    CLIENT_REMOVED("client-removed"),
+    STOCK("stock"),
+    // Too many products changed at once (bulk adjustment): reload the catalog
+    RESYNC("resync");
+
+    private final String eventName;
+
+    Type(String eventName) {
+      this.eventName = eventName;
+    }
+
+    public String getEventName() {
+      return eventName;
+    }
+  }
+
+  private long sequence;
+  private Type type;
+  @JsonSerialize(using = ToStringSerializer.class)
+  private Long productId;
+  private Double price;
+  private Integer stock;
+  @JsonSerialize(using = ToStringSerializer.class)
+  private Long clientId;
+  private long timestamp;
+}
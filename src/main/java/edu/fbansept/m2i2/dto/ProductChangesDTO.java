@@ -0,0 +1,56 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import edu.fbansept.m2i2.view.BasicView;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Page of product changes for delta sync (/api/products/changes)
+ * Upserts and deletions are both ordered by (version, product ID); the next page
+ * is requested with since=nextSince and sinceId=nextSinceId
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangesDTO {
+
+  @JsonView(BasicView.class)
+  private List<ProductDetailDTO> upserts;
+
+  @JsonView(BasicView.class)
+  private List<DeletionDTO> deletions;
+
+  @JsonView(BasicView.class)
+  private long nextSince;
+
+  @JsonView(BasicView.class)
+  @JsonSerialize(using = ToStringSerializer.class)
+  private long nextSinceId;
+
+  @JsonView(BasicView.class)
+  private boolean hasMore;
+
+  /**
+   * Deleted product reference
+   */
+  @Getter
+  @Setter
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class DeletionDTO {
+
+    @JsonView(BasicView.class)
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+
+    @JsonView(BasicView.class)
+    private long version;
+  }
+}
@@ -1,5 +1,13 @@
 package edu.fbansept.m2i2.dto;
 
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import edu.fbansept.m2i2.view.BasicView;
+import edu.fbansept.m2i2.view.ProductBasicView;
+import edu.fbansept.m2i2.view.ProductSummaryView;
+import edu.fbansept.m2i2.view.UserBasicView;
+import edu.fbansept.m2i2.view.UserSummaryView;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,6 +17,10 @@ import lombok.Setter;
  * DTO for Product with detailed user information
  * This DTO is used to return product information along with admin, seller, and client details
  * without causing circular reference issues in JSON serialization
+ *
+ * Fields carry the same @JsonView annotations as the Product entity, so handler
+ * views (ProductListView, ProductDetailView ...) filter the DTO exactly like the entity,
+ * whatever the negotiated encoding (JSON, CBOR, Smile)
  */
 @Getter
 @Setter
@@ -16,13 +28,29 @@ import lombok.Setter;
 @NoArgsConstructor
 public class ProductDetailDTO {
 
-  private Integer id;
+  @JsonView({BasicView.class, ProductBasicView.class})
+  @JsonSerialize(using = ToStringSerializer.class)
+  private Long id;
+
+  @JsonView({BasicView.class, ProductBasicView.class})
   private String name;
+
+  @JsonView({BasicView.class, ProductBasicView.class})
   private Double price;
+
+  @JsonView({BasicView.class, ProductBasicView.class})
   private String description;
+
+  @JsonView({BasicView.class, ProductBasicView.class})
   private Integer stock;
+
+  @JsonView(ProductSummaryView.class)
   private UserSummaryDTO admin;
+
+  @JsonView(ProductSummaryView.class)
   private UserSummaryDTO seller;
+
+  @JsonView(ProductSummaryView.class)
   private UserSummaryDTO client;
 
   /**
@@ -34,11 +62,17 @@ public class ProductDetailDTO {
   @NoArgsConstructor
   public static class UserSummaryDTO {
 
-    private Integer id;
+    @JsonView({BasicView.class, UserBasicView.class})
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+
+    @JsonView({BasicView.class, UserBasicView.class})
     private String email;
+
+    @JsonView({ProductSummaryView.class, UserSummaryView.class})
     private String roleName;
 
-    public UserSummaryDTO(Integer id, String email) {
+    public UserSummaryDTO(Long id, String email) {
       this.id = id;
       this.email = email;
     }
@@ -48,7 +82,7 @@ public class ProductDetailDTO {
    * Constructor for creating ProductDetailDTO from Product entity
    */
   public ProductDetailDTO(
-    Integer id,
+    Long id,
     String name,
     Double price,
     String description,
@@ -0,0 +1,45 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * State of the on-demand JFR recording (/api/admin/profiling)
+ */
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProfilingRecordingDTO {
+
+  public enum Status {
+    RUNNING,
+    COMPLETED
+  }
+
+  private final String id;
+
+  // JFR settings profile: "default" (low overhead) or "profile" (more samples, allocation and lock events)
+  private final String settings;
+
+  private final long durationSeconds;
+
+  private volatile Status status = Status.RUNNING;
+
+  private final LocalDateTime startedAt = LocalDateTime.now();
+
+  private final LocalDateTime endsAt;
+
+  private volatile LocalDateTime stoppedAt;
+
+  // Size of the .jfr file, once completed
+  private volatile Long sizeBytes;
+
+  public ProfilingRecordingDTO(String id, String settings, long durationSeconds) {
+    this.id = id;
+    this.settings = settings;
+    this.durationSeconds = durationSeconds;
+    this.endsAt = startedAt.plusSeconds(durationSeconds);
+  }
+}
@@ -0,0 +1,38 @@
+package edu.fbansept.m2i2.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Top entries of a completed JFR recording (/api/admin/profiling/summary)
+ * - hotMethods: top frames of the CPU samples (jdk.ExecutionSample), total = samples
+ * - allocationSites: top frames of the allocation samples (jdk.ObjectAllocationSample), total = estimated bytes
+ * - contendedMonitors: monitor classes threads blocked on (jdk.JavaMonitorEnter), total = blocked milliseconds
+ */
+@Getter
+@AllArgsConstructor
+public class ProfilingSummaryDTO {
+
+  private final String recordingId;
+
+  private final long events;
+
+  private final List<Entry> hotMethods;
+
+  private final List<Entry> allocationSites;
+
+  private final List<Entry> contendedMonitors;
+
+  @Getter
+  @AllArgsConstructor
+  public static class Entry {
+
+    // "edu.fbansept.m2i2.service.ProductMappingService.toProductDetailDTO" or a class name
+    private final String name;
+
+    private final long count;
+
+    private final long total;
+  }
+}
@@ -0,0 +1,34 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import edu.fbansept.m2i2.model.User;
+import edu.fbansept.m2i2.view.BasicView;
+import edu.fbansept.m2i2.view.RoleBasicView;
+import edu.fbansept.m2i2.view.RoleWithUsersView;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Role with one keyset page of its users
+ * Replaces the unbounded Role.users list in RoleWithUsersView / RoleDetailView responses
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoleWithUsersDTO {
+
+  @JsonView({BasicView.class, RoleBasicView.class})
+  @JsonSerialize(using = ToStringSerializer.class)
+  private Long id;
+
+  @JsonView({BasicView.class, RoleBasicView.class})
+  private String name;
+
+  @JsonView(RoleWithUsersView.class)
+  private KeysetPageDTO<User> users;
+}
@@ -0,0 +1,44 @@
+package edu.fbansept.m2i2.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Everything a user page needs (/api/users/{id}/dashboard):
+ * the user with its role and one page of each of its admin, seller and client products
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserDashboardDTO {
+
+  private ProductDetailDTO.UserSummaryDTO user;
+
+  private ProductPageDTO adminProducts;
+
+  private ProductPageDTO sellerProducts;
+
+  private ProductPageDTO clientProducts;
+
+  /**
+   * One page of a product list with the total count of the list
+   */
+  @Getter
+  @Setter
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class ProductPageDTO {
+
+    private List<ProductDetailDTO> items;
+
+    private int page;
+
+    private int size;
+
+    private long total;
+  }
+}
@@ -0,0 +1,32 @@
+package edu.fbansept.m2i2.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * User with the number of products it administrates, sells and bought
+ * Built directly by one query (a COUNT subquery per relation), without loading the product collections
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserProductCountsDTO {
+
+  @JsonSerialize(using = ToStringSerializer.class)
+  private Long id;
+
+  private String email;
+
+  private String roleName;
+
+  private Long adminProductCount;
+
+  private Long sellerProductCount;
+
+  private Long clientProductCount;
+}
@@ -1,6 +1,10 @@
 package edu.fbansept.m2i2.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import edu.fbansept.m2i2.annotation.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -10,12 +14,15 @@ import lombok.Setter;
 import edu.fbansept.m2i2.view.BasicView;
 import edu.fbansept.m2i2.view.ProductBasicView;
 import edu.fbansept.m2i2.view.ProductSummaryView;
+import edu.fbansept.m2i2.service.ProductChangeListener;
 
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@EntityListeners(ProductChangeListener.class)
+@Table(indexes = @Index(name = "idx_product_change_version", columnList = "change_version, id"))
 public class Product {
 
   public interface add {}
@@ -23,9 +30,10 @@ public class Product {
   public interface update {}
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @SnowflakeId
   @JsonView({BasicView.class, ProductBasicView.class})
-  protected Integer id;
+  @JsonSerialize(using = ToStringSerializer.class)
+  protected Long id;
 
   @NotBlank(groups = { add.class, update.class })
   @Size(min = 2, max = 100, groups = { add.class, update.class })
@@ -66,4 +74,10 @@ public class Product {
   @JoinColumn(name = "client_id")
   @JsonView(ProductSummaryView.class)
   protected User client;
+
+  // Monotonic change version, set on every insert/update (see ProductChangeListener)
+  // Used by delta sync (/api/products/changes), never serialized
+  @Column(name = "change_version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+  @JsonIgnore
+  protected Long changeVersion = 0L;
 }
@@ -0,0 +1,34 @@
+package edu.fbansept.m2i2.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Trace of a deleted product, so delta sync clients learn about deletions
+ * Written for every product removal (see ProductChangeListener and ChangeVersionService)
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(
+  name = "product_tombstone",
+  indexes = @Index(name = "idx_product_tombstone_change_version", columnList = "change_version, product_id")
+)
+public class ProductTombstone {
+
+  @Id
+  @Column(name = "product_id")
+  protected Long productId;
+
+  @Column(name = "change_version", nullable = false)
+  protected Long changeVersion;
+
+  @Column(name = "deleted_at", nullable = false)
+  protected LocalDateTime deletedAt;
+}
@@ -1,6 +1,9 @@
 package edu.fbansept.m2i2.model;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import edu.fbansept.m2i2.annotation.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import java.util.List;
@@ -8,6 +11,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import edu.fbansept.m2i2.view.BasicView;
 import edu.fbansept.m2i2.view.RoleBasicView;
 import edu.fbansept.m2i2.view.RoleWithUsersView;
@@ -24,9 +28,10 @@ public class Role {
   public interface update {}
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @SnowflakeId
   @JsonView({BasicView.class, RoleBasicView.class})
-  protected Integer id;
+  @JsonSerialize(using = ToStringSerializer.class)
+  protected Long id;
 
   @NotBlank(groups = { add.class, update.class })
   @Column(unique = true, nullable = false)
@@ -34,6 +39,7 @@ public class Role {
   protected String name;
 
   @OneToMany(mappedBy = "role", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+  @BatchSize(size = 50)
   @JsonView(RoleWithUsersView.class)
   protected List<User> users;
 }
@@ -1,6 +1,9 @@
 package edu.fbansept.m2i2.model;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import edu.fbansept.m2i2.annotation.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.util.ArrayList;
@@ -9,6 +12,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import edu.fbansept.m2i2.view.BasicView;
 import edu.fbansept.m2i2.view.UserBasicView;
 import edu.fbansept.m2i2.view.UserSummaryView;
@@ -19,6 +23,7 @@ import edu.fbansept.m2i2.view.UserDetailView;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_user_role_id", columnList = "role_id, id"))
 public class User {
 
   public interface add {}
@@ -26,9 +31,10 @@ public class User {
   public interface update {}
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @SnowflakeId
   @JsonView({BasicView.class, UserBasicView.class})
-  protected Integer id;
+  @JsonSerialize(using = ToStringSerializer.class)
+  protected Long id;
 
   @Column(nullable = false, unique = true)
   @NotBlank(groups = { add.class, update.class })
@@ -45,15 +51,19 @@ public class User {
   @NotBlank(groups = { add.class })
   protected String password;
 
+  // Collections are initialized 50 users at a time (one IN query) instead of one query per user
   @OneToMany(mappedBy = "admin", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+  @BatchSize(size = 50)
   @JsonView(UserDetailView.class)
   protected List<Product> adminProducts = new ArrayList<>();
 
   @OneToMany(mappedBy = "seller", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+  @BatchSize(size = 50)
   @JsonView(UserDetailView.class)
   protected List<Product> sellerProducts = new ArrayList<>();
 
   @OneToMany(mappedBy = "client", fetch = FetchType.LAZY)
+  @BatchSize(size = 50)
   @JsonView(UserDetailView.class)
   protected List<Product> clientProducts = new ArrayList<>();
 
@@ -0,0 +1,42 @@
+package edu.fbansept.m2i2.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a call to ProductDao, UserDao or RoleDao (emitted by DaoEventAspect)
+ *
+ * Recorded with its stack trace, which tells which service or controller issued the call.
+ */
+@Name("edu.fbansept.m2i2.DaoCall")
+@Label("DAO Call")
+@Description("Call to a repository method")
+@Category({"M2I2", "Database"})
+public class DaoCallEvent extends Event {
+
+    @Label("Method")
+    private String method;
+
+    @Label("Outcome")
+    @Description("\"success\" or the simple name of the thrown exception")
+    private String outcome;
+
+    @Label("Rows Returned")
+    @Description("Elements of the returned list or page, 1 or 0 for a single result, -1 for other results")
+    private long rows;
+
+    /**
+     * Commits the event if a recording wants it
+     */
+    public void complete(String method, String outcome, long rows) {
+        if (shouldCommit()) {
+            this.method = method;
+            this.outcome = outcome;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package edu.fbansept.m2i2.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate session listener reporting JDBC execution time to QueryMonitor
+ *
+ * One instance per session (hibernate.session.events.auto), used by one thread at a time.
+ */
+public class JdbcTimingListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryMonitor.recordJdbcTime(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryMonitor.recordJdbcTime(System.nanoTime() - batchStart);
+    }
+}
@@ -0,0 +1,64 @@
+package edu.fbansept.m2i2.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of a call to a method annotated with @MeasureTime (emitted by MeasureTimeAspect)
+ *
+ * Created by beginIfEnabled() only while a running recording enables the event type:
+ * otherwise the aspect allocates no event at all.
+ * No stack trace: the method name identifies the call.
+ */
+@Name("edu.fbansept.m2i2.MethodExecution")
+@Label("Method Execution")
+@Description("Call to a method annotated with @MeasureTime")
+@Category({"M2I2", "Application"})
+@StackTrace(false)
+public class MethodExecutionEvent extends Event {
+
+    @Label("Method")
+    private String method;
+
+    @Label("Outcome")
+    @Description("\"success\" or the simple name of the thrown exception")
+    private String outcome;
+
+    @Label("Rows Loaded")
+    @Description("Entities loaded from JDBC results during the call, -1 when the query monitor is disabled")
+    private long rows;
+
+    // Resolved once, outside the static initializer of the event class itself
+    private static final class Type {
+        private static final EventType INSTANCE = EventType.getEventType(MethodExecutionEvent.class);
+    }
+
+    /**
+     * @return The begun event, or null (nothing allocated) when no running recording enables it
+     */
+    public static MethodExecutionEvent beginIfEnabled() {
+        if (!Type.INSTANCE.isEnabled()) {
+            return null;
+        }
+        MethodExecutionEvent event = new MethodExecutionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits the event if a recording wants it
+     */
+    public void complete(String method, String outcome, long rows) {
+        if (shouldCommit()) {
+            this.method = method;
+            this.outcome = outcome;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
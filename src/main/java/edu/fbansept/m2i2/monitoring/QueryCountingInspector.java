@@ -0,0 +1,15 @@
+package edu.fbansept.m2i2.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate StatementInspector reporting every statement to QueryMonitor (SQL unchanged)
+ */
+public class QueryCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryMonitor.recordStatement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,136 @@
+package edu.fbansept.m2i2.monitoring;
+
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-thread SQL accounting
+ *
+ * Hibernate reports every prepared statement (QueryCountingInspector), every JDBC
+ * execution time (JdbcTimingListener) and every loaded entity (RowCountingIntegrator).
+ * Each report is added to every scope open on the current thread, so a @MeasureTime method
+ * scope nested in a request scope is counted in both.
+ *
+ * Statements are grouped by shape (SQL with IN lists and numeric literals collapsed):
+ * a shape executed nPlusOneThreshold times in one scope is an N+1 suspect.
+ *
+ * Nothing is computed when no scope is open on the thread. Scopes are pooled per thread
+ * by depth, so opening one allocates nothing once the thread has warmed up.
+ * Statements run on other threads (sharded scatter-gather, async jobs) are not attributed.
+ */
+public final class QueryMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMonitor.class);
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+
+    private static final ThreadLocal<ScopeStack> SCOPES = ThreadLocal.withInitial(ScopeStack::new);
+
+    private static volatile boolean enabled;
+    private static volatile int nPlusOneThreshold = 5;
+
+    private QueryMonitor() {}
+
+    /**
+     * Applies the m2i2.query-monitor.* settings (see QueryMonitorConfig)
+     */
+    public static void configure(boolean enabled, int nPlusOneThreshold) {
+        QueryMonitor.enabled = enabled;
+        QueryMonitor.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens a scope on the current thread, to close with try-with-resources
+     * @param name The scope name (request path, method ...)
+     * @return The open scope
+     */
+    public static QueryScope open(String name) {
+        return SCOPES.get().push(name);
+    }
+
+    /**
+     * Logs every statement shape of a scope repeated enough to look like an N+1
+     * @param scope A closed scope
+     */
+    public static void logNPlusOneSuspects(QueryScope scope) {
+        for (String shape : scope.getNPlusOneSuspects()) {
+            logger.warn("🔁 N+1 suspect in {}: {} x {}", scope.getName(), scope.countOf(shape), shape);
+        }
+    }
+
+    /**
+     * Collapses the parts of a statement that change between executions of the same code path
+     * @param sql The SQL sent to JDBC
+     * @return The statement shape
+     */
+    public static String shape(String sql) {
+        return NUMBER.matcher(IN_LIST.matcher(sql).replaceAll("(?...)")).replaceAll("?");
+    }
+
+    static void recordStatement(String sql) {
+        ScopeStack stack = SCOPES.get();
+        if (stack.depth == 0) {
+            return;
+        }
+        String shape = shape(sql);
+        int threshold = nPlusOneThreshold;
+        for (int i = 0; i < stack.depth; i++) {
+            stack.scopes[i].recordStatement(sql, shape, threshold);
+        }
+    }
+
+    static void recordRow() {
+        ScopeStack stack = SCOPES.get();
+        for (int i = 0; i < stack.depth; i++) {
+            stack.scopes[i].recordRow();
+        }
+    }
+
+    static void recordJdbcTime(long nanos) {
+        ScopeStack stack = SCOPES.get();
+        for (int i = 0; i < stack.depth; i++) {
+            stack.scopes[i].recordJdbcTime(nanos);
+        }
+    }
+
+    /**
+     * Open scopes of one thread, outermost first
+     */
+    static final class ScopeStack {
+
+        private QueryScope[] scopes = new QueryScope[4];
+        private int depth;
+
+        QueryScope push(String name) {
+            if (depth == scopes.length) {
+                QueryScope[] grown = new QueryScope[depth * 2];
+                System.arraycopy(scopes, 0, grown, 0, depth);
+                scopes = grown;
+            }
+            QueryScope scope = scopes[depth];
+            if (scope == null) {
+                scope = new QueryScope(this);
+                scopes[depth] = scope;
+            }
+            scope.reset(name, depth == 0);
+            depth++;
+            return scope;
+        }
+
+        void pop(QueryScope scope) {
+            // Also closes inner scopes left open by an exception
+            for (int i = depth - 1; i >= 0; i--) {
+                if (scopes[i] == scope) {
+                    depth = i;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package edu.fbansept.m2i2.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Opens a QueryMonitor scope around every HTTP request
+ *
+ * N+1 suspects are logged at WARN with the request. With m2i2.query-monitor.debug-header=true,
+ * the counts are returned in the X-Query-Stats header: the body is buffered so that statements
+ * issued while serializing (lazy loading) are counted too. Event streams are never buffered
+ * and get no header.
+ */
+@Component
+@ConditionalOnProperty(name = "m2i2.query-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMonitorFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Stats";
+
+    private final boolean debugHeader;
+
+    public QueryMonitorFilter(@Value("${m2i2.query-monitor.debug-header:false}") boolean debugHeader) {
+        this.debugHeader = debugHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        ContentCachingResponseWrapper buffered = debugHeader && !isEventStream(request)
+            ? new ContentCachingResponseWrapper(response)
+            : null;
+
+        QueryScope scope = QueryMonitor.open(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            scope.close();
+
+            if (scope.isRoot()) {
+                QueryMonitor.logNPlusOneSuspects(scope);
+            }
+            if (buffered != null) {
+                buffered.setHeader(HEADER, scope.summary());
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+}
@@ -0,0 +1,133 @@
+package edu.fbansept.m2i2.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL activity of one scope (HTTP request, @MeasureTime method, query budget)
+ *
+ * Opened with {@link QueryMonitor#open(String)} and closed with {@link #close()} on the same thread.
+ * Scopes are reused by their thread, so their values must be read right after close.
+ */
+public final class QueryScope implements AutoCloseable {
+
+    private final QueryMonitor.ScopeStack stack;
+
+    private String name;
+    private boolean root;
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+    private boolean keepStatements;
+
+    // Statement count per shape, and shapes repeated at least nPlusOneThreshold times
+    private final Map<String, Integer> shapeCounts = new HashMap<>();
+    private final List<String> nPlusOneSuspects = new ArrayList<>();
+    private final List<String> executedStatements = new ArrayList<>();
+
+    QueryScope(QueryMonitor.ScopeStack stack) {
+        this.stack = stack;
+    }
+
+    void reset(String name, boolean root) {
+        this.name = name;
+        this.root = root;
+        this.statements = 0;
+        this.rows = 0;
+        this.jdbcNanos = 0;
+        this.keepStatements = false;
+        shapeCounts.clear();
+        nPlusOneSuspects.clear();
+        executedStatements.clear();
+    }
+
+    void recordStatement(String sql, String shape, int nPlusOneThreshold) {
+        statements++;
+        if (keepStatements) {
+            executedStatements.add(sql);
+        }
+        int count = shapeCounts.merge(shape, 1, Integer::sum);
+        if (count == nPlusOneThreshold) {
+            nPlusOneSuspects.add(shape);
+        }
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    void recordJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    /**
+     * Keeps the SQL of every statement (for assertion messages)
+     * @return this scope
+     */
+    public QueryScope keepStatements() {
+        this.keepStatements = true;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * True when no other scope was open on the thread (the outermost scope reports N+1 suspects)
+     */
+    public boolean isRoot() {
+        return root;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Entities loaded from JDBC results (projection rows are not counted)
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public List<String> getNPlusOneSuspects() {
+        return Collections.unmodifiableList(nPlusOneSuspects);
+    }
+
+    /**
+     * Number of executions of a statement shape in this scope
+     */
+    public int countOf(String shape) {
+        return shapeCounts.getOrDefault(shape, 0);
+    }
+
+    /**
+     * SQL of every statement, only filled after {@link #keepStatements()}
+     */
+    public List<String> getExecutedStatements() {
+        return Collections.unmodifiableList(executedStatements);
+    }
+
+    /**
+     * "statements=12, rows=40, jdbcMs=3.21, nPlusOneSuspects=1"
+     */
+    public String summary() {
+        return "statements=" + statements +
+            ", rows=" + rows +
+            ", jdbcMs=" + Math.round(jdbcNanos / 10_000.0) / 100.0 +
+            ", nPlusOneSuspects=" + nPlusOneSuspects.size();
+    }
+
+    @Override
+    public void close() {
+        stack.pop(this);
+    }
+}
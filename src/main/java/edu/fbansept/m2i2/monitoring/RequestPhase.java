@@ -0,0 +1,40 @@
+package edu.fbansept.m2i2.monitoring;
+
+/**
+ * Phases of an HTTP request measured by RequestPhases
+ */
+public enum RequestPhase {
+
+    /** Request body read by the Jackson converter */
+    DESERIALIZATION("deser"),
+    /** From the end of the body read (or the handler lookup) to the controller call: argument binding and bean validation */
+    VALIDATION("valid"),
+    /** Controller call, DAO calls excluded */
+    CONTROLLER("ctrl"),
+    /** DAO calls (repository proxies), wherever they happen in the request */
+    SQL("sql"),
+    /** Response body written by the converter (JsonView applied), lazy loading included */
+    SERIALIZATION("ser"),
+    /** Whole request, as seen by RequestPhaseFilter */
+    TOTAL("total");
+
+    private final String serverTimingName;
+
+    RequestPhase(String serverTimingName) {
+        this.serverTimingName = serverTimingName;
+    }
+
+    /**
+     * Metric name in the Server-Timing header
+     */
+    public String getServerTimingName() {
+        return serverTimingName;
+    }
+
+    /**
+     * Value of the "phase" tag of the timers
+     */
+    public String getTag() {
+        return name().toLowerCase();
+    }
+}
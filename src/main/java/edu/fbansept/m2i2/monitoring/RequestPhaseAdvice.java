@@ -0,0 +1,83 @@
+package edu.fbansept.m2i2.monitoring;
+
+import java.lang.reflect.Type;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the request body read and the response body write in the RequestPhases timeline
+ *
+ * Sets the Server-Timing header when it is sent before the body (see RequestPhaseFilter).
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "m2i2.request-phases.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestPhaseAdvice extends RequestBodyAdviceAdapter implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(
+            MethodParameter methodParameter,
+            Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(
+            HttpInputMessage inputMessage,
+            MethodParameter parameter,
+            Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestPhases.bodyReadStarted();
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(
+            Object body,
+            HttpInputMessage inputMessage,
+            MethodParameter parameter,
+            Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestPhases.bodyReadEnded();
+        return body;
+    }
+
+    @Override
+    public Object handleEmptyBody(
+            Object body,
+            HttpInputMessage inputMessage,
+            MethodParameter parameter,
+            Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestPhases.bodyReadEnded();
+        return body;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestTimeline timeline = RequestPhases.bodyWriteStarted();
+        if (timeline != null && timeline.isEarlyServerTiming()) {
+            response.getHeaders().set(RequestPhaseFilter.HEADER, timeline.serverTiming());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,144 @@
+package edu.fbansept.m2i2.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Starts the RequestPhases timeline of every HTTP request and records its phases
+ *
+ * Each phase goes to the timer "m2i2.request.phase", tagged by endpoint ("GET /api/products/{id}")
+ * and phase, with p50/p90/p99 and a percentile histogram. Heap bytes allocated by the request thread
+ * go to the summary "m2i2.request.allocation" (tag endpoint), unless m2i2.allocation.enabled=false.
+ *
+ * With m2i2.request-phases.server-timing=true, the phases are returned in the Server-Timing header.
+ * The header is normally set just before the body is written, so it cannot hold the serialization
+ * and total durations: m2i2.request-phases.buffer-response=true buffers the body to send them too.
+ * Event streams are never buffered.
+ */
+@Component
+@ConditionalOnProperty(name = "m2i2.request-phases.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestPhaseFilter extends OncePerRequestFilter {
+
+    public static final String TIMER_NAME = "m2i2.request.phase";
+    public static final String ALLOCATION_NAME = "m2i2.request.allocation";
+    public static final String HEADER = "Server-Timing";
+
+    private static final String UNKNOWN_ENDPOINT = "UNKNOWN";
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+
+    private final MeterRegistry meterRegistry;
+    private final boolean serverTiming;
+    private final boolean bufferResponse;
+
+    // Timers of every phase and allocation summary, per endpoint
+    private final Map<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+
+    public RequestPhaseFilter(
+            MeterRegistry meterRegistry,
+            @Value("${m2i2.request-phases.server-timing:true}") boolean serverTiming,
+            @Value("${m2i2.request-phases.buffer-response:false}") boolean bufferResponse) {
+        this.meterRegistry = meterRegistry;
+        this.serverTiming = serverTiming;
+        this.bufferResponse = bufferResponse;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        ContentCachingResponseWrapper buffered = serverTiming && bufferResponse && !isEventStream(request)
+            ? new ContentCachingResponseWrapper(response)
+            : null;
+
+        long allocatedBefore = AllocationMeter.allocatedBytes();
+        RequestTimeline timeline = RequestPhases.start(serverTiming && buffered == null);
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            timeline.finish();
+            record(request, timeline, AllocationMeter.allocatedSince(allocatedBefore));
+
+            if (buffered != null) {
+                buffered.setHeader(HEADER, timeline.serverTiming());
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestTimeline timeline, long allocatedBytes) {
+        EndpointMeters endpointMeters = meters.computeIfAbsent(endpoint(request), this::meters);
+        for (RequestPhase phase : PHASES) {
+            long duration = timeline.durationOf(phase);
+            if (duration >= 0) {
+                endpointMeters.phases[phase.ordinal()].record(duration, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (allocatedBytes >= 0) {
+            endpointMeters.allocation.record(allocatedBytes);
+        }
+    }
+
+    private EndpointMeters meters(String endpoint) {
+        Timer[] phases = new Timer[PHASES.length];
+        for (RequestPhase phase : PHASES) {
+            phases[phase.ordinal()] = Timer.builder(TIMER_NAME)
+                .description("Duration of one phase of the HTTP requests of an endpoint")
+                .tag("endpoint", endpoint)
+                .tag("phase", phase.getTag())
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+        DistributionSummary allocation = DistributionSummary.builder(ALLOCATION_NAME)
+            .description("Heap bytes allocated by the request thread for the HTTP requests of an endpoint")
+            .baseUnit(BaseUnits.BYTES)
+            .tag("endpoint", endpoint)
+            .publishPercentiles(0.5, 0.9, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        return new EndpointMeters(phases, allocation);
+    }
+
+    /**
+     * Method and mapping pattern (not the URI: its IDs would create a timer per product)
+     */
+    private String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : UNKNOWN_ENDPOINT);
+    }
+
+    private boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private static final class EndpointMeters {
+        private final Timer[] phases;
+        private final DistributionSummary allocation;
+
+        private EndpointMeters(Timer[] phases, DistributionSummary allocation) {
+            this.phases = phases;
+            this.allocation = allocation;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package edu.fbansept.m2i2.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Marks the handler start and, for @ResponseBody / ResponseEntity handlers, the end of the body write
+ * (postHandle runs once the converter has written the response)
+ */
+public class RequestPhaseInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestPhases.handlerStarted();
+        return true;
+    }
+
+    @Override
+    public void postHandle(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            ModelAndView modelAndView) {
+        RequestPhases.bodyWriteEnded();
+    }
+}
@@ -0,0 +1,107 @@
+package edu.fbansept.m2i2.monitoring;
+
+/**
+ * Per-thread timeline of the HTTP request being served
+ *
+ * RequestPhaseFilter starts and finishes the timeline; the other hooks mark phase boundaries:
+ * - RequestPhaseInterceptor: handler found (preHandle), response written (postHandle)
+ * - RequestPhaseAdvice: body read start/end, body write start
+ * - RequestPhaseAspect: controller call, DAO calls (nested calls counted once)
+ *
+ * Hooks called on a thread without a started timeline (async jobs, scatter-gather workers,
+ * error dispatches) do nothing. Timelines are reused per thread: nothing is allocated per request.
+ */
+public final class RequestPhases {
+
+    private static final ThreadLocal<RequestTimeline> TIMELINES = ThreadLocal.withInitial(RequestTimeline::new);
+
+    private RequestPhases() {}
+
+    /**
+     * Starts the timeline of the current thread
+     * @param earlyServerTiming Whether RequestPhaseAdvice sets the Server-Timing header before the body is written
+     * @return The timeline, to finish once the request is served
+     */
+    public static RequestTimeline start(boolean earlyServerTiming) {
+        RequestTimeline timeline = TIMELINES.get();
+        timeline.reset(earlyServerTiming);
+        return timeline;
+    }
+
+    /**
+     * @return The timeline of the request served by the current thread, null if none
+     */
+    public static RequestTimeline current() {
+        RequestTimeline timeline = TIMELINES.get();
+        return timeline.active ? timeline : null;
+    }
+
+    public static void handlerStarted() {
+        RequestTimeline timeline = current();
+        if (timeline != null) {
+            timeline.handlerStart = System.nanoTime();
+        }
+    }
+
+    public static void bodyReadStarted() {
+        RequestTimeline timeline = current();
+        if (timeline != null) {
+            timeline.bodyReadStart = System.nanoTime();
+        }
+    }
+
+    public static void bodyReadEnded() {
+        RequestTimeline timeline = current();
+        if (timeline != null && timeline.bodyReadStart != 0) {
+            timeline.bodyReadEnd = System.nanoTime();
+        }
+    }
+
+    public static void controllerEntered() {
+        RequestTimeline timeline = current();
+        if (timeline != null && timeline.controllerDepth++ == 0) {
+            timeline.controllerStart = System.nanoTime();
+            timeline.sqlNanosAtControllerStart = timeline.sqlNanos;
+        }
+    }
+
+    public static void controllerExited() {
+        RequestTimeline timeline = current();
+        if (timeline != null && --timeline.controllerDepth == 0) {
+            timeline.controllerEnd = System.nanoTime();
+            timeline.controllerSqlNanos = timeline.sqlNanos - timeline.sqlNanosAtControllerStart;
+        }
+    }
+
+    public static void daoEntered() {
+        RequestTimeline timeline = current();
+        if (timeline != null && timeline.daoDepth++ == 0) {
+            timeline.daoStart = System.nanoTime();
+        }
+    }
+
+    public static void daoExited() {
+        RequestTimeline timeline = current();
+        if (timeline != null && --timeline.daoDepth == 0) {
+            timeline.sqlNanos += System.nanoTime() - timeline.daoStart;
+        }
+    }
+
+    /**
+     * @return The timeline of the current request, null if none
+     */
+    public static RequestTimeline bodyWriteStarted() {
+        RequestTimeline timeline = current();
+        if (timeline != null) {
+            timeline.bodyWriteStart = System.nanoTime();
+        }
+        return timeline;
+    }
+
+    public static void bodyWriteEnded() {
+        RequestTimeline timeline = current();
+        if (timeline != null && timeline.bodyWriteStart != 0 && timeline.bodyWriteEnd == 0) {
+            timeline.bodyWriteEnd = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package edu.fbansept.m2i2.monitoring;
+
+/**
+ * Timestamps (System.nanoTime) of one HTTP request, filled by RequestPhases
+ *
+ * Reused by its thread, so its values must be read before the thread serves another request.
+ */
+public final class RequestTimeline {
+
+    private static final int MAX_HEADER_LENGTH = 128;
+
+    boolean active;
+    boolean earlyServerTiming;
+
+    long start;
+    long end;
+    long handlerStart;
+    long bodyReadStart;
+    long bodyReadEnd;
+    long controllerStart;
+    long controllerEnd;
+    long bodyWriteStart;
+    long bodyWriteEnd;
+
+    int controllerDepth;
+    int daoDepth;
+    long daoStart;
+    long sqlNanos;
+    long sqlNanosAtControllerStart;
+    long controllerSqlNanos;
+
+    void reset(boolean earlyServerTiming) {
+        this.active = true;
+        this.earlyServerTiming = earlyServerTiming;
+        this.start = System.nanoTime();
+        this.end = 0;
+        this.handlerStart = 0;
+        this.bodyReadStart = 0;
+        this.bodyReadEnd = 0;
+        this.controllerStart = 0;
+        this.controllerEnd = 0;
+        this.bodyWriteStart = 0;
+        this.bodyWriteEnd = 0;
+        this.controllerDepth = 0;
+        this.daoDepth = 0;
+        this.daoStart = 0;
+        this.sqlNanos = 0;
+        this.sqlNanosAtControllerStart = 0;
+        this.controllerSqlNanos = 0;
+    }
+
+    /**
+     * Ends the request: later hooks on this thread are ignored
+     */
+    public void finish() {
+        end = System.nanoTime();
+        active = false;
+        // Exception thrown while writing: postHandle is not called
+        if (bodyWriteStart != 0 && bodyWriteEnd == 0) {
+            bodyWriteEnd = end;
+        }
+    }
+
+    /**
+     * True when the Server-Timing header is sent before the body (without serialization and total)
+     */
+    public boolean isEarlyServerTiming() {
+        return earlyServerTiming;
+    }
+
+    /**
+     * Duration of a phase in nanoseconds, -1 when the request did not go through it (yet)
+     */
+    public long durationOf(RequestPhase phase) {
+        switch (phase) {
+            case DESERIALIZATION:
+                return bodyReadEnd != 0 ? bodyReadEnd - bodyReadStart : -1;
+            case VALIDATION: {
+                long from = Math.max(bodyReadEnd, handlerStart);
+                long to = controllerStart != 0 ? controllerStart : bodyWriteStart != 0 ? bodyWriteStart : end;
+                return from != 0 && to >= from ? to - from : -1;
+            }
+            case CONTROLLER:
+                return controllerEnd != 0 ? controllerEnd - controllerStart - controllerSqlNanos : -1;
+            case SQL:
+                return daoStart != 0 ? sqlNanos : -1;
+            case SERIALIZATION:
+                return bodyWriteEnd != 0 ? bodyWriteEnd - bodyWriteStart : -1;
+            case TOTAL:
+                return end != 0 ? end - start : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Value of the Server-Timing header, e.g. "deser;dur=0.081, valid;dur=0.032, ctrl;dur=0.415, sql;dur=2.907"
+     */
+    public String serverTiming() {
+        StringBuilder header = new StringBuilder(MAX_HEADER_LENGTH);
+        for (RequestPhase phase : RequestPhase.values()) {
+            long duration = durationOf(phase);
+            if (duration < 0) {
+                continue;
+            }
+            if (header.length() > 0) {
+                header.append(", ");
+            }
+            header.append(phase.getServerTimingName()).append(";dur=").append(Math.round(duration / 1_000.0) / 1_000.0);
+        }
+        return header.toString();
+    }
+}
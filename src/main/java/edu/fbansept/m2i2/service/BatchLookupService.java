@@ -0,0 +1,76 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.dto.BatchResultDTO;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service resolving multi-get requests (GET ?ids=1,2,3 / POST /by-ids)
+ *
+ * The entities are loaded with a single IN query, then returned in the requested order,
+ * with the IDs that matched nothing reported separately
+ */
+@Service
+public class BatchLookupService {
+
+  // Maximum number of IDs per multi-get request
+  public static final int MAX_IDS = 1000;
+
+  /**
+   * Checks the requested IDs
+   * @param ids The requested IDs
+   * @return The error message, or null if the request is valid
+   */
+  public String validate(List<Long> ids) {
+    if (ids == null || ids.isEmpty()) {
+      return "At least one ID is required";
+    }
+    if (ids.size() > MAX_IDS) {
+      return "At most " + MAX_IDS + " IDs can be requested at once";
+    }
+    if (ids.contains(null)) {
+      return "IDs cannot be null";
+    }
+    return null;
+  }
+
+  /**
+   * Loads entities by IDs in one query and orders them like the request
+   * @param ids The requested IDs (duplicates are returned once)
+   * @param loader Loads the entities of a list of IDs (single IN query)
+   * @param idGetter Extracts the ID of an entity
+   * @param mapper Converts an entity to the returned item
+   * @return Items in requested order and missing IDs
+   */
+  public <E, T> BatchResultDTO<T> findAllInOrder(
+    List<Long> ids,
+    Function<List<Long>, List<E>> loader,
+    Function<E, Long> idGetter,
+    Function<E, T> mapper
+  ) {
+    List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+
+    Map<Long, E> byId = new HashMap<>();
+    for (E entity : loader.apply(distinctIds)) {
+      byId.put(idGetter.apply(entity), entity);
+    }
+
+    List<T> items = new ArrayList<>(byId.size());
+    List<Long> missing = new ArrayList<>();
+    for (Long id : distinctIds) {
+      E entity = byId.get(id);
+      if (entity == null) {
+        missing.add(id);
+      } else {
+        items.add(mapper.apply(entity));
+      }
+    }
+
+    return new BatchResultDTO<>(items, missing);
+  }
+}
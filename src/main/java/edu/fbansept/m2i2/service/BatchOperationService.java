@@ -0,0 +1,298 @@
+package edu.fbansept.m2i2.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.fbansept.m2i2.dto.BatchOperationsRequestDTO;
+import edu.fbansept.m2i2.dto.BatchOperationsResponseDTO;
+import edu.fbansept.m2i2.dto.ProductDetailDTO;
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.model.Role;
+import edu.fbansept.m2i2.model.User;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service executing a list of write operations in one transaction
+ *
+ * Each operation calls the same service method as its HTTP endpoint (ProductService,
+ * UserService, RoleService), so business rules (role checks, merge patch constraints ...)
+ * are shared without going through the controllers and their web aspects. Request bodies
+ * are validated with the same groups the endpoints declare (@Validated(add/update)).
+ * All writes share one transaction and one persistence context: statements are sent in
+ * JDBC batches (hibernate.jdbc.batch_size) and committed once. The first failing operation
+ * rolls everything back; change feed events are only published after commit.
+ */
+@Service
+public class BatchOperationService {
+
+  // Maximum number of operations per batch
+  public static final int MAX_OPERATIONS = 500;
+
+  private static final Pattern REFERENCE = Pattern.compile("\\$\\{(\\d+)\\.id}");
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private RoleService roleService;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private Validator validator;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  /**
+   * Checks the size of a batch
+   * @param request The batch
+   * @return The error message, or null if the batch can be executed
+   */
+  public String validate(BatchOperationsRequestDTO request) {
+    if (request == null || request.getOperations() == null || request.getOperations().isEmpty()) {
+      return "At least one operation is required";
+    }
+    if (request.getOperations().size() > MAX_OPERATIONS) {
+      return "At most " + MAX_OPERATIONS + " operations can be executed at once";
+    }
+    return null;
+  }
+
+  /**
+   * Executes every operation in order, in one transaction
+   * @param request The batch
+   * @return Per-operation results; committed is false if an operation failed
+   */
+  public BatchOperationsResponseDTO execute(BatchOperationsRequestDTO request) {
+    List<BatchOperationsRequestDTO.OperationDTO> operations = request.getOperations();
+    List<BatchOperationsResponseDTO.OperationResultDTO> results = new ArrayList<>(operations.size());
+    for (int i = 0; i < operations.size(); i++) {
+      results.add(new BatchOperationsResponseDTO.OperationResultDTO(i, operations.get(i).getOp(), null, null, null));
+    }
+
+    boolean committed;
+    String error = null;
+    try {
+      committed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+        for (int i = 0; i < operations.size(); i++) {
+          BatchOperationsResponseDTO.OperationResultDTO result = results.get(i);
+          if (!run(operations.get(i), result, results)) {
+            status.setRollbackOnly();
+            return false;
+          }
+        }
+        return true;
+      }));
+    } catch (DataAccessException | TransactionException e) {
+      // Constraint violated when the batched statements were flushed at commit
+      error = "Rolled back at commit: " + e.getMostSpecificCause().getMessage();
+      committed = false;
+    }
+
+    return new BatchOperationsResponseDTO(committed, results, error);
+  }
+
+  /**
+   * Runs one operation and fills its result
+   * @return true if the operation succeeded (2xx)
+   */
+  private boolean run(
+    BatchOperationsRequestDTO.OperationDTO operation,
+    BatchOperationsResponseDTO.OperationResultDTO result,
+    List<BatchOperationsResponseDTO.OperationResultDTO> results
+  ) {
+    OperationResult response;
+    Map<String, Object> params;
+    try {
+      params = resolve(operation.getParams(), results, result.getIndex());
+      Map<String, Object> body = resolve(operation.getBody(), results, result.getIndex());
+      response = dispatch(operation.getOp() != null ? operation.getOp() : "", params, body);
+    } catch (OperationRejectedException e) {
+      result.setStatus(e.status.value());
+      result.setError(e.getMessage());
+      return false;
+    } catch (DataAccessException e) {
+      result.setStatus(HttpStatus.CONFLICT.value());
+      result.setError(e.getMostSpecificCause().getMessage());
+      return false;
+    } catch (PersistenceException e) {
+      result.setStatus(HttpStatus.CONFLICT.value());
+      result.setError(e.getMessage());
+      return false;
+    }
+
+    result.setStatus(response.getStatus().value());
+    if (!response.isSuccessful()) {
+      result.setError(response.getBody() instanceof String message ? message : null);
+      return false;
+    }
+
+    result.setId(idOf(response.getBody(), params != null ? params.get("id") : null));
+    return true;
+  }
+
+  private OperationResult dispatch(String op, Map<String, Object> params, Map<String, Object> body) {
+    return switch (op) {
+      case "product.create" -> productService.add(
+        entity(body, Product.class, Product.add.class),
+        integer(params, "adminId", true),
+        integer(params, "sellerId", true),
+        integer(params, "clientId", false)
+      );
+      case "product.update" -> productService.update(
+        integer(params, "id", true),
+        entity(body, Product.class, Product.update.class),
+        integer(params, "adminId", false),
+        integer(params, "sellerId", false),
+        integer(params, "clientId", false)
+      );
+      case "product.patch" -> productService.patch(integer(params, "id", true), body);
+      case "product.delete" -> productService.delete(integer(params, "id", true));
+      case "product.assign-client" -> productService.assignClient(
+        integer(params, "id", true),
+        integer(params, "clientId", true)
+      );
+      case "product.remove-client" -> productService.removeClient(integer(params, "id", true));
+      case "user.create" -> userService.add(
+        entity(body, User.class, User.add.class),
+        integer(params, "roleId", false)
+      );
+      case "user.update" -> userService.update(
+        integer(params, "id", true),
+        entity(body, User.class, User.update.class),
+        integer(params, "roleId", false)
+      );
+      case "user.patch" -> userService.patch(integer(params, "id", true), body);
+      case "user.delete" -> userService.delete(integer(params, "id", true));
+      case "role.create" -> roleService.add(entity(body, Role.class, Role.add.class));
+      case "role.update" -> roleService.update(
+        integer(params, "id", true),
+        entity(body, Role.class, Role.update.class)
+      );
+      case "role.delete" -> roleService.delete(integer(params, "id", true));
+      default -> throw new OperationRejectedException(HttpStatus.BAD_REQUEST, "Unknown operation '" + op + "'");
+    };
+  }
+
+  /**
+   * Converts a body to the operation's entity and applies the validation group of the endpoint
+   */
+  private <T> T entity(Map<String, Object> body, Class<T> type, Class<?> group) {
+    if (body == null) {
+      throw new OperationRejectedException(HttpStatus.BAD_REQUEST, "Body is required");
+    }
+
+    T entity;
+    try {
+      entity = objectMapper.convertValue(body, type);
+    } catch (IllegalArgumentException e) {
+      throw new OperationRejectedException(HttpStatus.BAD_REQUEST, "Invalid body");
+    }
+
+    Set<ConstraintViolation<T>> violations = validator.validate(entity, group);
+    if (!violations.isEmpty()) {
+      ConstraintViolation<T> violation = violations.iterator().next();
+      throw new OperationRejectedException(
+        HttpStatus.BAD_REQUEST,
+        violation.getPropertyPath() + ": " + violation.getMessage()
+      );
+    }
+    return entity;
+  }
+
+  private Long integer(Map<String, Object> params, String name, boolean required) {
+    Object value = params != null ? params.get(name) : null;
+    if (value == null) {
+      if (required) {
+        throw new OperationRejectedException(HttpStatus.BAD_REQUEST, "Parameter '" + name + "' is required");
+      }
+      return null;
+    }
+
+    try {
+      return objectMapper.convertValue(value, Long.class);
+    } catch (IllegalArgumentException e) {
+      throw new OperationRejectedException(HttpStatus.BAD_REQUEST, "Parameter '" + name + "' must be an integer");
+    }
+  }
+
+  /**
+   * Replaces "${n.id}" values (at any depth) by the ID produced by operation n
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T resolve(T value, List<BatchOperationsResponseDTO.OperationResultDTO> results, int index) {
+    if (value instanceof String text) {
+      Matcher matcher = REFERENCE.matcher(text);
+      if (!matcher.matches()) {
+        return value;
+      }
+      int referenced = Integer.parseInt(matcher.group(1));
+      if (referenced >= index || results.get(referenced).getId() == null) {
+        throw new OperationRejectedException(
+          HttpStatus.BAD_REQUEST,
+          "Reference " + text + " does not point to an earlier operation with an ID"
+        );
+      }
+      return (T) results.get(referenced).getId();
+    }
+    if (value instanceof Map<?, ?> map) {
+      Map<String, Object> resolved = new LinkedHashMap<>();
+      map.forEach((key, item) -> resolved.put((String) key, resolve(item, results, index)));
+      return (T) resolved;
+    }
+    if (value instanceof List<?> list) {
+      List<Object> resolved = new ArrayList<>(list.size());
+      list.forEach(item -> resolved.add(resolve(item, results, index)));
+      return (T) resolved;
+    }
+    return value;
+  }
+
+  private Long idOf(Object body, Object idParam) {
+    if (body instanceof ProductDetailDTO product) {
+      return product.getId();
+    }
+    if (body instanceof User user) {
+      return user.getId();
+    }
+    if (body instanceof Role role) {
+      return role.getId();
+    }
+    // IDs are serialized as strings: clients send them back as strings or numbers
+    if (idParam instanceof String id && !id.isBlank()) {
+      return Long.valueOf(id.trim());
+    }
+    return idParam instanceof Number id ? id.longValue() : null;
+  }
+
+  /**
+   * Operation refused before reaching its service (bad parameters, invalid body ...)
+   */
+  private static class OperationRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    OperationRejectedException(HttpStatus status, String message) {
+      super(message);
+      this.status = status;
+    }
+  }
+}
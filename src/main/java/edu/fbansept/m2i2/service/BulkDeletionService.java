@@ -0,0 +1,235 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.config.ShardContext;
+import edu.fbansept.m2i2.dto.BulkDeletionJobDTO;
+import edu.fbansept.m2i2.dto.ProductChangeEvent;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service deleting users and roles with all their dependent rows in the background
+ *
+ * The JPA cascades (Role -> users -> admin/seller products) load every dependent
+ * entity and delete it row by row in one transaction. Here the same cascade runs as
+ * set-based statements on bounded chunks of IDs, each chunk in its own short transaction:
+ * 1. products bought by the users are detached (client_id = NULL)
+ * 2. products administrated or sold by the users are deleted (tombstones recorded)
+ * 3. the users are deleted, then the role for a role deletion
+ *
+ * Every chunk keeps the delta sync (change versions, tombstones) and the SSE feed consistent.
+ * A failed job leaves the already committed chunks deleted and can simply be submitted again.
+ *
+ * With sharding, the whole cascade runs on each shard in turn: every shard deletes its own
+ * products and its copy of the users and role.
+ */
+@Service
+public class BulkDeletionService {
+
+  private static final Logger logger = LoggerFactory.getLogger(BulkDeletionService.class);
+
+  // Finished jobs kept for status queries
+  private static final int MAX_FINISHED_JOBS = 100;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ChangeVersionService changeVersionService;
+  private final ProductChangeFeedService changeFeedService;
+  private final ShardingService shardingService;
+  private final int chunkSize;
+
+  private final Map<String, BulkDeletionJobDTO> jobs = new ConcurrentHashMap<>();
+
+  // One job at a time: jobs queue instead of competing for the same locks
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "bulk-deletion");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public BulkDeletionService(
+    NamedParameterJdbcTemplate jdbcTemplate,
+    TransactionTemplate transactionTemplate,
+    ChangeVersionService changeVersionService,
+    ProductChangeFeedService changeFeedService,
+    ObjectProvider<ShardingService> shardingService,
+    @Value("${m2i2.bulk-delete.chunk-size:1000}") int chunkSize
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.changeVersionService = changeVersionService;
+    this.changeFeedService = changeFeedService;
+    this.shardingService = shardingService.getIfAvailable();
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Queues the deletion of a user, its administrated and sold products
+   * @param userId The user ID
+   * @return The submitted job
+   */
+  public BulkDeletionJobDTO deleteUser(long userId) {
+    return submit("user", userId, job -> deleteUsers(job, List.of(userId)));
+  }
+
+  /**
+   * Queues the deletion of a role, its users and their administrated and sold products
+   * @param roleId The role ID
+   * @return The submitted job
+   */
+  public BulkDeletionJobDTO deleteRole(long roleId) {
+    return submit("role", roleId, job -> {
+      MapSqlParameterSource params = new MapSqlParameterSource("roleId", roleId).addValue("limit", chunkSize);
+      List<Long> userIds;
+      while (!(userIds = jdbcTemplate.queryForList(
+        "SELECT id FROM user WHERE role_id = :roleId ORDER BY id LIMIT :limit",
+        params,
+        Long.class
+      )).isEmpty()) {
+        deleteUsers(job, userIds);
+      }
+
+      transactionTemplate.executeWithoutResult(status ->
+        jdbcTemplate.update("DELETE FROM role WHERE id = :roleId", params)
+      );
+    });
+  }
+
+  /**
+   * Returns the progress of a job
+   * @param jobId The job ID
+   * @return The job, or empty if unknown (or expired)
+   */
+  public Optional<BulkDeletionJobDTO> getJob(String jobId) {
+    return Optional.ofNullable(jobs.get(jobId));
+  }
+
+  private BulkDeletionJobDTO submit(String target, long targetId, JobBody body) {
+    BulkDeletionJobDTO job = new BulkDeletionJobDTO(UUID.randomUUID().toString(), target, targetId);
+    evictFinishedJobs();
+    jobs.put(job.getId(), job);
+
+    executor.execute(() -> {
+      job.setStatus(BulkDeletionJobDTO.Status.RUNNING);
+      try {
+        runOnEveryShard(job, body);
+        job.setStatus(BulkDeletionJobDTO.Status.COMPLETED);
+      } catch (RuntimeException e) {
+        logger.error("Bulk deletion of {} {} failed after {} chunks", target, targetId, job.getChunks(), e);
+        job.setError(e.getMessage());
+        job.setStatus(BulkDeletionJobDTO.Status.FAILED);
+      } finally {
+        job.setFinishedAt(LocalDateTime.now());
+      }
+    });
+
+    return job;
+  }
+
+  /**
+   * Runs the job body on each shard in turn (once without sharding)
+   * Binding the worker thread makes every transaction of the body use that shard's connections
+   */
+  private void runOnEveryShard(BulkDeletionJobDTO job, JobBody body) {
+    if (shardingService == null) {
+      body.run(job);
+      return;
+    }
+    for (int shard = 0; shard < shardingService.getShardCount(); shard++) {
+      ShardContext.bind(shard);
+      try {
+        body.run(job);
+      } finally {
+        ShardContext.clear();
+      }
+    }
+  }
+
+  /**
+   * Deletes a bounded set of users with their dependent products, chunk by chunk
+   */
+  private void deleteUsers(BulkDeletionJobDTO job, List<Long> userIds) {
+    MapSqlParameterSource params = new MapSqlParameterSource("userIds", userIds).addValue("limit", chunkSize);
+
+    // 1. Products bought by the users lose their client
+    List<Long> productIds;
+    while (!(productIds = jdbcTemplate.queryForList(
+      "SELECT id FROM product WHERE client_id IN (:userIds) ORDER BY id LIMIT :limit",
+      params,
+      Long.class
+    )).isEmpty()) {
+      List<Long> chunk = productIds;
+      transactionTemplate.executeWithoutResult(status ->
+        jdbcTemplate.update(
+          "UPDATE product SET client_id = NULL, change_version = :version WHERE id IN (:ids)",
+          new MapSqlParameterSource("ids", chunk).addValue("version", changeVersionService.next())
+        )
+      );
+      chunk.forEach(id -> changeFeedService.publish(ProductChangeEvent.Type.CLIENT_REMOVED, id, null, null, null));
+      job.setDetachedProducts(job.getDetachedProducts() + chunk.size());
+      job.setChunks(job.getChunks() + 1);
+    }
+
+    // 2. Products administrated or sold by the users are deleted
+    while (!(productIds = jdbcTemplate.queryForList(
+      "SELECT id FROM product WHERE admin_id IN (:userIds) OR seller_id IN (:userIds) ORDER BY id LIMIT :limit",
+      params,
+      Long.class
+    )).isEmpty()) {
+      List<Long> chunk = productIds;
+      transactionTemplate.executeWithoutResult(status -> {
+        changeVersionService.recordDeletions(chunk);
+        jdbcTemplate.update("DELETE FROM product WHERE id IN (:ids)", new MapSqlParameterSource("ids", chunk));
+      });
+      chunk.forEach(id -> changeFeedService.publish(ProductChangeEvent.Type.DELETED, id, null, null, null));
+      job.setDeletedProducts(job.getDeletedProducts() + chunk.size());
+      job.setChunks(job.getChunks() + 1);
+    }
+
+    // 3. The users themselves
+    int deleted = transactionTemplate.execute(status ->
+      jdbcTemplate.update("DELETE FROM user WHERE id IN (:userIds)", params)
+    );
+    // Users are replicated: counted on the first shard only
+    if (!ShardContext.isBound() || ShardContext.current() == 0) {
+      job.setDeletedUsers(job.getDeletedUsers() + deleted);
+    }
+    job.setChunks(job.getChunks() + 1);
+  }
+
+  private void evictFinishedJobs() {
+    List<String> finished = jobs.values().stream()
+      .filter(job -> job.getFinishedAt() != null)
+      .sorted((a, b) -> a.getFinishedAt().compareTo(b.getFinishedAt()))
+      .map(BulkDeletionJobDTO::getId)
+      .toList();
+
+    for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+      jobs.remove(finished.get(i));
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @FunctionalInterface
+  private interface JobBody {
+    void run(BulkDeletionJobDTO job);
+  }
+}
@@ -0,0 +1,128 @@
+package edu.fbansept.m2i2.service;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TreeSet;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service allocating monotonically increasing change versions for products
+ *
+ * The counter is seeded at startup from the highest version stored in product and
+ * product_tombstone (on every shard when sharding is enabled), then incremented in memory
+ * (one writer node).
+ * Tombstones are inserted with plain JDBC so they can be written from JPA
+ * lifecycle callbacks, in the transaction that deletes the product.
+ *
+ * Versions are allocated before their transaction commits, so transactions can commit
+ * out of version order. Each version stays in flight until its transaction completes, and
+ * readers only see versions below the oldest one in flight (getVisibleVersion): a client
+ * never moves its cursor past a version that is committed later.
+ */
+@Service
+// Seeded once Hibernate has created the schema
+@DependsOn("entityManagerFactory")
+public class ChangeVersionService {
+
+  private static final String MAX_VERSION_SELECT =
+    "SELECT GREATEST(" +
+    "COALESCE((SELECT MAX(change_version) FROM product), 0), " +
+    "COALESCE((SELECT MAX(change_version) FROM product_tombstone), 0))";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectProvider<ShardingService> shardingService;
+  // Guarded by this
+  private long version;
+  // Versions allocated by transactions not completed yet
+  private final TreeSet<Long> inFlight = new TreeSet<>();
+
+  public ChangeVersionService(JdbcTemplate jdbcTemplate, ObjectProvider<ShardingService> shardingService) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.shardingService = shardingService;
+  }
+
+  /**
+   * Seeds the counter above every stored version
+   */
+  @PostConstruct
+  public synchronized void seed() {
+    ShardingService sharding = shardingService.getIfAvailable();
+    List<Long> maxima = sharding != null
+      ? sharding.runOnAllShards(() -> jdbcTemplate.queryForObject(MAX_VERSION_SELECT, Long.class))
+      : List.of(jdbcTemplate.queryForObject(MAX_VERSION_SELECT, Long.class));
+    for (Long max : maxima) {
+      version = Math.max(version, max != null ? max : 0);
+    }
+  }
+
+  /**
+   * Allocates the next change version, in flight until the current transaction completes
+   * @return A version greater than every version allocated or stored before
+   * @throws IllegalStateException outside a transaction
+   */
+  public long next() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("Change versions must be allocated inside the writing transaction");
+    }
+
+    long allocated;
+    synchronized (this) {
+      allocated = ++version;
+      inFlight.add(allocated);
+    }
+
+    // Also registered from flushes during commit: afterCompletion still runs
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        complete(allocated);
+      }
+    });
+    return allocated;
+  }
+
+  /**
+   * @return The highest version whose changes, and all older ones, are committed (or rolled back)
+   */
+  public synchronized long getVisibleVersion() {
+    return inFlight.isEmpty() ? version : inFlight.first() - 1;
+  }
+
+  private synchronized void complete(long allocated) {
+    inFlight.remove(allocated);
+  }
+
+  /**
+   * Records the deletion of a product with a new change version
+   * @param productId The deleted product ID
+   */
+  public void recordDeletion(Long productId) {
+    jdbcTemplate.update(
+      "INSERT INTO product_tombstone (product_id, change_version, deleted_at) VALUES (?, ?, ?)",
+      productId,
+      next(),
+      Timestamp.valueOf(LocalDateTime.now())
+    );
+  }
+
+  /**
+   * Records the deletion of several products with one shared change version
+   * (deletions of the same version are ordered by product ID in delta sync)
+   * @param productIds The deleted product IDs
+   */
+  public void recordDeletions(List<Long> productIds) {
+    long deletionVersion = next();
+    Timestamp deletedAt = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(
+      "INSERT INTO product_tombstone (product_id, change_version, deleted_at) VALUES (?, ?, ?)",
+      productIds.stream().map(id -> new Object[] { id, deletionVersion, deletedAt }).toList()
+    );
+  }
+}
@@ -0,0 +1,321 @@
+package edu.fbansept.m2i2.service;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import edu.fbansept.m2i2.config.ShardContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service building projection queries from a list of field paths
+ * (e.g. "id", "name", "admin.email")
+ *
+ * Only the requested columns are selected, and an association is joined
+ * only when one of its fields is requested. Results are returned as nested maps
+ * whose shape matches the JSON of the entity, so only requested fields are serialized.
+ *
+ * Field paths are checked against the fields a JsonView exposes on the entity,
+ * so a projection can never reveal more than the matching view (password has no view
+ * and is never projectable).
+ *
+ * With sharding, projections of products are selected on every shard and merged by ID.
+ */
+@Service
+@Transactional(readOnly = true)
+public class FieldProjectionService {
+
+  // Maximum association depth followed when resolving view fields (product -> admin -> role)
+  private static final int MAX_DEPTH = 2;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private ObjectProvider<ShardingService> shardingService;
+
+  // Field paths exposed by (entity, view), resolved once by reflection
+  private final Map<List<Class<?>>, Set<String>> allowedFieldsCache = new ConcurrentHashMap<>();
+
+  /**
+   * Parses a comma separated field list ("id,name,price")
+   * @param fields The raw fields parameter
+   * @return Distinct field paths in requested order
+   */
+  public List<String> parseFields(String fields) {
+    Set<String> parsed = new LinkedHashSet<>();
+    if (fields != null) {
+      for (String field : fields.split(",")) {
+        if (!field.isBlank()) {
+          parsed.add(field.trim());
+        }
+      }
+    }
+    return new ArrayList<>(parsed);
+  }
+
+  /**
+   * Returns the requested fields that the view does not expose on the entity
+   * @param entityClass The projected entity
+   * @param view The JsonView limiting the projectable fields
+   * @param fields The requested field paths
+   * @return Invalid field paths (empty if all fields are allowed)
+   */
+  public List<String> invalidFields(Class<?> entityClass, Class<?> view, List<String> fields) {
+    Set<String> allowed = allowedFields(entityClass, view);
+    return fields.stream().filter(field -> !allowed.contains(field)).toList();
+  }
+
+  /**
+   * Resolves every field path a JsonView exposes on an entity,
+   * following to-one associations (collections are never projected)
+   * @param entityClass The entity class
+   * @param view The JsonView class
+   * @return Allowed field paths, in declaration order
+   */
+  public Set<String> allowedFields(Class<?> entityClass, Class<?> view) {
+    return allowedFieldsCache.computeIfAbsent(
+      List.of(entityClass, view),
+      key -> {
+        Set<String> allowed = new LinkedHashSet<>();
+        collectAllowedFields(entityClass, view, "", 0, allowed);
+        return allowed;
+      }
+    );
+  }
+
+  private void collectAllowedFields(
+    Class<?> type,
+    Class<?> view,
+    String prefix,
+    int depth,
+    Set<String> allowed
+  ) {
+    for (Field field : declaredFields(type)) {
+      if (!isVisibleInView(field, view)) {
+        continue;
+      }
+
+      String path = prefix + field.getName();
+      if (field.isAnnotationPresent(ManyToOne.class) || field.isAnnotationPresent(OneToOne.class)) {
+        if (depth < MAX_DEPTH) {
+          collectAllowedFields(field.getType(), view, path + ".", depth + 1, allowed);
+        }
+      } else if (!Iterable.class.isAssignableFrom(field.getType())) {
+        allowed.add(path);
+      }
+    }
+  }
+
+  /**
+   * Same rule as Jackson with DEFAULT_VIEW_INCLUSION disabled:
+   * a field is serialized only if one of its views is the active view or a parent of it
+   */
+  private boolean isVisibleInView(Field field, Class<?> view) {
+    JsonView jsonView = field.getAnnotation(JsonView.class);
+    return jsonView != null && Arrays.stream(jsonView.value()).anyMatch(v -> v.isAssignableFrom(view));
+  }
+
+  private List<Field> declaredFields(Class<?> type) {
+    List<Field> fields = new ArrayList<>();
+    for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          fields.add(field);
+        }
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * Selects only the requested fields of every entity, ordered by ID
+   * @param entityClass The projected entity
+   * @param fields Validated field paths
+   * @return One nested map per entity
+   */
+  public List<Map<String, Object>> findAll(Class<?> entityClass, List<String> fields) {
+    ShardingService sharding = shardedBy(entityClass);
+    if (sharding == null) {
+      return toRows(selectAll(entityClass, fields), fields);
+    }
+
+    // Each shard returns its rows ordered by ID (selected last, after the requested fields)
+    List<Tuple> tuples = new ArrayList<>();
+    sharding.runOnAllShards(() -> selectAll(entityClass, fields)).forEach(tuples::addAll);
+    tuples.sort(Comparator.comparing(tuple -> (Long) tuple.get(fields.size())));
+    return toRows(tuples, fields);
+  }
+
+  private List<Tuple> selectAll(Class<?> entityClass, List<String> fields) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<?> root = query.from(entityClass);
+
+    List<Selection<?>> selections = selections(root, fields);
+    selections.add(root.get("id"));
+    query.multiselect(selections).orderBy(cb.asc(root.get("id")));
+
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  /**
+   * Selects only the requested fields of one entity
+   * @param entityClass The projected entity
+   * @param id The entity ID
+   * @param fields Validated field paths
+   * @return The nested map, or empty if no entity has this ID
+   */
+  public Optional<Map<String, Object>> findById(Class<?> entityClass, Object id, List<String> fields) {
+    ShardingService sharding = shardedBy(entityClass);
+    if (sharding == null) {
+      return toRows(selectById(entityClass, id, fields), fields).stream().findFirst();
+    }
+
+    // Only the shard holding the row returns it
+    List<Tuple> tuples = new ArrayList<>();
+    sharding.runOnAllShards(() -> selectById(entityClass, id, fields)).forEach(tuples::addAll);
+    return toRows(tuples, fields).stream().findFirst();
+  }
+
+  private List<Tuple> selectById(Class<?> entityClass, Object id, List<String> fields) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<?> root = query.from(entityClass);
+
+    query.multiselect(selections(root, fields)).where(cb.equal(root.get("id"), id));
+
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  /**
+   * @return The sharding service if the entity's rows are spread over the shards
+   *         (and the thread is not already bound to one), otherwise null
+   */
+  private ShardingService shardedBy(Class<?> entityClass) {
+    ShardingService sharding = shardingService.getIfAvailable();
+    return sharding != null && sharding.isSharded(entityClass) && !ShardContext.isBound() ? sharding : null;
+  }
+
+  /**
+   * Selects every field the view exposes (and nothing else) for every entity
+   * Columns and associations the view would throw away are never loaded
+   * @param entityClass The projected entity
+   * @param view The JsonView of the handler
+   * @return One nested map per entity
+   */
+  public List<Map<String, Object>> findAllForView(Class<?> entityClass, Class<?> view) {
+    return findAll(entityClass, new ArrayList<>(allowedFields(entityClass, view)));
+  }
+
+  /**
+   * Selects every field the view exposes (and nothing else) for one entity
+   * @param entityClass The projected entity
+   * @param view The JsonView of the handler
+   * @param id The entity ID
+   * @return The nested map, or empty if no entity has this ID
+   */
+  public Optional<Map<String, Object>> findByIdForView(Class<?> entityClass, Class<?> view, Object id) {
+    return findById(entityClass, id, new ArrayList<>(allowedFields(entityClass, view)));
+  }
+
+  /**
+   * Builds the selection list, joining (LEFT) each association once
+   * and only when one of its fields is requested
+   */
+  protected List<Selection<?>> selections(Root<?> root, List<String> fields) {
+    Map<String, From<?, ?>> joins = new HashMap<>();
+    List<Selection<?>> selections = new ArrayList<>(fields.size());
+
+    for (String field : fields) {
+      String[] parts = field.split("\\.");
+      From<?, ?> from = root;
+      String joinPath = "";
+
+      for (int i = 0; i < parts.length - 1; i++) {
+        joinPath = joinPath.isEmpty() ? parts[i] : joinPath + "." + parts[i];
+        From<?, ?> parent = from;
+        String attribute = parts[i];
+        from = joins.computeIfAbsent(joinPath, key -> parent.join(attribute, JoinType.LEFT));
+      }
+
+      selections.add(from.get(parts[parts.length - 1]));
+    }
+
+    return selections;
+  }
+
+  /**
+   * Converts tuples to nested maps ("admin.email" -> {"admin": {"email": ...}})
+   * A nested association whose selected values are all null (e.g. no client) becomes null
+   */
+  protected List<Map<String, Object>> toRows(List<Tuple> tuples, List<String> fields) {
+    List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+
+    for (Tuple tuple : tuples) {
+      Map<String, Object> row = new LinkedHashMap<>();
+      for (int i = 0; i < fields.size(); i++) {
+        put(row, fields.get(i).split("\\."), 0, tuple.get(i));
+      }
+      nullifyEmptyAssociations(row);
+      rows.add(row);
+    }
+
+    return rows;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void put(Map<String, Object> node, String[] path, int index, Object value) {
+    if (index == path.length - 1) {
+      // IDs as strings, like the entities: 64-bit IDs exceed JavaScript's safe integers
+      node.put(path[index], path[index].equals("id") && value instanceof Long id ? id.toString() : value);
+      return;
+    }
+
+    Map<String, Object> child = (Map<String, Object>) node.computeIfAbsent(
+      path[index],
+      key -> new LinkedHashMap<String, Object>()
+    );
+    put(child, path, index + 1, value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean nullifyEmptyAssociations(Map<String, Object> node) {
+    boolean allNull = true;
+    for (Map.Entry<String, Object> entry : node.entrySet()) {
+      if (entry.getValue() instanceof Map<?, ?> child) {
+        if (nullifyEmptyAssociations((Map<String, Object>) child)) {
+          entry.setValue(null);
+        }
+      }
+      if (entry.getValue() != null) {
+        allNull = false;
+      }
+    }
+    return allNull;
+  }
+}
@@ -0,0 +1,206 @@
+package edu.fbansept.m2i2.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.fbansept.m2i2.config.ShardContext;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.lang.reflect.Field;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service applying JSON Merge Patch documents (RFC 7396) to entities
+ * with a single UPDATE touching only the supplied columns
+ *
+ * Values are converted to the entity field types and checked against the field's
+ * Bean Validation constraints (Validator.validateValue), so no entity is read:
+ * unsupplied columns (e.g. a TEXT description) are neither loaded nor rewritten.
+ * A null value sets the column to null, as defined by Merge Patch, and is refused
+ * for non-nullable columns.
+ * With sharding, the UPDATE runs on every shard: the shard holding a product updates it,
+ * and replicated users and roles are updated on all of them.
+ * A bulk UPDATE bypasses the persistence context: pending changes are flushed before it and
+ * the context is cleared after it, so an entity loaded earlier in the transaction (e.g. by a
+ * previous operation of a batch) is read again instead of saving its stale columns back.
+ */
+@Service
+public class MergePatchService {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private Validator validator;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ObjectProvider<ShardingService> shardingService;
+
+  /**
+   * Converts and validates a merge patch
+   * @param entityClass The patched entity
+   * @param group The validation group of updates (e.g. Product.update.class)
+   * @param patchable The fields that can be patched
+   * @param patch The merge patch document
+   * @param values Filled with the converted values, by field name
+   * @return The error message, or null if the patch is valid
+   */
+  public String convertAndValidate(
+    Class<?> entityClass,
+    Class<?> group,
+    Set<String> patchable,
+    Map<String, Object> patch,
+    Map<String, Object> values
+  ) {
+    if (patch == null || patch.isEmpty()) {
+      return "Patch must contain at least one field";
+    }
+
+    for (Map.Entry<String, Object> entry : patch.entrySet()) {
+      String fieldName = entry.getKey();
+      if (!patchable.contains(fieldName)) {
+        return "Field '" + fieldName + "' cannot be patched";
+      }
+
+      Field field = field(entityClass, fieldName);
+      if (entry.getValue() == null && !isNullable(field)) {
+        return fieldName + ": must not be null";
+      }
+
+      Object value;
+      try {
+        value = objectMapper.convertValue(entry.getValue(), field.getType());
+      } catch (IllegalArgumentException e) {
+        return "Invalid value for field '" + fieldName + "'";
+      }
+
+      Set<? extends ConstraintViolation<?>> violations = validator.validateValue(
+        entityClass,
+        fieldName,
+        value,
+        group
+      );
+      if (!violations.isEmpty()) {
+        return fieldName + ": " + violations.iterator().next().getMessage();
+      }
+
+      values.put(fieldName, value);
+    }
+
+    return null;
+  }
+
+  /**
+   * Updates only the given columns of one entity
+   * @param entityClass The patched entity
+   * @param id The entity ID
+   * @param values The new values, by field name
+   * @return true if the entity exists (and was updated)
+   */
+  @Transactional
+  public <T> boolean update(Class<T> entityClass, Object id, Map<String, Object> values) {
+    return update(entityClass, id, values, Map.of());
+  }
+
+  /**
+   * Updates only the given columns of one entity
+   * Bulk updates skip entity listeners: callers set derived columns (e.g. changeVersion) themselves
+   * @param entityClass The patched entity
+   * @param id The entity ID
+   * @param values The new values, by field name
+   * @param derived Values computed inside the transaction (e.g. a change version), by field name
+   * @return true if the entity exists (and was updated)
+   */
+  @Transactional
+  public <T> boolean update(
+    Class<T> entityClass,
+    Object id,
+    Map<String, Object> values,
+    Map<String, Supplier<?>> derived
+  ) {
+    entityManager.flush();
+    try {
+      ShardingService sharding = shardingService.getIfAvailable();
+      if (sharding != null && !ShardContext.isBound()) {
+        return sharding.runOnAllShards(() -> executeUpdate(entityClass, id, values, derived)).contains(true);
+      }
+      return executeUpdate(entityClass, id, values, derived);
+    } finally {
+      entityManager.clear();
+    }
+  }
+
+  private <T> boolean executeUpdate(
+    Class<T> entityClass,
+    Object id,
+    Map<String, Object> values,
+    Map<String, Supplier<?>> derived
+  ) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityClass);
+    Root<T> root = update.from(entityClass);
+
+    for (Map.Entry<String, Object> entry : values.entrySet()) {
+      update.set(root.get(entry.getKey()), entry.getValue());
+    }
+    for (Map.Entry<String, Supplier<?>> entry : derived.entrySet()) {
+      update.set(root.get(entry.getKey()), entry.getValue().get());
+    }
+    update.where(cb.equal(root.get("id"), id));
+
+    return entityManager.createQuery(update).executeUpdate() > 0;
+  }
+
+  /**
+   * Tells whether a failed update broke a unique constraint (e.g. a duplicate name or email)
+   * Other integrity errors (foreign keys, NOT NULL, data too long ...) are not conflicts
+   * @param e The exception thrown by update
+   * @return true for a duplicate key: SQLState 23000 with MySQL error 1062, or the standard 23505
+   */
+  public boolean isUniqueViolation(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sqlException) {
+        String sqlState = sqlException.getSQLState();
+        return ("23000".equals(sqlState) && sqlException.getErrorCode() == 1062) || "23505".equals(sqlState);
+      }
+    }
+    return false;
+  }
+
+  private boolean isNullable(Field field) {
+    Column column = field.getAnnotation(Column.class);
+    JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+    ManyToOne manyToOne = field.getAnnotation(ManyToOne.class);
+    return !field.getType().isPrimitive()
+        && (column == null || column.nullable())
+        && (joinColumn == null || joinColumn.nullable())
+        && (manyToOne == null || manyToOne.optional());
+  }
+
+  private Field field(Class<?> entityClass, String fieldName) {
+    for (Class<?> current = entityClass; current != null; current = current.getSuperclass()) {
+      try {
+        return current.getDeclaredField(fieldName);
+      } catch (NoSuchFieldException e) {
+        // Declared in a superclass
+      }
+    }
+    throw new IllegalArgumentException("Unknown field " + fieldName);
+  }
+}
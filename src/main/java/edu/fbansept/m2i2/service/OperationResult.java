@@ -0,0 +1,44 @@
+package edu.fbansept.m2i2.service;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Outcome of a write operation, shared by the controllers and the batch executor (/api/batch)
+ *
+ * Holds the HTTP status of the operation and its body: the created or updated object,
+ * an error message, or nothing.
+ */
+public class OperationResult {
+
+  private final HttpStatus status;
+  private final Object body;
+
+  private OperationResult(HttpStatus status, Object body) {
+    this.status = status;
+    this.body = body;
+  }
+
+  public static OperationResult of(HttpStatus status) {
+    return new OperationResult(status, null);
+  }
+
+  public static OperationResult of(HttpStatus status, Object body) {
+    return new OperationResult(status, body);
+  }
+
+  public static OperationResult error(HttpStatus status, String message) {
+    return new OperationResult(status, message);
+  }
+
+  public boolean isSuccessful() {
+    return status.is2xxSuccessful();
+  }
+
+  public HttpStatus getStatus() {
+    return status;
+  }
+
+  public Object getBody() {
+    return body;
+  }
+}
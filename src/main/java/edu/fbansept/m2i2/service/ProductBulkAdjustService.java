@@ -0,0 +1,232 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.config.ShardContext;
+import edu.fbansept.m2i2.dto.BulkAdjustRequestDTO;
+import edu.fbansept.m2i2.dto.BulkAdjustResultDTO;
+import edu.fbansept.m2i2.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service applying a price and/or stock adjustment to every product matching a filter
+ * with one set-based UPDATE
+ *
+ * The bounds are read from the constraints declared on Product.price (@DecimalMin/@DecimalMax)
+ * and Product.stock (@Min). Before updating, one query counts the matching products and those
+ * whose adjusted values would leave the bounds: if a single one would, nothing is updated.
+ * The UPDATE repeats the bounds and must update exactly the counted products, otherwise the set
+ * changed in between (concurrent write) and the transaction is rolled back.
+ * Updated rows share one new change version, which also identifies them afterwards
+ * (read back for the change feed only up to PUBLISHED_ROWS_LIMIT rows).
+ *
+ * With sharding, an adjustment must target one seller: it then runs on that seller's shard,
+ * in one transaction. Adjustments spanning several shards are refused, as they could not be all or nothing.
+ */
+@Service
+public class ProductBulkAdjustService {
+
+  // Above this number of updated products, no row is read back: the feed gets one resync event
+  public static final int PUBLISHED_ROWS_LIMIT = 1000;
+
+  private static final double MIN_PRICE;
+  private static final boolean MIN_PRICE_INCLUSIVE;
+  private static final double MAX_PRICE;
+  private static final boolean MAX_PRICE_INCLUSIVE;
+  private static final int MIN_STOCK;
+
+  static {
+    try {
+      DecimalMin decimalMin = Product.class.getDeclaredField("price").getAnnotation(DecimalMin.class);
+      DecimalMax decimalMax = Product.class.getDeclaredField("price").getAnnotation(DecimalMax.class);
+      Min stockMin = Product.class.getDeclaredField("stock").getAnnotation(Min.class);
+      MIN_PRICE = new BigDecimal(decimalMin.value()).doubleValue();
+      MIN_PRICE_INCLUSIVE = decimalMin.inclusive();
+      MAX_PRICE = new BigDecimal(decimalMax.value()).doubleValue();
+      MAX_PRICE_INCLUSIVE = decimalMax.inclusive();
+      MIN_STOCK = (int) stockMin.value();
+    } catch (NoSuchFieldException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private ChangeVersionService changeVersionService;
+
+  @Autowired
+  private ObjectProvider<ShardingService> shardingService;
+
+  /**
+   * Checks that the request has a filter and a complete change
+   * @param request The adjustment request
+   * @return The error message, or null if the request is valid
+   */
+  public String validate(BulkAdjustRequestDTO request) {
+    if (request == null) {
+      return "Request body is required";
+    }
+    if (
+      request.getSellerId() == null && request.getAdminId() == null &&
+      (request.getIds() == null || request.getIds().isEmpty()) &&
+      request.getMinPrice() == null && request.getMaxPrice() == null
+    ) {
+      return "At least one filter is required (sellerId, adminId, ids, minPrice, maxPrice)";
+    }
+    if (request.getIds() != null && request.getIds().size() > BatchLookupService.MAX_IDS) {
+      return "At most " + BatchLookupService.MAX_IDS + " IDs can be adjusted at once";
+    }
+    if (request.getSellerId() == null && shardingService.getIfAvailable() != null) {
+      return "sellerId is required when sharding is enabled (an adjustment runs on the seller's shard only)";
+    }
+    if (request.getPriceChange() == null && request.getStockChange() == null) {
+      return "At least one change is required (priceChange, stockChange)";
+    }
+    if (request.getPriceChange() != null && request.getPriceMode() == null) {
+      return "priceMode is required with priceChange";
+    }
+    if (request.getStockChange() != null && request.getStockMode() == null) {
+      return "stockMode is required with stockChange";
+    }
+    return null;
+  }
+
+  /**
+   * Applies the adjustment to every matching product, or to none if one would break a constraint
+   * @param request A valid adjustment request
+   * @return The result, or null if at least one product would leave the price or stock bounds
+   * @throws IllegalStateException if matching products changed during the adjustment (nothing is updated)
+   */
+  @Transactional
+  public BulkAdjustResultDTO adjust(BulkAdjustRequestDTO request) {
+    ShardingService sharding = shardingService.getIfAvailable();
+    if (sharding != null && !ShardContext.isBound()) {
+      if (request.getSellerId() == null) {
+        throw new IllegalArgumentException("sellerId is required when sharding is enabled");
+      }
+      return sharding.runOnShard(sharding.shardOf(request.getSellerId()), () -> adjustOnCurrentShard(request));
+    }
+    return adjustOnCurrentShard(request);
+  }
+
+  private BulkAdjustResultDTO adjustOnCurrentShard(BulkAdjustRequestDTO request) {
+    Map<String, Object> params = new HashMap<>();
+    String where = filter(request, params);
+    String newPrice = priceExpression(request, params);
+    String newStock = stockExpression(request, params);
+
+    // 1. Matching products, and those the change would put out of bounds
+    String violation =
+      "(" + newPrice + " " + (MIN_PRICE_INCLUSIVE ? "<" : "<=") + " :minPriceBound" +
+      " OR " + newPrice + " " + (MAX_PRICE_INCLUSIVE ? ">" : ">=") + " :maxPriceBound" +
+      " OR " + newStock + " < :minStockBound)";
+    params.put("minPriceBound", MIN_PRICE);
+    params.put("maxPriceBound", MAX_PRICE);
+    params.put("minStockBound", MIN_STOCK);
+    Query check = entityManager.createQuery(
+      "SELECT COUNT(p), COALESCE(SUM(CASE WHEN " + violation + " THEN 1 ELSE 0 END), 0) " +
+      "FROM Product p WHERE " + where
+    );
+    params.forEach(check::setParameter);
+    Object[] counts = (Object[]) check.getSingleResult();
+    long matched = ((Number) counts[0]).longValue();
+    if (((Number) counts[1]).longValue() > 0) {
+      return null;
+    }
+
+    // 2. One set-based UPDATE (bulk updates skip ProductChangeListener: the version is set here)
+    // The bounds are repeated: a product changed since the check is left out, and detected below
+    long version = changeVersionService.next();
+    Query update = entityManager.createQuery(
+      "UPDATE Product p SET p.price = " + newPrice + ", p.stock = " + newStock +
+      ", p.changeVersion = :version WHERE " + where + " AND NOT " + violation
+    );
+    params.forEach(update::setParameter);
+    update.setParameter("version", version);
+    int affected = update.executeUpdate();
+    if (affected != matched) {
+      // Thrown to roll the UPDATE back: all or nothing
+      throw new IllegalStateException(
+        "Matching products changed during the adjustment (" + matched + " checked, " + affected + " in bounds), " +
+        "nothing was updated"
+      );
+    }
+
+    // 3. New state of the updated rows, found through their shared version (bounded set only)
+    List<Object[]> rows = null;
+    if (affected <= PUBLISHED_ROWS_LIMIT) {
+      @SuppressWarnings("unchecked")
+      List<Object[]> updatedRows = entityManager
+        .createQuery("SELECT p.id, p.price, p.stock FROM Product p WHERE p.changeVersion = :version")
+        .setParameter("version", version)
+        .getResultList();
+      rows = updatedRows;
+    }
+
+    return new BulkAdjustResultDTO(affected, version, rows);
+  }
+
+  private String filter(BulkAdjustRequestDTO request, Map<String, Object> params) {
+    StringBuilder where = new StringBuilder("1 = 1");
+    if (request.getSellerId() != null) {
+      where.append(" AND p.seller.id = :sellerId");
+      params.put("sellerId", request.getSellerId());
+    }
+    if (request.getAdminId() != null) {
+      where.append(" AND p.admin.id = :adminId");
+      params.put("adminId", request.getAdminId());
+    }
+    if (request.getIds() != null && !request.getIds().isEmpty()) {
+      where.append(" AND p.id IN :ids");
+      params.put("ids", request.getIds());
+    }
+    if (request.getMinPrice() != null) {
+      where.append(" AND p.price >= :minPrice");
+      params.put("minPrice", request.getMinPrice());
+    }
+    if (request.getMaxPrice() != null) {
+      where.append(" AND p.price <= :maxPrice");
+      params.put("maxPrice", request.getMaxPrice());
+    }
+    return where.toString();
+  }
+
+  // Prices are rounded to the 2 decimals of the DECIMAL(8,2) column before being checked
+  private String priceExpression(BulkAdjustRequestDTO request, Map<String, Object> params) {
+    if (request.getPriceChange() == null) {
+      return "p.price";
+    }
+    if (request.getPriceMode() == BulkAdjustRequestDTO.Mode.PERCENT) {
+      params.put("priceFactor", 1 + request.getPriceChange() / 100);
+      return "ROUND(p.price * :priceFactor, 2)";
+    }
+    params.put("priceDelta", request.getPriceChange());
+    return "ROUND(p.price + :priceDelta, 2)";
+  }
+
+  // Stocks are whole units: percentages are rounded to the nearest unit
+  private String stockExpression(BulkAdjustRequestDTO request, Map<String, Object> params) {
+    if (request.getStockChange() == null) {
+      return "p.stock";
+    }
+    if (request.getStockMode() == BulkAdjustRequestDTO.Mode.PERCENT) {
+      params.put("stockFactor", 1 + request.getStockChange() / 100);
+      return "CAST(ROUND(p.stock * :stockFactor, 0) AS Integer)";
+    }
+    params.put("stockDelta", (int) Math.round(request.getStockChange()));
+    return "(p.stock + :stockDelta)";
+  }
+}
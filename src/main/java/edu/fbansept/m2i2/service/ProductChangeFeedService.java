@@ -0,0 +1,364 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.dto.ProductChangeEvent;
+import edu.fbansept.m2i2.model.Product;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service broadcasting product changes to Server-Sent Events subscribers
+ *
+ * Design:
+ * - Every event is written once into a shared in-memory ring buffer, indexed by a
+ *   monotonically increasing sequence (also used as the SSE event ID)
+ * - A subscriber is only a cursor into that ring: its pending events are the window
+ *   (cursor, head], bounded by subscriberQueueSize. Nothing is copied per subscriber
+ * - When a subscriber falls further behind than its queue size (or the ring overwrote
+ *   its next event), its backlog is dropped and it receives a "resync" event telling it
+ *   to reload the catalog once, then it continues from the head
+ * - Delivery runs on a small shared pool, never on the publishers; at most one drain task
+ *   per subscriber is queued. A send still blocked after writeTimeout (client not reading,
+ *   full TCP buffer) drops its subscriber and is interrupted, so a stalled connection holds
+ *   a pool thread for at most that long; until then, as many stalled clients as pool threads
+ *   delay every other subscriber
+ * - Clients reconnecting with Last-Event-ID resume from the ring when still possible
+ */
+@Service
+public class ProductChangeFeedService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProductChangeFeedService.class);
+
+  private final int ringSize;
+  private final int subscriberQueueSize;
+  private final long timeoutMillis;
+  private final long writeTimeoutNanos;
+
+  private final AtomicReferenceArray<ProductChangeEvent> ring;
+
+  // Sequence of the last published event (0 = nothing published yet)
+  private final AtomicLong head = new AtomicLong();
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  private final ExecutorService dispatcher;
+  private final ScheduledExecutorService heartbeat;
+
+  public ProductChangeFeedService(
+    @Value("${m2i2.product-stream.ring-size:4096}") int ringSize,
+    @Value("${m2i2.product-stream.subscriber-queue-size:256}") int subscriberQueueSize,
+    @Value("${m2i2.product-stream.dispatcher-threads:4}") int dispatcherThreads,
+    @Value("${m2i2.product-stream.heartbeat-seconds:15}") long heartbeatSeconds,
+    @Value("${m2i2.product-stream.timeout-minutes:30}") long timeoutMinutes,
+    @Value("${m2i2.product-stream.write-timeout-seconds:10}") long writeTimeoutSeconds
+  ) {
+    this.ringSize = Math.max(ringSize, subscriberQueueSize);
+    this.subscriberQueueSize = subscriberQueueSize;
+    this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+    this.writeTimeoutNanos = TimeUnit.SECONDS.toNanos(writeTimeoutSeconds);
+    this.ring = new AtomicReferenceArray<>(this.ringSize);
+
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+      Thread thread = new Thread(runnable, "product-stream-dispatcher-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "product-stream-heartbeat");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.heartbeat.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    this.heartbeat.scheduleWithFixedDelay(this::dropStalled, 1, 1, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Publishes a change event built from the product state
+   * @param type The change type
+   * @param product The changed product
+   */
+  public void publish(ProductChangeEvent.Type type, Product product) {
+    Long clientId = product.getClient() != null ? product.getClient().getId() : null;
+    publish(type, product.getId(), product.getPrice(), product.getStock(), clientId);
+  }
+
+  /**
+   * Publishes a change event
+   * Inside a transaction (e.g. POST /api/batch) the event is only published after commit,
+   * and never if the transaction rolls back
+   */
+  public void publish(
+    ProductChangeEvent.Type type,
+    Long productId,
+    Double price,
+    Integer stock,
+    Long clientId
+  ) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          append(type, productId, price, stock, clientId);
+        }
+      });
+      return;
+    }
+
+    append(type, productId, price, stock, clientId);
+  }
+
+  /**
+   * Publishers are serialized so that the ring slot is written before the head moves;
+   * subscribers read without locking
+   */
+  private synchronized void append(
+    ProductChangeEvent.Type type,
+    Long productId,
+    Double price,
+    Integer stock,
+    Long clientId
+  ) {
+    long sequence = head.get() + 1;
+    ring.set(index(sequence), new ProductChangeEvent(
+      sequence,
+      type,
+      productId,
+      price,
+      stock,
+      clientId,
+      System.currentTimeMillis()
+    ));
+    head.set(sequence);
+
+    for (Subscriber subscriber : subscribers) {
+      schedule(subscriber);
+    }
+  }
+
+  /**
+   * Opens a new subscription
+   * @param lastEventId The Last-Event-ID sent by a reconnecting client (can be null)
+   * @return The SSE emitter bound to the subscription
+   */
+  public SseEmitter subscribe(Long lastEventId) {
+    SseEmitter emitter = new SseEmitter(timeoutMillis);
+    long current = head.get();
+
+    Subscriber subscriber = new Subscriber(emitter);
+    if (lastEventId == null) {
+      subscriber.cursor = current;
+    } else if (lastEventId < 0 || lastEventId > current) {
+      // ID from before a restart (the sequence starts over) or forged: the client must reload
+      subscriber.cursor = current;
+      subscriber.resyncPending = true;
+    } else {
+      // Too old to be replayed: drain() sends a resync first
+      subscriber.cursor = lastEventId;
+    }
+
+    emitter.onCompletion(() -> unsubscribe(subscriber));
+    emitter.onTimeout(() -> unsubscribe(subscriber));
+    emitter.onError(error -> unsubscribe(subscriber));
+
+    subscribers.add(subscriber);
+    schedule(subscriber);
+    return emitter;
+  }
+
+  /**
+   * Number of connected subscribers
+   */
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  private void unsubscribe(Subscriber subscriber) {
+    subscriber.alive = false;
+    subscribers.remove(subscriber);
+  }
+
+  private void heartbeat() {
+    for (Subscriber subscriber : subscribers) {
+      subscriber.heartbeatPending = true;
+      schedule(subscriber);
+    }
+  }
+
+  /**
+   * Drops the subscribers whose current send has been blocked longer than the write timeout
+   */
+  private void dropStalled() {
+    long now = System.nanoTime();
+    for (Subscriber subscriber : subscribers) {
+      synchronized (subscriber) {
+        if (subscriber.sender == null || now - subscriber.sendStartedNanos < writeTimeoutNanos) {
+          continue;
+        }
+        logger.info("Product stream subscriber dropped: send blocked for more than {}s",
+          TimeUnit.NANOSECONDS.toSeconds(writeTimeoutNanos));
+        unsubscribe(subscriber);
+        // Wakes the blocked write up with an error, which frees the pool thread
+        subscriber.sender.interrupt();
+      }
+      subscriber.emitter.complete();
+    }
+  }
+
+  private void schedule(Subscriber subscriber) {
+    if (subscriber.alive && subscriber.scheduled.compareAndSet(false, true)) {
+      try {
+        dispatcher.execute(() -> drain(subscriber));
+      } catch (RuntimeException e) {
+        subscriber.scheduled.set(false);
+      }
+    }
+  }
+
+  /**
+   * Sends every pending event of a subscriber (only one drain runs per subscriber at a time)
+   */
+  private void drain(Subscriber subscriber) {
+    try {
+      while (subscriber.alive) {
+        long current = head.get();
+        long next = subscriber.cursor + 1;
+
+        if (subscriber.resyncPending) {
+          subscriber.resyncPending = false;
+          sendResync(subscriber, current);
+          continue;
+        }
+
+        if (next > current) {
+          if (subscriber.heartbeatPending) {
+            subscriber.heartbeatPending = false;
+            send(subscriber, SseEmitter.event().comment("heartbeat"));
+          }
+          break;
+        }
+
+        // Too slow: drop the backlog and ask the client to reload
+        if (current - subscriber.cursor > subscriberQueueSize) {
+          sendResync(subscriber, current);
+          continue;
+        }
+        ProductChangeEvent event = ring.get(index(next));
+        if (event == null || event.getSequence() != next) {
+          sendResync(subscriber, current);
+          continue;
+        }
+
+        send(
+          subscriber,
+          SseEmitter.event()
+            .name(event.getType().getEventName())
+            .id(Long.toString(next))
+            .data(event, MediaType.APPLICATION_JSON)
+        );
+        subscriber.cursor = next;
+      }
+    } catch (IOException | IllegalStateException e) {
+      logger.debug("Product stream subscriber disconnected: {}", e.getMessage());
+      unsubscribe(subscriber);
+      subscriber.emitter.completeWithError(e);
+    } catch (RuntimeException e) {
+      // Dropped rather than rescheduled: a failing drain must not spin on a dispatcher thread
+      logger.warn("Product stream subscriber dropped", e);
+      unsubscribe(subscriber);
+      subscriber.emitter.completeWithError(e);
+    } finally {
+      subscriber.scheduled.set(false);
+      if (subscriber.alive && subscriber.cursor < head.get()) {
+        schedule(subscriber);
+      }
+    }
+  }
+
+  private void sendResync(Subscriber subscriber, long current) throws IOException {
+    subscriber.cursor = current;
+    send(
+      subscriber,
+      SseEmitter.event()
+        .name("resync")
+        .id(Long.toString(current))
+        .data(Map.of("sequence", current), MediaType.APPLICATION_JSON)
+    );
+  }
+
+  /**
+   * Sends one event, watched by dropStalled() while it blocks
+   */
+  private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+    synchronized (subscriber) {
+      subscriber.sendStartedNanos = System.nanoTime();
+      subscriber.sender = Thread.currentThread();
+    }
+    try {
+      subscriber.emitter.send(event);
+    } finally {
+      synchronized (subscriber) {
+        subscriber.sender = null;
+      }
+      // No interrupt can target this send anymore: one raised for it must not leak into the next drain
+      if (!subscriber.alive) {
+        Thread.interrupted();
+      }
+    }
+  }
+
+  private int index(long sequence) {
+    return (int) Math.floorMod(sequence, (long) ringSize);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    heartbeat.shutdownNow();
+    dispatcher.shutdownNow();
+    for (Subscriber subscriber : subscribers) {
+      subscriber.emitter.complete();
+    }
+    subscribers.clear();
+  }
+
+  /**
+   * Subscriber state: a cursor into the shared ring
+   */
+  private static final class Subscriber {
+
+    private final SseEmitter emitter;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // Send in progress, guarded by the subscriber itself
+    private Thread sender;
+    private long sendStartedNanos;
+
+    // Only written by the (single) running drain task
+    private volatile long cursor;
+    private volatile boolean heartbeatPending;
+    private volatile boolean resyncPending;
+    private volatile boolean alive = true;
+
+    private Subscriber(SseEmitter emitter) {
+      this.emitter = emitter;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.model.Product;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener stamping products with a new change version on every insert/update
+ * and writing a tombstone on every removal (including cascades from User)
+ *
+ * Instantiated by Hibernate through Spring's bean container; the version service
+ * is looked up lazily because listeners are created while the EntityManagerFactory starts.
+ * Bulk JPQL statements bypass these callbacks and must stamp versions themselves.
+ */
+@Component
+public class ProductChangeListener {
+
+  private final ObjectProvider<ChangeVersionService> changeVersionService;
+
+  public ProductChangeListener(ObjectProvider<ChangeVersionService> changeVersionService) {
+    this.changeVersionService = changeVersionService;
+  }
+
+  @PrePersist
+  @PreUpdate
+  public void onUpsert(Product product) {
+    product.setChangeVersion(changeVersionService.getObject().next());
+  }
+
+  @PostRemove
+  public void onRemove(Product product) {
+    changeVersionService.getObject().recordDeletion(product.getId());
+  }
+}
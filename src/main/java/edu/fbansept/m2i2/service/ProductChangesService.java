@@ -0,0 +1,91 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.dao.ProductDao;
+import edu.fbansept.m2i2.dao.ProductTombstoneDao;
+import edu.fbansept.m2i2.dto.ProductChangesDTO;
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.model.ProductTombstone;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service computing delta sync pages: the upserts and deletions after a change version
+ *
+ * Both sources are read through the (change_version, id) indexes with limit + 1 rows each,
+ * then merged in version order, so the cost is proportional to the page, not the catalog.
+ * Versions still in flight, and the newer ones, are left for a later page (see ChangeVersionService)
+ */
+@Service
+public class ProductChangesService {
+
+  @Autowired
+  private ProductDao productDao;
+
+  @Autowired
+  private ProductTombstoneDao tombstoneDao;
+
+  @Autowired
+  private ProductMappingService mappingService;
+
+  @Autowired
+  private ChangeVersionService changeVersionService;
+
+  /**
+   * Returns the changes strictly after the (since, sinceId) cursor
+   * @param since Last change version already applied by the client (-1 for a full sync)
+   * @param sinceId Last product ID applied within that version (0 to start the version)
+   * @param limit Maximum number of changes in the page
+   * @return The ordered page of upserts and deletions with the next cursor
+   */
+  @Transactional(readOnly = true)
+  public ProductChangesDTO getChangesSince(long since, long sinceId, int limit) {
+    PageRequest page = PageRequest.of(0, limit + 1);
+    long visible = changeVersionService.getVisibleVersion();
+    List<Product> products = productDao.findChangedSince(since, sinceId, visible, page);
+    List<ProductTombstone> tombstones = tombstoneDao.findDeletedSince(since, sinceId, visible, page);
+
+    List<Product> upserts = new ArrayList<>();
+    List<ProductChangesDTO.DeletionDTO> deletions = new ArrayList<>();
+    long nextSince = since;
+    long nextSinceId = sinceId;
+
+    // Merge both ordered lists, keeping the first "limit" changes
+    int p = 0;
+    int t = 0;
+    while (upserts.size() + deletions.size() < limit && (p < products.size() || t < tombstones.size())) {
+      boolean takeProduct = t >= tombstones.size() ||
+        (p < products.size() && compare(products.get(p), tombstones.get(t)) < 0);
+
+      if (takeProduct) {
+        Product product = products.get(p++);
+        upserts.add(product);
+        nextSince = product.getChangeVersion();
+        nextSinceId = product.getId();
+      } else {
+        ProductTombstone tombstone = tombstones.get(t++);
+        deletions.add(new ProductChangesDTO.DeletionDTO(tombstone.getProductId(), tombstone.getChangeVersion()));
+        nextSince = tombstone.getChangeVersion();
+        nextSinceId = tombstone.getProductId();
+      }
+    }
+
+    boolean hasMore = p < products.size() || t < tombstones.size();
+
+    return new ProductChangesDTO(
+      mappingService.toProductDetailDTOList(upserts),
+      deletions,
+      nextSince,
+      nextSinceId,
+      hasMore
+    );
+  }
+
+  private int compare(Product product, ProductTombstone tombstone) {
+    int byVersion = Long.compare(product.getChangeVersion(), tombstone.getChangeVersion());
+    return byVersion != 0 ? byVersion : Long.compare(product.getId(), tombstone.getProductId());
+  }
+}
@@ -1,10 +1,16 @@
 package edu.fbansept.m2i2.service;
 
+import edu.fbansept.m2i2.annotation.MeasureTime;
+import edu.fbansept.m2i2.dto.NormalizedProductListDTO;
 import edu.fbansept.m2i2.dto.ProductDetailDTO;
 import edu.fbansept.m2i2.model.Product;
 import edu.fbansept.m2i2.model.User;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import org.slf4j.event.Level;
 import org.springframework.stereotype.Service;
 
 /**
@@ -21,6 +27,20 @@ public class ProductMappingService {
    * @return ProductDetailDTO with all user information
    */
   public ProductDetailDTO toProductDetailDTO(Product product) {
+    return toProductDetailDTO(product, null);
+  }
+
+  /**
+   * Converts a Product entity to a ProductDetailDTO, reusing the UserSummaryDTO
+   * instances already present in the interning map
+   * @param product The Product entity to convert
+   * @param internedUsers UserSummaryDTOs already built for this request, by user ID (can be null)
+   * @return ProductDetailDTO with all user information
+   */
+  private ProductDetailDTO toProductDetailDTO(
+    Product product,
+    Map<Long, ProductDetailDTO.UserSummaryDTO> internedUsers
+  ) {
     if (product == null) {
       return null;
     }
@@ -35,17 +55,17 @@ public class ProductMappingService {
 
     // Map admin information
     if (product.getAdmin() != null) {
-      dto.setAdmin(toUserSummaryDTO(product.getAdmin()));
+      dto.setAdmin(toUserSummaryDTO(product.getAdmin(), internedUsers));
     }
 
     // Map seller information
     if (product.getSeller() != null) {
-      dto.setSeller(toUserSummaryDTO(product.getSeller()));
+      dto.setSeller(toUserSummaryDTO(product.getSeller(), internedUsers));
     }
 
     // Map client information (can be null)
     if (product.getClient() != null) {
-      dto.setClient(toUserSummaryDTO(product.getClient()));
+      dto.setClient(toUserSummaryDTO(product.getClient(), internedUsers));
     }
 
     return dto;
@@ -66,17 +86,110 @@ public class ProductMappingService {
     return new ProductDetailDTO.UserSummaryDTO(user.getId(), user.getEmail(), roleName);
   }
 
+  /**
+   * Converts a User entity to a UserSummaryDTO, returning the instance already built
+   * for the same user ID when an interning map is given
+   * @param user The User entity to convert
+   * @param internedUsers UserSummaryDTOs already built for this request, by user ID (can be null)
+   * @return UserSummaryDTO with basic user information
+   */
+  private ProductDetailDTO.UserSummaryDTO toUserSummaryDTO(
+    User user,
+    Map<Long, ProductDetailDTO.UserSummaryDTO> internedUsers
+  ) {
+    if (internedUsers == null || user == null || user.getId() == null) {
+      return toUserSummaryDTO(user);
+    }
+
+    return internedUsers.computeIfAbsent(user.getId(), id -> toUserSummaryDTO(user));
+  }
+
   /**
    * Converts a list of Product entities to a list of ProductDetailDTOs
+   * The same few admins and sellers appear on thousands of products, so UserSummaryDTOs
+   * are interned for the whole list: each user is mapped once and its DTO instance is shared
+   * (callers must not mutate the nested user DTOs of the returned list)
    * @param products The list of Product entities to convert
    * @return List of ProductDetailDTOs
    */
+  @MeasureTime(message = "Mapping products to ProductDetailDTOs", logLevel = Level.DEBUG)
   public List<ProductDetailDTO> toProductDetailDTOList(List<Product> products) {
     if (products == null) {
       return null;
     }
 
-    return products.stream().map(this::toProductDetailDTO).collect(Collectors.toList());
+    Map<Long, ProductDetailDTO.UserSummaryDTO> internedUsers = new HashMap<>();
+    List<ProductDetailDTO> dtos = new ArrayList<>(products.size());
+    for (Product product : products) {
+      dtos.add(toProductDetailDTO(product, internedUsers));
+    }
+    return dtos;
+  }
+
+  /**
+   * Converts a list of Product entities to the normalized list shape:
+   * products reference their admin, seller and client by ID
+   * and each user appears only once in the users table
+   * @param products The list of Product entities to convert
+   * @return NormalizedProductListDTO with product rows and the users table
+   */
+  public NormalizedProductListDTO toNormalizedProductList(List<Product> products) {
+    if (products == null) {
+      return null;
+    }
+
+    Map<Long, ProductDetailDTO.UserSummaryDTO> users = new LinkedHashMap<>();
+    List<NormalizedProductListDTO.ProductRowDTO> rows = new ArrayList<>(products.size());
+
+    for (Product product : products) {
+      NormalizedProductListDTO.ProductRowDTO row = new NormalizedProductListDTO.ProductRowDTO(
+        product.getId(),
+        product.getName(),
+        product.getPrice(),
+        product.getDescription(),
+        product.getStock(),
+        toUserId(product.getAdmin(), users),
+        toUserId(product.getSeller(), users),
+        toUserId(product.getClient(), users)
+      );
+      rows.add(row);
+    }
+
+    return new NormalizedProductListDTO(rows, users);
+  }
+
+  /**
+   * Registers the user in the users table (once) and returns its ID
+   * @param user The referenced user (can be null)
+   * @param users The users table being built, by user ID
+   * @return The user ID, or null when there is no user
+   */
+  private Long toUserId(User user, Map<Long, ProductDetailDTO.UserSummaryDTO> users) {
+    if (user == null) {
+      return null;
+    }
+
+    toUserSummaryDTO(user, users);
+    return user.getId();
+  }
+
+  /**
+   * Converts a list of Product entities to available-product DTOs (no client),
+   * interning UserSummaryDTOs like toProductDetailDTOList
+   * @param products The list of Product entities to convert
+   * @return List of ProductDetailDTOs with admin and seller information
+   */
+  public List<ProductDetailDTO> toAvailableProductDTOList(List<Product> products) {
+    if (products == null) {
+      return null;
+    }
+
+    Map<Long, ProductDetailDTO.UserSummaryDTO> internedUsers = new HashMap<>();
+    List<ProductDetailDTO> dtos = new ArrayList<>();
+    for (Product product : products) {
+      dtos.add(toAvailableProductDTO(product, internedUsers));
+    }
+    return dtos;
   }
 
   /**
@@ -105,6 +218,13 @@ public class ProductMappingService {
    * @return ProductDetailDTO with admin and seller information
    */
   public ProductDetailDTO toAvailableProductDTO(Product product) {
+    return toAvailableProductDTO(product, null);
+  }
+
+  private ProductDetailDTO toAvailableProductDTO(
+    Product product,
+    Map<Long, ProductDetailDTO.UserSummaryDTO> internedUsers
+  ) {
     if (product == null) {
       return null;
     }
@@ -119,11 +239,11 @@ public class ProductMappingService {
 
     // Only include admin and seller, not client
     if (product.getAdmin() != null) {
-      dto.setAdmin(toUserSummaryDTO(product.getAdmin()));
+      dto.setAdmin(toUserSummaryDTO(product.getAdmin(), internedUsers));
     }
 
     if (product.getSeller() != null) {
-      dto.setSeller(toUserSummaryDTO(product.getSeller()));
+      dto.setSeller(toUserSummaryDTO(product.getSeller(), internedUsers));
     }
 
     // Explicitly set client to null for available products
@@ -0,0 +1,274 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.dao.ProductDao;
+import edu.fbansept.m2i2.dto.ProductChangeEvent;
+import edu.fbansept.m2i2.dto.ProductDetailDTO;
+import edu.fbansept.m2i2.model.Product;
+import jakarta.persistence.PersistenceException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service holding the product write operations of ProductController and of /api/batch
+ *
+ * Business rules (admin, seller and client roles) are checked by ProductValidationService,
+ * every change is published to the change feed (only after commit inside a transaction).
+ * Bodies are validated by the caller (@Validated(add/update) or the batch executor).
+ */
+@Service
+public class ProductService {
+
+  // Columns a merge patch can update (relations go through PUT and the client endpoints)
+  private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "price", "description", "stock");
+
+  @Autowired
+  private ProductDao productDao;
+
+  @Autowired
+  private ProductValidationService validationService;
+
+  @Autowired
+  private ProductMappingService mappingService;
+
+  @Autowired
+  private ProductChangeFeedService changeFeedService;
+
+  @Autowired
+  private MergePatchService mergePatchService;
+
+  @Autowired
+  private ChangeVersionService changeVersionService;
+
+  /**
+   * Creates a product
+   * @param productSent The validated product
+   * @param adminId User ID with ADMIN role
+   * @param sellerId User ID with SELLER role
+   * @param clientId Optional user ID with CLIENT role
+   * @return 201 with the product, or 400 if a business rule is broken
+   */
+  public OperationResult add(Product productSent, Long adminId, Long sellerId, Long clientId) {
+    // Set and validate admin
+    ProductValidationService.ValidationResult adminResult = validationService.setProductAdmin(productSent, adminId);
+    if (!adminResult.isValid()) {
+      return OperationResult.error(HttpStatus.BAD_REQUEST, adminResult.getErrorMessage());
+    }
+
+    // Set and validate seller
+    ProductValidationService.ValidationResult sellerResult = validationService.setProductSeller(productSent, sellerId);
+    if (!sellerResult.isValid()) {
+      return OperationResult.error(HttpStatus.BAD_REQUEST, sellerResult.getErrorMessage());
+    }
+
+    // Set and validate client (optional)
+    ProductValidationService.ValidationResult clientResult = validationService.setProductClient(productSent, clientId);
+    if (!clientResult.isValid()) {
+      return OperationResult.error(HttpStatus.BAD_REQUEST, clientResult.getErrorMessage());
+    }
+
+    // Final validation of the complete product
+    ProductValidationService.ValidationResult productResult = validationService.validateProduct(productSent);
+    if (!productResult.isValid()) {
+      return OperationResult.error(HttpStatus.BAD_REQUEST, productResult.getErrorMessage());
+    }
+
+    productDao.save(productSent);
+    changeFeedService.publish(ProductChangeEvent.Type.CREATED, productSent);
+
+    ProductDetailDTO productDTO = mappingService.toProductDetailDTO(productSent);
+    return OperationResult.of(HttpStatus.CREATED, productDTO);
+  }
+
+  /**
+   * Replaces a product
+   * @param id The product ID
+   * @param productSent The validated product
+   * @param adminId Optional new admin ID, the current admin is kept otherwise
+   * @param sellerId Optional new seller ID, the current seller is kept otherwise
+   * @param clientId Optional new client ID, the current client is kept otherwise
+   * @return 200 with the product, 404, or 400 if a business rule is broken
+   */
+  public OperationResult update(long id, Product productSent, Long adminId, Long sellerId, Long clientId) {
+    productSent.setId(id);
+
+    Optional<Product> productOptional = productDao.findById(id);
+
+    if (productOptional.isEmpty()) {
+      return OperationResult.of(HttpStatus.NOT_FOUND);
+    }
+
+    Product existingProduct = productOptional.get();
+
+    // Update admin if provided, otherwise keep existing
+    if (adminId != null) {
+      ProductValidationService.ValidationResult adminResult = validationService.setProductAdmin(productSent, adminId);
+      if (!adminResult.isValid()) {
+        return OperationResult.error(HttpStatus.BAD_REQUEST, adminResult.getErrorMessage());
+      }
+    } else {
+      productSent.setAdmin(existingProduct.getAdmin());
+    }
+
+    // Update seller if provided, otherwise keep existing
+    if (sellerId != null) {
+      ProductValidationService.ValidationResult sellerResult = validationService.setProductSeller(productSent, sellerId);
+      if (!sellerResult.isValid()) {
+        return OperationResult.error(HttpStatus.BAD_REQUEST, sellerResult.getErrorMessage());
+      }
+    } else {
+      productSent.setSeller(existingProduct.getSeller());
+    }
+
+    // Update client if provided (can be null to remove client)
+    if (clientId != null) {
+      ProductValidationService.ValidationResult clientResult = validationService.setProductClient(productSent, clientId);
+      if (!clientResult.isValid()) {
+        return OperationResult.error(HttpStatus.BAD_REQUEST, clientResult.getErrorMessage());
+      }
+    } else {
+      productSent.setClient(existingProduct.getClient());
+    }
+
+    // Final validation of the updated product
+    ProductValidationService.ValidationResult productResult = validationService.validateProduct(productSent);
+    if (!productResult.isValid()) {
+      return OperationResult.error(HttpStatus.BAD_REQUEST, productResult.getErrorMessage());
+    }
+
+    // Read before save: the merge overwrites the managed existing product
+    boolean stockChanged = !Objects.equals(existingProduct.getStock(), productSent.getStock());
+
+    productDao.save(productSent);
+    changeFeedService.publish(ProductChangeEvent.Type.UPDATED, productSent);
+    if (stockChanged) {
+      changeFeedService.publish(ProductChangeEvent.Type.STOCK, productSent);
+    }
+
+    ProductDetailDTO productDTO = mappingService.toProductDetailDTO(productSent);
+    return OperationResult.of(HttpStatus.OK, productDTO);
+  }
+
+  /**
+   * Applies a merge patch (name, price, description, stock) with a single UPDATE
+   * @param id The product ID
+   * @param patch The merge patch document
+   * @return 204, 400 (invalid patch), 404, or 409 if the name already exists
+   */
+  public OperationResult patch(long id, Map<String, Object> patch) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    String error = mergePatchService.convertAndValidate(
+      Product.class,
+      Product.update.class,
+      PATCHABLE_FIELDS,
+      patch,
+      values
+    );
+    if (error != null) {
+      return OperationResult.error(HttpStatus.BAD_REQUEST, error);
+    }
+
+    boolean updated;
+    try {
+      // Bulk updates skip ProductChangeListener: the version is allocated in the transaction of the statement
+      updated = mergePatchService.update(Product.class, id, values, Map.of("changeVersion", changeVersionService::next));
+    } catch (DataIntegrityViolationException | PersistenceException e) {
+      // Only duplicates are conflicts: any other failure is a server error
+      if (!mergePatchService.isUniqueViolation(e)) {
+        throw e;
+      }
+      return OperationResult.error(HttpStatus.CONFLICT, "Product name already exists");
+    }
+
+    if (!updated) {
+      return OperationResult.of(HttpStatus.NOT_FOUND);
+    }
+
+    Double price = (Double) values.get("price");
+    Integer stock = (Integer) values.get("stock");
+    changeFeedService.publish(ProductChangeEvent.Type.UPDATED, id, price, stock, null);
+    if (values.containsKey("stock")) {
+      changeFeedService.publish(ProductChangeEvent.Type.STOCK, id, price, stock, null);
+    }
+
+    return OperationResult.of(HttpStatus.NO_CONTENT);
+  }
+
+  /**
+   * Deletes a product
+   * @param id The product ID
+   * @return 204, or 404
+   */
+  public OperationResult delete(long id) {
+    Optional<Product> productOptional = productDao.findById(id);
+
+    if (productOptional.isEmpty()) {
+      return OperationResult.of(HttpStatus.NOT_FOUND);
+    }
+
+    productDao.deleteById(id);
+    changeFeedService.publish(ProductChangeEvent.Type.DELETED, id, null, null, null);
+
+    return OperationResult.of(HttpStatus.NO_CONTENT);
+  }
+
+  /**
+   * Assigns a client to a product without one (purchase)
+   * @param id The product ID
+   * @param clientId User ID with CLIENT role
+   * @return 200 with the product, 404, 409 if it already has a client, or 400 if the client is invalid
+   */
+  public OperationResult assignClient(long id, Long clientId) {
+    Optional<Product> productOptional = productDao.findById(id);
+
+    if (productOptional.isEmpty()) {
+      return OperationResult.error(HttpStatus.NOT_FOUND, "Product not found");
+    }
+
+    Product product = productOptional.get();
+
+    // Check if product already has a client
+    if (product.getClient() != null) {
+      return OperationResult.error(HttpStatus.CONFLICT, "Product already has a client");
+    }
+
+    // Validate and set client
+    ProductValidationService.ValidationResult clientResult = validationService.setProductClient(product, clientId);
+    if (!clientResult.isValid()) {
+      return OperationResult.error(HttpStatus.BAD_REQUEST, clientResult.getErrorMessage());
+    }
+
+    productDao.save(product);
+    changeFeedService.publish(ProductChangeEvent.Type.CLIENT_ASSIGNED, product);
+
+    ProductDetailDTO productDTO = mappingService.toProductDetailDTO(product);
+    return OperationResult.of(HttpStatus.OK, productDTO);
+  }
+
+  /**
+   * Removes the client of a product (return/refund)
+   * @param id The product ID
+   * @return 200 with the product, or 404
+   */
+  public OperationResult removeClient(long id) {
+    Optional<Product> productOptional = productDao.findById(id);
+
+    if (productOptional.isEmpty()) {
+      return OperationResult.error(HttpStatus.NOT_FOUND, "Product not found");
+    }
+
+    Product product = productOptional.get();
+    product.setClient(null);
+    productDao.save(product);
+    changeFeedService.publish(ProductChangeEvent.Type.CLIENT_REMOVED, product);
+
+    ProductDetailDTO productDTO = mappingService.toProductDetailDTO(product);
+    return OperationResult.of(HttpStatus.OK, productDTO);
+  }
+}
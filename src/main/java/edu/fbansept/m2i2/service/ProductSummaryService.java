@@ -0,0 +1,44 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.model.Product;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service computing the business summary of products (GET /api/products/business-summary)
+ *
+ * Kept apart from the controller so that the aggregation can be benchmarked on its own
+ * (BusinessSummaryBenchmark).
+ */
+@Service
+public class ProductSummaryService {
+
+  /**
+   * Aggregates the products into totals and counts per admin and per seller
+   * @param products The products to summarize
+   * @return totalProducts, availableProducts, soldProducts, productsByAdmin and productsBySeller (by email)
+   */
+  public Map<String, Object> summarize(List<Product> products) {
+    Map<String, Object> summary = new HashMap<>();
+    summary.put("totalProducts", products.size());
+    summary.put("availableProducts", products.stream().filter(p -> p.getClient() == null).count());
+    summary.put("soldProducts", products.stream().filter(p -> p.getClient() != null).count());
+
+    // Count by admin
+    Map<String, Long> productsByAdmin = products.stream()
+      .filter(p -> p.getAdmin() != null)
+      .collect(Collectors.groupingBy(p -> p.getAdmin().getEmail(), Collectors.counting()));
+    summary.put("productsByAdmin", productsByAdmin);
+
+    // Count by seller
+    Map<String, Long> productsBySeller = products.stream()
+      .filter(p -> p.getSeller() != null)
+      .collect(Collectors.groupingBy(p -> p.getSeller().getEmail(), Collectors.counting()));
+    summary.put("productsBySeller", productsBySeller);
+
+    return summary;
+  }
+}
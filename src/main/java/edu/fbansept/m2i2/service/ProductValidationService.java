@@ -81,7 +81,7 @@ public class ProductValidationService {
    * @param expectedRole The expected role (ADMIN, SELLER, CLIENT)
    * @return ValidationResult containing validation status and error message
    */
-  public ValidationResult validateUserRole(Integer userId, String expectedRole) {
+  public ValidationResult validateUserRole(Long userId, String expectedRole) {
     if (userId == null) {
       return ValidationResult.error("User ID cannot be null");
     }
@@ -114,7 +114,7 @@ public class ProductValidationService {
    * @param adminId The admin user ID
    * @return ValidationResult containing validation status and error message
    */
-  public ValidationResult setProductAdmin(Product product, Integer adminId) {
+  public ValidationResult setProductAdmin(Product product, Long adminId) {
     ValidationResult validation = validateUserRole(adminId, ROLE_ADMIN);
     if (!validation.isValid()) {
       return validation;
@@ -131,7 +131,7 @@ public class ProductValidationService {
    * @param sellerId The seller user ID
    * @return ValidationResult containing validation status and error message
    */
-  public ValidationResult setProductSeller(Product product, Integer sellerId) {
+  public ValidationResult setProductSeller(Product product, Long sellerId) {
     ValidationResult validation = validateUserRole(sellerId, ROLE_SELLER);
     if (!validation.isValid()) {
       return validation;
@@ -148,7 +148,7 @@ public class ProductValidationService {
    * @param clientId The client user ID (can be null)
    * @return ValidationResult containing validation status and error message
    */
-  public ValidationResult setProductClient(Product product, Integer clientId) {
+  public ValidationResult setProductClient(Product product, Long clientId) {
     if (clientId == null) {
       product.setClient(null);
       return ValidationResult.success();
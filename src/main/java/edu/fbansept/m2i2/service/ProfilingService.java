@@ -0,0 +1,300 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.dto.ProfilingRecordingDTO;
+import edu.fbansept.m2i2.dto.ProfilingSummaryDTO;
+import jakarta.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service running on-demand JDK Flight Recorder recordings (/api/admin/profiling)
+ *
+ * One recording at a time, stopped by JFR after its duration (or earlier by stop()).
+ * Once stopped, the recording is dumped to a temporary .jfr file and closed: the file is kept
+ * for download and summary until the next recording replaces it. A new recording is refused
+ * while the file is being downloaded or summarized, so that the file is never deleted under a reader.
+ * The summary reads the file with jdk.jfr.consumer and is computed once per recording.
+ */
+@Service
+public class ProfilingService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProfilingService.class);
+
+  private static final int TOP_ENTRIES = 10;
+  private static final long POLL_MILLIS = 200;
+
+  private final long maxDurationSeconds;
+
+  // Guarded by this
+  private Recording recording;
+  private ProfilingRecordingDTO current;
+  private Path file;
+  private ProfilingSummaryDTO summary;
+  // Downloads and summaries reading the file
+  private int readers;
+
+  public ProfilingService(@Value("${m2i2.profiling.max-duration-seconds:300}") long maxDurationSeconds) {
+    this.maxDurationSeconds = maxDurationSeconds;
+  }
+
+  /**
+   * Starts a recording, replacing the previous completed one
+   * @param durationSeconds Duration, at most m2i2.profiling.max-duration-seconds
+   * @param settings JFR settings profile ("default" or "profile")
+   * @return The running recording
+   * @throws IllegalStateException if a recording is already running
+   * @throws IllegalArgumentException if the duration or settings are invalid
+   */
+  public synchronized ProfilingRecordingDTO start(long durationSeconds, String settings) throws IOException {
+    if (isRunning()) {
+      throw new IllegalStateException("A recording is already running until " + current.getEndsAt());
+    }
+    if (readers > 0) {
+      throw new IllegalStateException("The previous recording is being downloaded or summarized");
+    }
+    if (durationSeconds < 1 || durationSeconds > maxDurationSeconds) {
+      throw new IllegalArgumentException("durationSeconds must be between 1 and " + maxDurationSeconds);
+    }
+
+    Configuration configuration;
+    try {
+      configuration = Configuration.getConfiguration(settings);
+    } catch (IOException | ParseException e) {
+      throw new IllegalArgumentException("Unknown settings profile: " + settings + " (use default or profile)");
+    }
+
+    discard();
+
+    Recording newRecording = new Recording(configuration);
+    newRecording.setName("m2i2-profiling");
+    newRecording.setToDisk(true);
+    newRecording.setDuration(Duration.ofSeconds(durationSeconds));
+    newRecording.start();
+
+    recording = newRecording;
+    current = new ProfilingRecordingDTO(UUID.randomUUID().toString(), settings, durationSeconds);
+    logger.info("🎥 JFR recording {} started ({}, {}s)", current.getId(), settings, durationSeconds);
+    return current;
+  }
+
+  /**
+   * @return The current or last recording, if any
+   */
+  public synchronized Optional<ProfilingRecordingDTO> getRecording() throws IOException {
+    completeIfStopped();
+    return Optional.ofNullable(current);
+  }
+
+  /**
+   * Stops the running recording before the end of its duration
+   * @return The completed recording, empty if none
+   */
+  public synchronized Optional<ProfilingRecordingDTO> stop() throws IOException {
+    if (isRunning()) {
+      recording.stop();
+    }
+    completeIfStopped();
+    return Optional.ofNullable(current);
+  }
+
+  /**
+   * Opens the .jfr file of the completed recording, waiting for a running one to complete
+   * The file is kept until the returned stream is closed.
+   * @param timeoutSeconds Maximum wait
+   * @return The file content, empty if there is no recording or it is still running
+   */
+  public Optional<InputStream> openFile(long timeoutSeconds) throws IOException, InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(timeoutSeconds).toNanos();
+    while (true) {
+      synchronized (this) {
+        completeIfStopped();
+        if (!isRunning() || System.nanoTime() >= deadline) {
+          if (file == null) {
+            return Optional.empty();
+          }
+          InputStream content = Files.newInputStream(file);
+          readers++;
+          return Optional.of(new FilterInputStream(content) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+              try {
+                super.close();
+              } finally {
+                if (!closed) {
+                  closed = true;
+                  release();
+                }
+              }
+            }
+          });
+        }
+      }
+      // Polled outside the lock: status requests stay served while waiting
+      Thread.sleep(POLL_MILLIS);
+    }
+  }
+
+  /**
+   * @return The top hot methods, allocation sites and contended monitors of the completed recording
+   */
+  public Optional<ProfilingSummaryDTO> getSummary() throws IOException {
+    Path summarizedFile;
+    String recordingId;
+    synchronized (this) {
+      completeIfStopped();
+      if (summary != null || file == null) {
+        return Optional.ofNullable(summary);
+      }
+      summarizedFile = file;
+      recordingId = current.getId();
+      readers++;
+    }
+
+    // Parsed outside the lock (a few seconds for a large profile)
+    ProfilingSummaryDTO computed;
+    try {
+      computed = summarize(recordingId, summarizedFile);
+    } finally {
+      release();
+    }
+
+    synchronized (this) {
+      if (current != null && current.getId().equals(recordingId)) {
+        summary = computed;
+      }
+    }
+    return Optional.of(computed);
+  }
+
+  private synchronized void release() {
+    readers--;
+  }
+
+  private boolean isRunning() {
+    return recording != null && recording.getState() != RecordingState.STOPPED
+        && recording.getState() != RecordingState.CLOSED;
+  }
+
+  private void completeIfStopped() throws IOException {
+    if (recording == null || isRunning()) {
+      return;
+    }
+    Path dump = Files.createTempFile("m2i2-profiling-", ".jfr");
+    try {
+      recording.dump(dump);
+    } finally {
+      recording.close();
+      recording = null;
+    }
+    file = dump;
+    current.setStatus(ProfilingRecordingDTO.Status.COMPLETED);
+    current.setStoppedAt(LocalDateTime.now());
+    current.setSizeBytes(Files.size(dump));
+    logger.info("🎥 JFR recording {} completed ({} bytes)", current.getId(), current.getSizeBytes());
+  }
+
+  private void discard() throws IOException {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+    }
+    if (file != null) {
+      Files.deleteIfExists(file);
+      file = null;
+    }
+    current = null;
+    summary = null;
+  }
+
+  private ProfilingSummaryDTO summarize(String recordingId, Path path) throws IOException {
+    Map<String, long[]> hotMethods = new HashMap<>();
+    Map<String, long[]> allocationSites = new HashMap<>();
+    Map<String, long[]> contendedMonitors = new HashMap<>();
+    long events = 0;
+
+    try (RecordingFile recordingFile = new RecordingFile(path)) {
+      while (recordingFile.hasMoreEvents()) {
+        RecordedEvent event = recordingFile.readEvent();
+        events++;
+        switch (event.getEventType().getName()) {
+          case "jdk.ExecutionSample" -> add(hotMethods, topFrame(event), 1);
+          case "jdk.ObjectAllocationSample" -> add(allocationSites, topFrame(event), event.getLong("weight"));
+          case "jdk.JavaMonitorEnter" -> {
+            RecordedClass monitorClass = event.getClass("monitorClass");
+            add(contendedMonitors, monitorClass != null ? monitorClass.getName() : null, event.getDuration().toMillis());
+          }
+          default -> { }
+        }
+      }
+    }
+
+    return new ProfilingSummaryDTO(
+      recordingId,
+      events,
+      top(hotMethods),
+      top(allocationSites),
+      top(contendedMonitors)
+    );
+  }
+
+  private String topFrame(RecordedEvent event) {
+    RecordedStackTrace stackTrace = event.getStackTrace();
+    if (stackTrace == null) {
+      return null;
+    }
+    for (RecordedFrame frame : stackTrace.getFrames()) {
+      if (frame.isJavaFrame()) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+      }
+    }
+    return null;
+  }
+
+  // Entry values: {count, total}
+  private void add(Map<String, long[]> entries, String name, long value) {
+    if (name == null) {
+      return;
+    }
+    long[] entry = entries.computeIfAbsent(name, key -> new long[2]);
+    entry[0]++;
+    entry[1] += value;
+  }
+
+  private List<ProfilingSummaryDTO.Entry> top(Map<String, long[]> entries) {
+    List<ProfilingSummaryDTO.Entry> top = new ArrayList<>(entries.size());
+    entries.forEach((name, entry) -> top.add(new ProfilingSummaryDTO.Entry(name, entry[0], entry[1])));
+    top.sort((a, b) -> Long.compare(b.getTotal(), a.getTotal()));
+    return top.size() > TOP_ENTRIES ? new ArrayList<>(top.subList(0, TOP_ENTRIES)) : top;
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() throws IOException {
+    discard();
+  }
+}
@@ -0,0 +1,67 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.dao.RoleDao;
+import edu.fbansept.m2i2.model.Role;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service holding the role write operations of RoleController and of /api/batch
+ * Bodies are validated by the caller (@Validated(add/update) or the batch executor)
+ */
+@Service
+public class RoleService {
+
+  @Autowired
+  private RoleDao roleDao;
+
+  /**
+   * Creates a role
+   * @param roleSent The validated role
+   * @return 201 with the role
+   */
+  public OperationResult add(Role roleSent) {
+    roleDao.save(roleSent);
+
+    return OperationResult.of(HttpStatus.CREATED, roleSent);
+  }
+
+  /**
+   * Replaces a role
+   * @param id The role ID
+   * @param roleSent The validated role
+   * @return 200 with the role, or 404
+   */
+  public OperationResult update(long id, Role roleSent) {
+    roleSent.setId(id);
+
+    Optional<Role> roleOptional = roleDao.findById(id);
+
+    if (roleOptional.isEmpty()) {
+      return OperationResult.of(HttpStatus.NOT_FOUND);
+    }
+
+    roleDao.save(roleSent);
+
+    return OperationResult.of(HttpStatus.OK, roleSent);
+  }
+
+  /**
+   * Deletes a role
+   * @param id The role ID
+   * @return 204, or 404
+   */
+  public OperationResult delete(long id) {
+    Optional<Role> roleOptional = roleDao.findById(id);
+
+    if (roleOptional.isEmpty()) {
+      return OperationResult.of(HttpStatus.NOT_FOUND);
+    }
+
+    roleDao.deleteById(id);
+
+    return OperationResult.of(HttpStatus.NO_CONTENT);
+  }
+}
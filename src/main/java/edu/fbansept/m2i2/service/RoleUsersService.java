@@ -0,0 +1,132 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.dao.UserDao;
+import edu.fbansept.m2i2.dto.KeysetPageDTO;
+import edu.fbansept.m2i2.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service paginating the users of a role by keyset (role_id, id)
+ *
+ * Each page is a range scan of the idx_user_role_id index starting after the cursor,
+ * so a page of a role with millions of users costs the same as the first one.
+ * The first pages of several roles are read in one UNION ALL of such range scans, one per role
+ */
+@Service
+public class RoleUsersService {
+
+  // Default and maximum number of users per page
+  public static final int DEFAULT_PAGE_SIZE = 100;
+  public static final int MAX_PAGE_SIZE = 1000;
+
+  // Default number of users per role in multi-get responses
+  public static final int DEFAULT_FIRST_PAGE_SIZE = 10;
+
+  @Autowired
+  private UserDao userDao;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Checks the page parameters
+   * @param afterId The cursor (last user ID of the previous page, 0 for the first page)
+   * @param size The page size
+   * @return The error message, or null if the parameters are valid
+   */
+  public String validate(long afterId, int size) {
+    if (afterId < 0) {
+      return "afterId must be >= 0";
+    }
+    if (size < 1 || size > MAX_PAGE_SIZE) {
+      return "Size must be between 1 and " + MAX_PAGE_SIZE;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the users of a role whose ID is greater than the cursor, ordered by ID
+   * @param roleId The role ID
+   * @param afterId The cursor (last user ID of the previous page, 0 for the first page)
+   * @param size The page size
+   * @return The page with the cursor of the next page (null on the last page)
+   */
+  public KeysetPageDTO<User> findUsers(long roleId, long afterId, int size) {
+    // One extra row tells whether another page exists
+    List<User> users = userDao.findByRoleIdAndIdGreaterThanOrderByIdAsc(roleId, afterId, Limit.of(size + 1));
+
+    Long nextAfterId = null;
+    if (users.size() > size) {
+      users = users.subList(0, size);
+      nextAfterId = users.get(size - 1).getId();
+    }
+
+    return new KeysetPageDTO<>(users, size, nextAfterId);
+  }
+
+  /**
+   * Returns the first page of users of each role, in a single query
+   * @param roleIds The role IDs
+   * @param size The page size of each role
+   * @return The page of each role ID (roles without users are absent)
+   */
+  public Map<Long, KeysetPageDTO<User>> findFirstUsers(Collection<Long> roleIds, int size) {
+    // One extra row per role tells whether another page exists
+    Map<Long, List<User>> usersByRole = new HashMap<>();
+    for (User user : findFirstByRoleIdIn(roleIds, size + 1)) {
+      usersByRole.computeIfAbsent(user.getRole().getId(), roleId -> new ArrayList<>()).add(user);
+    }
+
+    Map<Long, KeysetPageDTO<User>> pages = new HashMap<>();
+    usersByRole.forEach((roleId, users) -> {
+      // UNION ALL keeps no order across branches
+      users.sort(Comparator.comparing(User::getId));
+      Long nextAfterId = null;
+      if (users.size() > size) {
+        users = users.subList(0, size);
+        nextAfterId = users.get(size - 1).getId();
+      }
+      pages.put(roleId, new KeysetPageDTO<>(users, size, nextAfterId));
+    });
+    return pages;
+  }
+
+  /**
+   * The first `limit` users of each role: one parenthesized "WHERE role_id = ? ORDER BY id LIMIT ?"
+   * per role, so that each branch stops after `limit` entries of idx_user_role_id
+   * (ranking the users of a role with a window function would read all of them)
+   */
+  @SuppressWarnings("unchecked")
+  private List<User> findFirstByRoleIdIn(Collection<Long> roleIds, int limit) {
+    if (roleIds.isEmpty()) {
+      return List.of();
+    }
+
+    StringBuilder sql = new StringBuilder();
+    for (int i = 0; i < roleIds.size(); i++) {
+      if (i > 0) {
+        sql.append(" UNION ALL ");
+      }
+      sql.append("(SELECT * FROM user WHERE role_id = :role").append(i).append(" ORDER BY id LIMIT :limit)");
+    }
+
+    Query query = entityManager.createNativeQuery(sql.toString(), User.class);
+    int index = 0;
+    for (Long roleId : roleIds) {
+      query.setParameter("role" + index++, roleId);
+    }
+    query.setParameter("limit", limit);
+    return query.getResultList();
+  }
+}
@@ -0,0 +1,222 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.config.ShardContext;
+import edu.fbansept.m2i2.config.ShardRoutingDataSource;
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.model.ProductTombstone;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service running DAO calls on one shard or on every shard in parallel
+ *
+ * Each call runs on a worker thread bound to its shard, in its own transaction,
+ * because the routing DataSource picks the shard when the transaction acquires its connection.
+ * Consequently a routed call never joins the caller's transaction:
+ * there is no atomicity across shards, nor across several routed calls.
+ */
+@Service
+@ConditionalOnProperty(name = "m2i2.sharding.enabled", havingValue = "true")
+public class ShardingService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ShardingService.class);
+
+  // Fibonacci hashing constant: spreads consecutive or time-ordered seller IDs over all shards
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  private final int shardCount;
+  private final TransactionTemplate transactionTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+  private final String ddlAuto;
+  private final ExecutorService executor;
+
+  public ShardingService(
+    ShardRoutingDataSource dataSource,
+    TransactionTemplate transactionTemplate,
+    EntityManagerFactory entityManagerFactory,
+    @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto,
+    @Value("${m2i2.sharding.threads:16}") int threads
+  ) {
+    this.shardCount = dataSource.getShardCount();
+    this.transactionTemplate = transactionTemplate;
+    this.entityManagerFactory = entityManagerFactory;
+    this.ddlAuto = ddlAuto.trim();
+
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "shard-query-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Hibernate creates the schema through the default shard only:
+   * with ddl-auto=create(-drop), the other shards are created the same way
+   */
+  @PostConstruct
+  public void createSchemaOnOtherShards() {
+    if (!ddlAuto.equals("create") && !ddlAuto.equals("create-drop")) {
+      return;
+    }
+
+    SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    for (int shard = 1; shard < shardCount; shard++) {
+      ShardContext.bind(shard);
+      try {
+        sessionFactory.getSchemaManager().dropMappedObjects(false);
+        sessionFactory.getSchemaManager().exportMappedObjects(false);
+        logger.info("Schema created on shard {}", shard);
+      } finally {
+        ShardContext.clear();
+      }
+    }
+  }
+
+  public int getShardCount() {
+    return shardCount;
+  }
+
+  /**
+   * @param entityClass An entity class
+   * @return true if its rows are partitioned over the shards (products and their tombstones),
+   *         false if every shard holds all of them (users and roles)
+   */
+  public boolean isSharded(Class<?> entityClass) {
+    return entityClass == Product.class || entityClass == ProductTombstone.class;
+  }
+
+  /**
+   * Shard holding the products of a seller
+   * @param sellerId The seller ID
+   * @return The shard index, between 0 and shardCount - 1
+   */
+  public int shardOf(long sellerId) {
+    return (int) Math.floorMod((sellerId * HASH_MULTIPLIER) >>> 32, (long) shardCount);
+  }
+
+  /**
+   * Runs a call on one shard, in a transaction of that shard
+   * @param shard The shard index
+   * @param call The DAO call
+   * @return The call result
+   * @throws Throwable The exception thrown by the call
+   */
+  public <T> T onShard(int shard, ShardCall<T> call) throws Throwable {
+    return join(submit(shard, call));
+  }
+
+  /**
+   * Runs the same call on every shard in parallel (scatter)
+   * @param call The DAO call
+   * @return The result of every shard, in shard order
+   * @throws Throwable The first exception thrown by a shard
+   */
+  public <T> List<T> onAllShards(ShardCall<T> call) throws Throwable {
+    return onShards(IntStream.range(0, shardCount).boxed().toList(), call);
+  }
+
+  /**
+   * Runs the same call on several shards in parallel
+   * @param shards The shard indexes
+   * @param call The DAO call
+   * @return The result of every shard, in the order of the shards
+   * @throws Throwable The first exception thrown by a shard
+   */
+  public <T> List<T> onShards(List<Integer> shards, ShardCall<T> call) throws Throwable {
+    List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+    for (int shard : shards) {
+      futures.add(submit(shard, call));
+    }
+
+    List<T> results = new ArrayList<>(futures.size());
+    for (CompletableFuture<T> future : futures) {
+      results.add(join(future));
+    }
+    return results;
+  }
+
+  /**
+   * onShard for calls made outside the DAOs (services running their own queries)
+   * @throws RuntimeException The exception thrown by the call, checked ones wrapped
+   */
+  public <T> T runOnShard(int shard, Supplier<T> call) {
+    return unchecked(() -> onShard(shard, call::get));
+  }
+
+  /**
+   * onAllShards for calls made outside the DAOs (services running their own queries)
+   * @throws RuntimeException The first exception thrown by a shard, checked ones wrapped
+   */
+  public <T> List<T> runOnAllShards(Supplier<T> call) {
+    return unchecked(() -> onAllShards(call::get));
+  }
+
+  private <T> T unchecked(ShardCall<T> call) {
+    try {
+      return call.call();
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Shard call failed", e);
+    }
+  }
+
+  private <T> CompletableFuture<T> submit(int shard, ShardCall<T> call) {
+    return CompletableFuture.supplyAsync(() -> {
+      ShardContext.bind(shard);
+      try {
+        return transactionTemplate.execute(status -> {
+          try {
+            return call.call();
+          } catch (RuntimeException | Error e) {
+            throw e;
+          } catch (Throwable e) {
+            throw new CompletionException(e);
+          }
+        });
+      } finally {
+        ShardContext.clear();
+      }
+    }, executor);
+  }
+
+  private <T> T join(CompletableFuture<T> future) throws Throwable {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * DAO call run on a shard (typically ProceedingJoinPoint::proceed)
+   */
+  @FunctionalInterface
+  public interface ShardCall<T> {
+    T call() throws Throwable;
+  }
+}
@@ -0,0 +1,145 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.config.ShardContext;
+import edu.fbansept.m2i2.dao.ProductDao;
+import edu.fbansept.m2i2.dao.UserDao;
+import edu.fbansept.m2i2.dto.UserDashboardDTO;
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.model.User;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service building the user dashboard in at most 3 statements, whatever the number of products of the user:
+ * - the user with its role
+ * - one UNION ALL returning, for each relation (admin, seller, client), the product IDs of the
+ *   requested page (LIMIT/OFFSET) and the size of the list, each branch on its foreign key index
+ * - the products of the three pages with their users and roles (skipped when the pages are empty)
+ *
+ * With sharding, the UNION ALL runs on every shard (first offset + size IDs of each list),
+ * the IDs are merged and cut per relation and the counts summed.
+ */
+@Service
+public class UserDashboardService {
+
+  private static final String ADMIN = "admin";
+  private static final String SELLER = "seller";
+  private static final String CLIENT = "client";
+
+  @Autowired
+  private UserDao userDao;
+
+  @Autowired
+  private ProductDao productDao;
+
+  @Autowired
+  private ProductMappingService mappingService;
+
+  @Autowired
+  private ObjectProvider<ShardingService> shardingService;
+
+  /**
+   * Builds the dashboard of a user
+   * @param userId The user ID
+   * @param page Page index applied to each product list (0 based)
+   * @param size Page size applied to each product list
+   * @return The dashboard, or empty if no user has this ID
+   */
+  @Transactional(readOnly = true)
+  public Optional<UserDashboardDTO> getDashboard(long userId, int page, int size) {
+    Optional<User> userOptional = userDao.findWithRoleById(userId);
+    if (userOptional.isEmpty()) {
+      return Optional.empty();
+    }
+
+    ShardingService sharding = sharding();
+    long offset = (long) page * size;
+    Map<String, List<Long>> pageIds = new HashMap<>();
+    Map<String, Long> totals = new HashMap<>();
+    for (Object[] row : dashboardRows(sharding, userId, offset, size)) {
+      String relation = row[0].toString().trim();
+      if (row[1] != null) {
+        pageIds.computeIfAbsent(relation, key -> new ArrayList<>()).add(((Number) row[1]).longValue());
+      } else {
+        totals.merge(relation, ((Number) row[2]).longValue(), Long::sum);
+      }
+    }
+    if (sharding != null) {
+      // Every shard returned its first offset + size IDs of each list
+      pageIds.replaceAll((relation, ids) -> ids.stream()
+        .sorted()
+        .skip(offset)
+        .limit(size)
+        .toList());
+    }
+
+    // A product can appear in several lists (e.g. sold to its own seller): loaded once
+    Set<Long> ids = new LinkedHashSet<>();
+    pageIds.values().forEach(ids::addAll);
+    Map<Long, Product> products = ids.isEmpty()
+      ? Map.of()
+      : productDao.findAllWithUsersAndRolesByIdIn(ids).stream()
+        .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+    return Optional.of(
+      new UserDashboardDTO(
+        mappingService.toUserSummaryDTO(userOptional.get()),
+        toPage(ADMIN, pageIds, totals, products, page, size),
+        toPage(SELLER, pageIds, totals, products, page, size),
+        toPage(CLIENT, pageIds, totals, products, page, size)
+      )
+    );
+  }
+
+  private List<Object[]> dashboardRows(ShardingService sharding, long userId, long offset, int size) {
+    if (sharding == null) {
+      return productDao.findDashboardRows(userId, offset, size);
+    }
+
+    int limit = (int) Math.min(offset + size, Integer.MAX_VALUE);
+    List<Object[]> rows = new ArrayList<>();
+    sharding.runOnAllShards(() -> productDao.findDashboardRows(userId, 0, limit)).forEach(rows::addAll);
+    return rows;
+  }
+
+  /**
+   * @return The sharding service if products are spread over the shards and the call is not bound to one
+   */
+  private ShardingService sharding() {
+    ShardingService sharding = shardingService.getIfAvailable();
+    return sharding != null && !ShardContext.isBound() ? sharding : null;
+  }
+
+  private UserDashboardDTO.ProductPageDTO toPage(
+    String relation,
+    Map<String, List<Long>> pageIds,
+    Map<String, Long> totals,
+    Map<Long, Product> products,
+    int page,
+    int size
+  ) {
+    List<Product> items = pageIds.getOrDefault(relation, List.of()).stream()
+      .map(products::get)
+      .filter(Objects::nonNull)
+      .toList();
+
+    return new UserDashboardDTO.ProductPageDTO(
+      mappingService.toProductDetailDTOList(items),
+      page,
+      size,
+      totals.getOrDefault(relation, 0L)
+    );
+  }
+}
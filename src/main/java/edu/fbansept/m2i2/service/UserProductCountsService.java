@@ -0,0 +1,72 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.dao.UserDao;
+import edu.fbansept.m2i2.dto.UserProductCountsDTO;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service reading users with their product counts (aggregate queries of UserDao)
+ *
+ * With sharding, every shard holds all the users but only counts its own products:
+ * the query runs on every shard and the counts are summed per user
+ */
+@Service
+public class UserProductCountsService {
+
+  @Autowired
+  private UserDao userDao;
+
+  @Autowired
+  private ObjectProvider<ShardingService> shardingService;
+
+  /**
+   * @return Every user with its product counts, ordered by ID
+   */
+  public List<UserProductCountsDTO> findAll() {
+    ShardingService sharding = shardingService.getIfAvailable();
+    if (sharding == null) {
+      return userDao.findAllWithProductCounts();
+    }
+
+    Map<Long, UserProductCountsDTO> byId = new LinkedHashMap<>();
+    for (List<UserProductCountsDTO> shardCounts : sharding.runOnAllShards(userDao::findAllWithProductCounts)) {
+      for (UserProductCountsDTO counts : shardCounts) {
+        byId.merge(counts.getId(), counts, this::sum);
+      }
+    }
+    return new ArrayList<>(byId.values());
+  }
+
+  /**
+   * @param id The user ID
+   * @return The user with its product counts, or empty if no user has this ID
+   */
+  public Optional<UserProductCountsDTO> findById(long id) {
+    ShardingService sharding = shardingService.getIfAvailable();
+    if (sharding == null) {
+      return userDao.findWithProductCountsById(id);
+    }
+
+    return sharding.runOnAllShards(() -> userDao.findWithProductCountsById(id)).stream()
+      .flatMap(Optional::stream)
+      .reduce(this::sum);
+  }
+
+  private UserProductCountsDTO sum(UserProductCountsDTO a, UserProductCountsDTO b) {
+    return new UserProductCountsDTO(
+      a.getId(),
+      a.getEmail(),
+      a.getRoleName(),
+      a.getAdminProductCount() + b.getAdminProductCount(),
+      a.getSellerProductCount() + b.getSellerProductCount(),
+      a.getClientProductCount() + b.getClientProductCount()
+    );
+  }
+}
@@ -0,0 +1,150 @@
+package edu.fbansept.m2i2.service;
+
+import edu.fbansept.m2i2.dao.RoleDao;
+import edu.fbansept.m2i2.dao.UserDao;
+import edu.fbansept.m2i2.model.Role;
+import edu.fbansept.m2i2.model.User;
+import jakarta.persistence.PersistenceException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service holding the user write operations of UserController and of /api/batch
+ * Bodies are validated by the caller (@Validated(add/update) or the batch executor)
+ */
+@Service
+public class UserService {
+
+  // Fields a merge patch can update (the password is never patchable)
+  private static final Set<String> PATCHABLE_FIELDS = Set.of("email", "role");
+
+  @Autowired
+  private UserDao userDao;
+
+  @Autowired
+  private RoleDao roleDao;
+
+  @Autowired
+  private MergePatchService mergePatchService;
+
+  /**
+   * Creates a user
+   * @param userSent The validated user
+   * @param roleId Optional role ID
+   * @return 201 with the user, or 400 if the role does not exist
+   */
+  public OperationResult add(User userSent, Long roleId) {
+    // If roleId is provided, set the role relationship
+    if (roleId != null) {
+      Optional<Role> roleOptional = roleDao.findById(roleId);
+      if (roleOptional.isEmpty()) {
+        return OperationResult.error(HttpStatus.BAD_REQUEST, "Role not found");
+      }
+      userSent.setRole(roleOptional.get());
+    }
+    userDao.save(userSent);
+
+    return OperationResult.of(HttpStatus.CREATED, userSent);
+  }
+
+  /**
+   * Replaces a user, keeping its password
+   * @param id The user ID
+   * @param userSent The validated user
+   * @param roleId Optional new role ID, the current role is kept otherwise
+   * @return 200 with the user, 404, or 400 if the role does not exist
+   */
+  public OperationResult update(long id, User userSent, Long roleId) {
+    userSent.setId(id);
+
+    Optional<User> userOptional = userDao.findById(id);
+
+    if (userOptional.isEmpty()) {
+      return OperationResult.of(HttpStatus.NOT_FOUND);
+    }
+
+    // If roleId is provided, update the role relationship
+    if (roleId != null) {
+      Optional<Role> roleOptional = roleDao.findById(roleId);
+      if (roleOptional.isEmpty()) {
+        return OperationResult.error(HttpStatus.BAD_REQUEST, "Role not found");
+      }
+      userSent.setRole(roleOptional.get());
+    } else {
+      // Keep the existing role relationship
+      userSent.setRole(userOptional.get().getRole());
+    }
+
+    // Force not to update the password
+    // We assign the old password to the user to be saved
+    userSent.setPassword(userOptional.get().getPassword());
+
+    userDao.save(userSent);
+
+    return OperationResult.of(HttpStatus.OK, userSent);
+  }
+
+  /**
+   * Applies a merge patch (email, role) with a single UPDATE
+   * @param id The user ID
+   * @param patch The merge patch document
+   * @return 204, 400 (invalid patch or unknown role), 404, or 409 if the email already exists
+   */
+  public OperationResult patch(long id, Map<String, Object> patch) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    String error = mergePatchService.convertAndValidate(
+      User.class,
+      User.update.class,
+      PATCHABLE_FIELDS,
+      patch,
+      values
+    );
+    if (error != null) {
+      return OperationResult.error(HttpStatus.BAD_REQUEST, error);
+    }
+
+    if (values.get("role") instanceof Role role && (role.getId() == null || !roleDao.existsById(role.getId()))) {
+      return OperationResult.error(HttpStatus.BAD_REQUEST, "Role not found");
+    }
+
+    boolean updated;
+    try {
+      updated = mergePatchService.update(User.class, id, values);
+    } catch (DataIntegrityViolationException | PersistenceException e) {
+      // Only duplicates are conflicts: any other failure is a server error
+      if (!mergePatchService.isUniqueViolation(e)) {
+        throw e;
+      }
+      return OperationResult.error(HttpStatus.CONFLICT, "Email already exists");
+    }
+
+    if (!updated) {
+      return OperationResult.of(HttpStatus.NOT_FOUND);
+    }
+
+    return OperationResult.of(HttpStatus.NO_CONTENT);
+  }
+
+  /**
+   * Deletes a user
+   * @param id The user ID
+   * @return 204, or 404
+   */
+  public OperationResult delete(long id) {
+    Optional<User> userOptional = userDao.findById(id);
+
+    if (userOptional.isEmpty()) {
+      return OperationResult.of(HttpStatus.NOT_FOUND);
+    }
+
+    userDao.deleteById(id);
+
+    return OperationResult.of(HttpStatus.NO_CONTENT);
+  }
+}
@@ -0,0 +1,41 @@
+package edu.fbansept.m2i2.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Projection bound to the @JsonView of the current handler method
+ *
+ * Declared as a handler parameter, it is resolved by ViewProjectionArgumentResolver
+ * from the handler's @JsonView, so the query selects exactly the columns
+ * and associations the view serializes:
+ *
+ * @GetMapping("/basic")
+ * @JsonView(UserBasicView.class)
+ * public List<Map<String, Object>> getBasicUsers(ViewProjection projection) {
+ *   return projection.findAll(User.class); // SELECT id, email FROM user
+ * }
+ */
+public class ViewProjection {
+
+  private final FieldProjectionService projectionService;
+  private final Class<?> view;
+
+  public ViewProjection(FieldProjectionService projectionService, Class<?> view) {
+    this.projectionService = projectionService;
+    this.view = view;
+  }
+
+  public List<Map<String, Object>> findAll(Class<?> entityClass) {
+    return projectionService.findAllForView(entityClass, view);
+  }
+
+  public Optional<Map<String, Object>> findById(Class<?> entityClass, Object id) {
+    return projectionService.findByIdForView(entityClass, view, id);
+  }
+
+  public Class<?> getView() {
+    return view;
+  }
+}
@@ -7,7 +7,7 @@ package edu.fbansept.m2i2.view;
  * 
  * Fields included:
  * - All RoleBasicView fields (id, name)
- * - Associated users list
+ * - Associated users list (served one keyset page at a time by the API, see RoleWithUsersDTO)
  * 
  * This view is designed for:
  * - Role detail pages
@@ -0,0 +1,27 @@
+-- Migration of an existing MySQL database to application-generated (Snowflake) IDs
+--
+-- IDs become BIGINT and AUTO_INCREMENT is removed: new rows get their ID from @SnowflakeId.
+-- Existing IDs are kept unchanged. They are far lower than any generated ID,
+-- so ORDER BY id and keyset cursors (afterId, sinceId) stay consistent.
+--
+-- Run once, with the application stopped, before deploying the new version.
+
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE role
+    MODIFY id BIGINT NOT NULL;
+
+ALTER TABLE user
+    MODIFY id BIGINT NOT NULL,
+    MODIFY role_id BIGINT NULL;
+
+ALTER TABLE product
+    MODIFY id BIGINT NOT NULL,
+    MODIFY admin_id BIGINT NOT NULL,
+    MODIFY seller_id BIGINT NOT NULL,
+    MODIFY client_id BIGINT NULL;
+
+ALTER TABLE product_tombstone
+    MODIFY product_id BIGINT NOT NULL;
+
+SET FOREIGN_KEY_CHECKS = 1;
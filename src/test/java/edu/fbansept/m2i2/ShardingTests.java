@@ -0,0 +1,174 @@
+package edu.fbansept.m2i2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.fbansept.m2i2.dao.ProductDao;
+import edu.fbansept.m2i2.dao.RoleDao;
+import edu.fbansept.m2i2.dao.UserDao;
+import edu.fbansept.m2i2.dto.ProductDetailDTO;
+import edu.fbansept.m2i2.dto.UserDashboardDTO;
+import edu.fbansept.m2i2.dto.UserProductCountsDTO;
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.model.Role;
+import edu.fbansept.m2i2.model.User;
+import edu.fbansept.m2i2.service.FieldProjectionService;
+import edu.fbansept.m2i2.service.MergePatchService;
+import edu.fbansept.m2i2.service.ShardingService;
+import edu.fbansept.m2i2.service.UserDashboardService;
+import edu.fbansept.m2i2.service.UserProductCountsService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Three embedded H2 databases acting as shards
+ */
+@SpringBootTest(properties = {
+    "m2i2.sharding.enabled=true",
+    "m2i2.sharding.urls=" +
+        "jdbc:h2:mem:shard0;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1," +
+        "jdbc:h2:mem:shard1;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1," +
+        "jdbc:h2:mem:shard2;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+    "m2i2.sharding.username=sa",
+    "m2i2.sharding.password=",
+    "spring.sql.init.mode=never"
+})
+// The shards are shared: the exact counts of the first test are checked before other tests add rows
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ShardingTests {
+
+    @Autowired
+    private ShardingService shardingService;
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private RoleDao roleDao;
+
+    @Autowired
+    private MergePatchService mergePatchService;
+
+    @Autowired
+    private FieldProjectionService projectionService;
+
+    @Autowired
+    private UserProductCountsService userProductCountsService;
+
+    @Autowired
+    private UserDashboardService dashboardService;
+
+    @Test
+    @Order(1)
+    void productsArePartitionedBySellerAndMergedById() throws Throwable {
+        Role role = new Role();
+        role.setName("SELLER");
+        roleDao.save(role);
+
+        List<User> sellers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            User seller = new User();
+            seller.setEmail("seller" + i + "@example.com");
+            seller.setPassword("root");
+            seller.setRole(role);
+            sellers.add(userDao.save(seller));
+        }
+
+        for (int i = 0; i < 30; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(10.0 + i);
+            product.setStock(i);
+            product.setAdmin(sellers.get(0));
+            product.setSeller(sellers.get(i % sellers.size()));
+            productDao.save(product);
+        }
+
+        // Users and roles are replicated, products are split
+        long productsOnShards = 0;
+        for (int shard = 0; shard < shardingService.getShardCount(); shard++) {
+            assertEquals(6, (long) shardingService.onShard(shard, userDao::count));
+            assertEquals(1, (long) shardingService.onShard(shard, roleDao::count));
+            productsOnShards += shardingService.onShard(shard, productDao::count);
+        }
+        assertEquals(30, productsOnShards);
+
+        // Scatter-gather: every product, merged in ID order
+        List<Product> products = productDao.findAll();
+        assertEquals(30, products.size());
+        for (int i = 1; i < products.size(); i++) {
+            assertTrue(products.get(i - 1).getId() < products.get(i).getId());
+        }
+
+        // Routed to one shard
+        assertEquals(5, productDao.findBySeller(sellers.get(1)).size());
+    }
+
+    @Test
+    @Order(2)
+    void setBasedPathsReachEveryShard() {
+        Role role = new Role();
+        role.setName("PATCH_SELLER");
+        roleDao.save(role);
+
+        List<User> sellers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            User seller = new User();
+            seller.setEmail("patched-seller" + i + "@example.com");
+            seller.setPassword("root");
+            seller.setRole(role);
+            sellers.add(userDao.save(seller));
+        }
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Product product = new Product();
+            product.setName("Patched product " + i);
+            product.setPrice(20.0 + i);
+            product.setStock(i);
+            product.setAdmin(sellers.get(0));
+            product.setSeller(sellers.get(i % sellers.size()));
+            products.add(productDao.save(product));
+        }
+
+        // PATCH reaches the product wherever its seller's shard is
+        for (Product product : products) {
+            assertTrue(mergePatchService.update(Product.class, product.getId(), Map.of("stock", 99)));
+        }
+
+        // Sparse fieldsets are selected on every shard and merged by ID
+        List<String> patchedIds = projectionService.findAll(Product.class, List.of("id", "stock")).stream()
+            .filter(row -> Integer.valueOf(99).equals(row.get("stock")))
+            .map(row -> (String) row.get("id"))
+            .toList();
+        assertEquals(products.stream().map(Product::getId).sorted().map(String::valueOf).toList(), patchedIds);
+        assertEquals(
+            99,
+            projectionService.findById(Product.class, products.get(3).getId(), List.of("stock")).orElseThrow().get("stock")
+        );
+
+        // Counts are summed over the shards
+        UserProductCountsDTO admin = userProductCountsService.findById(sellers.get(0).getId()).orElseThrow();
+        assertEquals(8, admin.getAdminProductCount());
+        assertEquals(2, admin.getSellerProductCount());
+
+        // Dashboard pages are merged and cut over the shards
+        UserDashboardDTO dashboard = dashboardService.getDashboard(sellers.get(0).getId(), 1, 3).orElseThrow();
+        assertEquals(8, dashboard.getAdminProducts().getTotal());
+        assertEquals(
+            products.stream().map(Product::getId).sorted().skip(3).limit(3).toList(),
+            dashboard.getAdminProducts().getItems().stream().map(ProductDetailDTO::getId).toList()
+        );
+        assertEquals(2, dashboard.getSellerProducts().getTotal());
+    }
+}
@@ -0,0 +1,134 @@
+package edu.fbansept.m2i2.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Snowflake IDs with a controlled clock (rollover, clock going backwards) and under contention
+ */
+class SnowflakeTests {
+
+    private static final long SEQUENCE_MASK = (1L << Snowflake.SEQUENCE_BITS) - 1;
+
+    // 2026-01-01T00:00:00Z
+    private static final long NOW = 1767225600000L;
+
+    @Test
+    void exhaustedSequenceRollsIntoTheNextMillisecond() {
+        AtomicLong clock = new AtomicLong(NOW);
+        Snowflake snowflake = new Snowflake(7, clock::get);
+
+        long previous = -1;
+        for (int i = 0; i <= SEQUENCE_MASK; i++) {
+            long id = snowflake.nextId();
+            assertTrue(id > previous);
+            assertEquals(NOW, Snowflake.timestampOf(id));
+            assertEquals(i, id & SEQUENCE_MASK);
+            previous = id;
+        }
+
+        // 4097th ID of the same millisecond: borrowed from the next one
+        long borrowed = snowflake.nextId();
+        assertTrue(borrowed > previous);
+        assertEquals(NOW + 1, Snowflake.timestampOf(borrowed));
+        assertEquals(0, borrowed & SEQUENCE_MASK);
+        assertEquals(7, Snowflake.nodeOf(borrowed));
+
+        // The wall clock reaching the borrowed millisecond continues its sequence
+        clock.set(NOW + 1);
+        long next = snowflake.nextId();
+        assertEquals(NOW + 1, Snowflake.timestampOf(next));
+        assertEquals(1, next & SEQUENCE_MASK);
+    }
+
+    @Test
+    void clockGoingBackwardsNeverRepeatsIds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        Snowflake snowflake = new Snowflake(3, clock::get);
+
+        long before = snowflake.nextId();
+
+        // e.g. NTP correction: IDs keep the last timestamp and advance the sequence
+        clock.set(NOW - 5_000);
+        long during = snowflake.nextId();
+        assertTrue(during > before);
+        assertEquals(NOW, Snowflake.timestampOf(during));
+        assertEquals((before & SEQUENCE_MASK) + 1, during & SEQUENCE_MASK);
+
+        // Once the clock is past the last timestamp, IDs follow it again
+        clock.set(NOW + 1);
+        long after = snowflake.nextId();
+        assertTrue(after > during);
+        assertEquals(NOW + 1, Snowflake.timestampOf(after));
+        assertEquals(0, after & SEQUENCE_MASK);
+    }
+
+    @Test
+    void concurrentCallsReturnUniqueIncreasingIds() throws Exception {
+        int threads = 8;
+        int idsPerThread = 20_000;
+        Snowflake snowflake = Snowflake.forNode(42);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long[] ids = new long[idsPerThread];
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids[i] = snowflake.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            Set<Long> all = new HashSet<>(threads * idsPerThread);
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(ids[i] > 0);
+                    assertEquals(42, Snowflake.nodeOf(ids[i]));
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1], "IDs of one thread must be strictly increasing");
+                    }
+                    all.add(ids[i]);
+                }
+            }
+            assertEquals(threads * idsPerThread, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nodeIdMustFitInTenBits() {
+        assertThrows(IllegalArgumentException.class, () -> Snowflake.forNode(-1));
+        assertThrows(IllegalArgumentException.class, () -> Snowflake.forNode(Snowflake.MAX_NODE_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new Snowflake(Snowflake.MAX_NODE_ID + 1, () -> NOW));
+
+        assertEquals(0, Snowflake.nodeOf(Snowflake.forNode(0).nextId()));
+        assertEquals(Snowflake.MAX_NODE_ID, Snowflake.nodeOf(Snowflake.forNode(Snowflake.MAX_NODE_ID).nextId()));
+        assertSame(Snowflake.forNode(5), Snowflake.forNode(5));
+
+        // The highest node stays out of the sign bit and the timestamp
+        long id = new Snowflake(Snowflake.MAX_NODE_ID, () -> NOW).nextId();
+        assertTrue(id > 0);
+        assertEquals(NOW, Snowflake.timestampOf(id));
+    }
+}
@@ -0,0 +1,59 @@
+package edu.fbansept.m2i2.monitoring;
+
+/**
+ * Fails a test when a block issues more SQL statements than allowed, or looks like an N+1
+ *
+ * <pre>
+ * try (QueryBudget budget = QueryBudget.atMost(3)) {
+ *     productDao.findAll();
+ * }
+ * </pre>
+ *
+ * Only statements issued on the test thread are counted.
+ */
+public final class QueryBudget implements AutoCloseable {
+
+    private final int maxStatements;
+    private final QueryScope scope;
+    private boolean noNPlusOne;
+
+    private QueryBudget(int maxStatements) {
+        this.maxStatements = maxStatements;
+        this.scope = QueryMonitor.open("query budget").keepStatements();
+    }
+
+    public static QueryBudget atMost(int maxStatements) {
+        return new QueryBudget(maxStatements);
+    }
+
+    /**
+     * Also fails when a statement shape reaches m2i2.query-monitor.n-plus-one-threshold
+     * @return this budget
+     */
+    public QueryBudget noNPlusOne() {
+        this.noNPlusOne = true;
+        return this;
+    }
+
+    /**
+     * Statements counted so far
+     */
+    public int getStatements() {
+        return scope.getStatements();
+    }
+
+    @Override
+    public void close() {
+        scope.close();
+
+        if (scope.getStatements() > maxStatements) {
+            throw new AssertionError(
+                "Expected at most " + maxStatements + " SQL statements but " + scope.getStatements() +
+                " were executed:\n" + String.join("\n", scope.getExecutedStatements())
+            );
+        }
+        if (noNPlusOne && !scope.getNPlusOneSuspects().isEmpty()) {
+            throw new AssertionError("N+1 suspects: " + scope.getNPlusOneSuspects());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package edu.fbansept.m2i2.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.fbansept.m2i2.dao.ProductDao;
+import edu.fbansept.m2i2.dao.RoleDao;
+import edu.fbansept.m2i2.dao.UserDao;
+import edu.fbansept.m2i2.dto.ProductDetailDTO;
+import edu.fbansept.m2i2.dto.UserDashboardDTO;
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.model.Role;
+import edu.fbansept.m2i2.model.User;
+import edu.fbansept.m2i2.service.UserDashboardService;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Embedded H2 database, statements counted by the Hibernate hooks of QueryMonitorConfig
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:query-monitor;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.sql.init.mode=never"
+})
+class QueryMonitorTests {
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private RoleDao roleDao;
+
+    @Autowired
+    private UserDashboardService dashboardService;
+
+    @Test
+    void shapeCollapsesLiteralsAndInLists() {
+        assertEquals(
+            "select * from product where id in (?...) and stock > ?",
+            QueryMonitor.shape("select * from product where id in (?, ?, ?) and stock > 10")
+        );
+    }
+
+    @Test
+    void associationsOfAListAreBatchFetched() {
+        Role role = new Role();
+        role.setName("SELLER");
+        roleDao.save(role);
+
+        for (int i = 0; i < 10; i++) {
+            User seller = new User();
+            seller.setEmail("budget" + i + "@example.com");
+            seller.setPassword("root");
+            seller.setRole(role);
+            userDao.save(seller);
+
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(10.0 + i);
+            product.setStock(i);
+            product.setAdmin(seller);
+            product.setSeller(seller);
+            productDao.save(product);
+        }
+
+        // Products, then their sellers and roles in one IN query each (default_batch_fetch_size)
+        try (QueryBudget budget = QueryBudget.atMost(4).noNPlusOne()) {
+            assertTrue(productDao.findAll().size() >= 10);
+            assertTrue(budget.getStatements() > 0);
+        }
+    }
+
+    @Test
+    void dashboardFitsInThreeStatements() {
+        Role role = new Role();
+        role.setName("DASHBOARD");
+        roleDao.save(role);
+
+        User seller = new User();
+        seller.setEmail("dashboard.seller@example.com");
+        seller.setPassword("root");
+        seller.setRole(role);
+        userDao.save(seller);
+
+        User admin = new User();
+        admin.setEmail("dashboard.admin@example.com");
+        admin.setPassword("root");
+        admin.setRole(role);
+        userDao.save(admin);
+
+        List<Long> sellerProductIds = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Product product = new Product();
+            product.setName("Dashboard " + i);
+            product.setPrice(10.0 + i);
+            product.setStock(i);
+            product.setAdmin(i < 3 ? seller : admin);
+            product.setSeller(seller);
+            sellerProductIds.add(productDao.save(product).getId());
+        }
+
+        // User, then pages and counts of the three lists, then the products of the pages
+        UserDashboardDTO dashboard;
+        try (QueryBudget budget = QueryBudget.atMost(3).noNPlusOne()) {
+            dashboard = dashboardService.getDashboard(seller.getId(), 1, 10).orElseThrow();
+        }
+
+        assertEquals(25, dashboard.getSellerProducts().getTotal());
+        assertEquals(
+            sellerProductIds.stream().sorted().skip(10).limit(10).toList(),
+            dashboard.getSellerProducts().getItems().stream().map(ProductDetailDTO::getId).toList()
+        );
+        assertEquals(3, dashboard.getAdminProducts().getTotal());
+        assertTrue(dashboard.getAdminProducts().getItems().isEmpty());
+        assertEquals(0, dashboard.getClientProducts().getTotal());
+    }
+}
@@ -0,0 +1,94 @@
+package edu.fbansept.m2i2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.fbansept.m2i2.dao.ProductDao;
+import edu.fbansept.m2i2.dao.RoleDao;
+import edu.fbansept.m2i2.dao.UserDao;
+import edu.fbansept.m2i2.dto.BatchOperationsRequestDTO;
+import edu.fbansept.m2i2.dto.BatchOperationsResponseDTO;
+import edu.fbansept.m2i2.model.Product;
+import edu.fbansept.m2i2.model.Role;
+import edu.fbansept.m2i2.model.User;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Embedded H2 database, every batch in one transaction and one persistence context
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:batch-operations;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.sql.init.mode=never"
+})
+class BatchOperationServiceTests {
+
+    @Autowired
+    private BatchOperationService batchOperationService;
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private RoleDao roleDao;
+
+    @Test
+    void patchIsKeptByLaterOperationsOnTheSameProduct() {
+        User admin = user("batch.admin@example.com", role("ADMIN"));
+        User seller = user("batch.seller@example.com", role("SELLER"));
+        User client = user("batch.client@example.com", role("CLIENT"));
+
+        // The created product stays in the persistence context while the patch updates its row
+        BatchOperationsResponseDTO response = batchOperationService.execute(new BatchOperationsRequestDTO(List.of(
+            new BatchOperationsRequestDTO.OperationDTO(
+                "product.create",
+                Map.of("adminId", admin.getId(), "sellerId", seller.getId()),
+                Map.of(
+                    "name", "Batch product",
+                    "price", 10.0,
+                    "stock", 1,
+                    "admin", Map.of("id", admin.getId()),
+                    "seller", Map.of("id", seller.getId())
+                )
+            ),
+            new BatchOperationsRequestDTO.OperationDTO(
+                "product.patch",
+                Map.of("id", "${0.id}"),
+                Map.of("price", 25.5, "stock", 42)
+            ),
+            new BatchOperationsRequestDTO.OperationDTO(
+                "product.assign-client",
+                Map.of("id", "${0.id}", "clientId", client.getId()),
+                null
+            )
+        )));
+
+        assertTrue(response.isCommitted(), () -> response.getResults().stream().map(result -> result.getStatus() + " " + result.getError()).toList().toString());
+        Product product = productDao.findById(response.getResults().get(0).getId()).orElseThrow();
+        assertEquals(Integer.valueOf(42), product.getStock());
+        assertEquals(Double.valueOf(25.5), product.getPrice());
+        assertEquals(client.getId(), product.getClient().getId());
+    }
+
+    private Role role(String name) {
+        Role role = new Role();
+        role.setName(name);
+        return roleDao.save(role);
+    }
+
+    private User user(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("root");
+        user.setRole(role);
+        return userDao.save(user);
+    }
+}